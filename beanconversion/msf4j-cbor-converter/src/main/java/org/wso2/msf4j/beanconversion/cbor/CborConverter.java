@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.beanconversion.cbor;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
+import org.osgi.service.component.annotations.Component;
+import org.wso2.msf4j.beanconversion.BeanConversionException;
+import org.wso2.msf4j.beanconversion.MediaTypeConverter;
+import org.wso2.msf4j.util.BufferUtil;
+import org.wso2.msf4j.util.ByteBufferOutputStream;
+import org.wso2.msf4j.util.ByteBufferSequence;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+
+/**
+ * Media type converter for the application/cbor mime type. Beans are mapped the same way as by the JSON converter
+ * but are written in the compact binary CBOR encoding (RFC 7049), which avoids formatting and parsing numbers and
+ * escaping strings as text. Gson streams beans straight into the encoding, while content is read into a JSON tree
+ * before it is mapped to a bean.
+ * <p>
+ * The converter is registered through {@link java.util.ServiceLoader} when the jar is in the class path and as an
+ * OSGi service when the bundle is deployed.
+ */
+@Component(
+        name = "org.wso2.msf4j.beanconversion.cbor.CborConverter",
+        service = MediaTypeConverter.class,
+        immediate = true
+)
+public class CborConverter extends MediaTypeConverter {
+
+    public static final String APPLICATION_CBOR = "application/cbor";
+
+    private static final Gson gson = new Gson();
+
+    /**
+     * Provides the supported media types for bean conversions.
+     */
+    @Override
+    public String[] getSupportedMediaTypes() {
+        return new String[]{APPLICATION_CBOR};
+    }
+
+    /**
+     * Convert an Object to a CBOR encoded ByteBuffer.
+     *
+     * @param object object that needs to be converted to a media content
+     * @return CBOR encoded byte buffer
+     */
+    @Override
+    protected ByteBuffer toMedia(Object object) throws BeanConversionException {
+        ByteBufferOutputStream outputStream = new ByteBufferOutputStream();
+        try {
+            toMedia(object, outputStream);
+        } catch (IOException e) {
+            throw new BeanConversionException("Unable to perform object to CBOR conversion", e);
+        }
+        return BufferUtil.merge(outputStream.getBuffers());
+    }
+
+    /**
+     * Write an Object to a stream as CBOR.
+     *
+     * @param object       object that needs to be converted to a media content
+     * @param outputStream stream to which the CBOR content is written
+     */
+    @Override
+    protected void toMedia(Object object, OutputStream outputStream) throws BeanConversionException, IOException {
+        CborEncoder encoder = new CborEncoder(outputStream);
+        try {
+            gson.toJson(object, object.getClass(), encoder);
+        } catch (JsonIOException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new BeanConversionException("Unable to perform object to CBOR conversion", e);
+        }
+        encoder.flush();
+    }
+
+    /**
+     * Convert a CBOR ByteBuffer content to an object.
+     *
+     * @param content    content that needs to be converted to an object
+     * @param targetType media type of the content
+     * @return Object that maps the CBOR data
+     */
+    @Override
+    protected Object toObject(ByteBuffer content, Type targetType) throws BeanConversionException {
+        return toObject(new ByteBufferSequence(Collections.singletonList(content)), targetType);
+    }
+
+    /**
+     * Convert a CBOR content spread over a sequence of buffers to an object.
+     *
+     * @param content    content that needs to be converted to an object
+     * @param targetType media type of the content
+     * @return Object that maps the CBOR data
+     */
+    @Override
+    protected Object toObject(ByteBufferSequence content, Type targetType) throws BeanConversionException {
+        try {
+            return toObject(content.asInputStream(), targetType);
+        } catch (IOException e) {
+            throw new BeanConversionException("Unable to perform CBOR to object conversion", e);
+        }
+    }
+
+    /**
+     * Convert a CBOR content read from a stream to an object. The stream must hold a single data item.
+     *
+     * @param content    stream of the content that needs to be converted to an object
+     * @param targetType media type of the content
+     * @return Object that maps the CBOR data
+     */
+    @Override
+    protected Object toObject(InputStream content, Type targetType) throws BeanConversionException, IOException {
+        CborDecoder decoder = new CborDecoder(content);
+        JsonElement element = decoder.read();
+        if (!decoder.isAtEnd()) {
+            throw new BeanConversionException("Unexpected content after the CBOR data item");
+        }
+        try {
+            return gson.fromJson(element, targetType);
+        } catch (JsonParseException e) {
+            throw new BeanConversionException("Unable to perform CBOR to object conversion", e);
+        }
+    }
+}
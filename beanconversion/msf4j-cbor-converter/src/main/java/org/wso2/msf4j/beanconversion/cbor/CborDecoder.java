@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.beanconversion.cbor;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import org.wso2.msf4j.beanconversion.BeanConversionException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+import static org.wso2.msf4j.beanconversion.cbor.CborEncoder.BREAK;
+import static org.wso2.msf4j.beanconversion.cbor.CborEncoder.EIGHT_BYTES;
+import static org.wso2.msf4j.beanconversion.cbor.CborEncoder.FALSE;
+import static org.wso2.msf4j.beanconversion.cbor.CborEncoder.FLOAT16;
+import static org.wso2.msf4j.beanconversion.cbor.CborEncoder.FLOAT32;
+import static org.wso2.msf4j.beanconversion.cbor.CborEncoder.FLOAT64;
+import static org.wso2.msf4j.beanconversion.cbor.CborEncoder.FOUR_BYTES;
+import static org.wso2.msf4j.beanconversion.cbor.CborEncoder.INDEFINITE;
+import static org.wso2.msf4j.beanconversion.cbor.CborEncoder.MAJOR_ARRAY;
+import static org.wso2.msf4j.beanconversion.cbor.CborEncoder.MAJOR_BYTES;
+import static org.wso2.msf4j.beanconversion.cbor.CborEncoder.MAJOR_MAP;
+import static org.wso2.msf4j.beanconversion.cbor.CborEncoder.MAJOR_NEGATIVE;
+import static org.wso2.msf4j.beanconversion.cbor.CborEncoder.MAJOR_TAG;
+import static org.wso2.msf4j.beanconversion.cbor.CborEncoder.MAJOR_TEXT;
+import static org.wso2.msf4j.beanconversion.cbor.CborEncoder.MAJOR_UNSIGNED;
+import static org.wso2.msf4j.beanconversion.cbor.CborEncoder.NULL;
+import static org.wso2.msf4j.beanconversion.cbor.CborEncoder.ONE_BYTE;
+import static org.wso2.msf4j.beanconversion.cbor.CborEncoder.TRUE;
+import static org.wso2.msf4j.beanconversion.cbor.CborEncoder.TWO_BYTES;
+import static org.wso2.msf4j.beanconversion.cbor.CborEncoder.UNDEFINED;
+
+/**
+ * Reads a CBOR (RFC 7049) data item as a JSON tree. Both definite and indefinite length items are accepted. Tags
+ * are skipped, byte strings become arrays of bytes, undefined becomes null and map keys must be text strings or
+ * numbers. The stream is read as the tree is built, so it is only consumed up to the end of the data item.
+ */
+final class CborDecoder {
+
+    private static final int MAX_DEPTH = 512;
+    private static final int CHUNK_SIZE = 8192;
+
+    private final InputStream inputStream;
+    private int depth;
+
+    CborDecoder(InputStream inputStream) {
+        this.inputStream = inputStream;
+    }
+
+    JsonElement read() throws IOException {
+        return read(readByte());
+    }
+
+    /**
+     * @return true if the stream does not have any content left
+     */
+    boolean isAtEnd() throws IOException {
+        return inputStream.read() == -1;
+    }
+
+    private JsonElement read(int initialByte) throws IOException {
+        // Tags only annotate the data item that follows them, so a run of tags is skipped without recursing
+        while (initialByte >>> 5 == MAJOR_TAG) {
+            readArgument(initialByte & 0x1f);
+            initialByte = readByte();
+        }
+        if (initialByte == BREAK) {
+            throw malformed("unexpected break");
+        }
+        int majorType = initialByte >>> 5;
+        int info = initialByte & 0x1f;
+        switch (majorType) {
+            case MAJOR_UNSIGNED: {
+                long value = readArgument(info);
+                return new JsonPrimitive(value >= 0 ? (Number) value : new BigInteger(Long.toUnsignedString(value)));
+            }
+            case MAJOR_NEGATIVE: {
+                long value = readArgument(info);
+                return new JsonPrimitive(value >= 0 ? (Number) (-1 - value) :
+                                         BigInteger.ONE.negate().subtract(new BigInteger(Long.toUnsignedString(value))));
+            }
+            case MAJOR_BYTES: {
+                JsonArray array = new JsonArray();
+                for (byte b : readString(MAJOR_BYTES, info)) {
+                    array.add(new JsonPrimitive(b));
+                }
+                return array;
+            }
+            case MAJOR_TEXT:
+                return new JsonPrimitive(new String(readString(MAJOR_TEXT, info), StandardCharsets.UTF_8));
+            case MAJOR_ARRAY:
+                return readArray(info);
+            case MAJOR_MAP:
+                return readMap(info);
+            default:
+                return readSimple(initialByte);
+        }
+    }
+
+    private JsonArray readArray(int info) throws IOException {
+        enter();
+        JsonArray array = new JsonArray();
+        if (info == INDEFINITE) {
+            for (int initialByte = readByte(); initialByte != BREAK; initialByte = readByte()) {
+                array.add(read(initialByte));
+            }
+        } else {
+            for (long i = readLength(info); i > 0; i--) {
+                array.add(read());
+            }
+        }
+        depth--;
+        return array;
+    }
+
+    private JsonObject readMap(int info) throws IOException {
+        enter();
+        JsonObject object = new JsonObject();
+        if (info == INDEFINITE) {
+            for (int initialByte = readByte(); initialByte != BREAK; initialByte = readByte()) {
+                object.add(readKey(read(initialByte)), read());
+            }
+        } else {
+            for (long i = readLength(info); i > 0; i--) {
+                object.add(readKey(read()), read());
+            }
+        }
+        depth--;
+        return object;
+    }
+
+    private String readKey(JsonElement key) throws IOException {
+        if (!key.isJsonPrimitive()) {
+            throw malformed("map keys must be text strings or numbers");
+        }
+        return key.getAsString();
+    }
+
+    private JsonElement readSimple(int initialByte) throws IOException {
+        switch (initialByte) {
+            case FALSE:
+                return new JsonPrimitive(false);
+            case TRUE:
+                return new JsonPrimitive(true);
+            case NULL:
+            case UNDEFINED:
+                return JsonNull.INSTANCE;
+            case FLOAT16:
+                return new JsonPrimitive(halfToFloat((int) readUnsigned(2)));
+            case FLOAT32:
+                return new JsonPrimitive(Float.intBitsToFloat((int) readUnsigned(4)));
+            case FLOAT64:
+                return new JsonPrimitive(Double.longBitsToDouble(readUnsigned(8)));
+            default:
+                throw malformed("unsupported simple value " + (initialByte & 0x1f));
+        }
+    }
+
+    /**
+     * Read the content of a byte or text string. Indefinite length strings are a series of definite length chunks
+     * of the same major type.
+     */
+    private byte[] readString(int majorType, int info) throws IOException {
+        if (info != INDEFINITE) {
+            return readBytes(readLength(info));
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        for (int initialByte = readByte(); initialByte != BREAK; initialByte = readByte()) {
+            int chunkInfo = initialByte & 0x1f;
+            if (initialByte >>> 5 != majorType || chunkInfo == INDEFINITE) {
+                throw malformed("invalid chunk of an indefinite length string");
+            }
+            byte[] chunk = readBytes(readLength(chunkInfo));
+            outputStream.write(chunk, 0, chunk.length);
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Read the given number of bytes. The array grows as content arrives, so a bogus length in a small message
+     * does not allocate a large array.
+     */
+    private byte[] readBytes(long length) throws IOException {
+        if (length <= CHUNK_SIZE) {
+            byte[] bytes = new byte[(int) length];
+            readFully(bytes, 0, bytes.length);
+            return bytes;
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(CHUNK_SIZE);
+        byte[] chunk = new byte[CHUNK_SIZE];
+        for (long remaining = length; remaining > 0; ) {
+            int read = (int) Math.min(remaining, CHUNK_SIZE);
+            readFully(chunk, 0, read);
+            outputStream.write(chunk, 0, read);
+            remaining -= read;
+        }
+        return outputStream.toByteArray();
+    }
+
+    private long readLength(int info) throws IOException {
+        long length = readArgument(info);
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw malformed("length " + Long.toUnsignedString(length) + " is too large");
+        }
+        return length;
+    }
+
+    private long readArgument(int info) throws IOException {
+        if (info < ONE_BYTE) {
+            return info;
+        }
+        switch (info) {
+            case ONE_BYTE:
+                return readUnsigned(1);
+            case TWO_BYTES:
+                return readUnsigned(2);
+            case FOUR_BYTES:
+                return readUnsigned(4);
+            case EIGHT_BYTES:
+                return readUnsigned(8);
+            default:
+                throw malformed("invalid additional information " + info);
+        }
+    }
+
+    private long readUnsigned(int length) throws IOException {
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            value = (value << 8) | readByte();
+        }
+        return value;
+    }
+
+    private int readByte() throws IOException {
+        int value = inputStream.read();
+        if (value == -1) {
+            throw new EOFException("Unexpected end of CBOR content");
+        }
+        return value;
+    }
+
+    private void readFully(byte[] bytes, int off, int len) throws IOException {
+        while (len > 0) {
+            int read = inputStream.read(bytes, off, len);
+            if (read == -1) {
+                throw new EOFException("Unexpected end of CBOR content");
+            }
+            off += read;
+            len -= read;
+        }
+    }
+
+    private void enter() {
+        if (++depth > MAX_DEPTH) {
+            throw malformed("nesting is deeper than " + MAX_DEPTH);
+        }
+    }
+
+    private static BeanConversionException malformed(String reason) {
+        return new BeanConversionException("Malformed CBOR content: " + reason);
+    }
+
+    private static float halfToFloat(int half) {
+        int exponent = (half >>> 10) & 0x1f;
+        int mantissa = half & 0x3ff;
+        float value;
+        if (exponent == 0) {
+            value = mantissa * 0x1p-24f;
+        } else if (exponent == 0x1f) {
+            value = mantissa == 0 ? Float.POSITIVE_INFINITY : Float.NaN;
+        } else {
+            value = (mantissa + 1024) * (float) Math.pow(2, exponent - 25);
+        }
+        return (half & 0x8000) == 0 ? value : -value;
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.beanconversion.cbor;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link JsonWriter} which writes CBOR (RFC 7049) instead of JSON text, so Gson streams a bean straight into its
+ * CBOR encoding without building a JSON tree first. Arrays and objects are written as indefinite length items since
+ * their size is not known when they begin. Integral numbers are written as CBOR integers, other numbers as single or
+ * double precision floats depending on whether single precision is lossless. Output is buffered, so
+ * {@link #flush()} must be called once the content is written.
+ */
+final class CborEncoder extends JsonWriter {
+
+    static final int MAJOR_UNSIGNED = 0;
+    static final int MAJOR_NEGATIVE = 1;
+    static final int MAJOR_BYTES = 2;
+    static final int MAJOR_TEXT = 3;
+    static final int MAJOR_ARRAY = 4;
+    static final int MAJOR_MAP = 5;
+    static final int MAJOR_TAG = 6;
+    static final int MAJOR_SIMPLE = 7;
+
+    static final int FALSE = 0xf4;
+    static final int TRUE = 0xf5;
+    static final int NULL = 0xf6;
+    static final int UNDEFINED = 0xf7;
+    static final int FLOAT16 = 0xf9;
+    static final int FLOAT32 = 0xfa;
+    static final int FLOAT64 = 0xfb;
+    static final int BREAK = 0xff;
+
+    static final int ONE_BYTE = 24;
+    static final int TWO_BYTES = 25;
+    static final int FOUR_BYTES = 26;
+    static final int EIGHT_BYTES = 27;
+    static final int INDEFINITE = 31;
+
+    private static final int BUFFER_SIZE = 512;
+
+    private static final Writer UNUSED_WRITER = new Writer() {
+        @Override
+        public void write(char[] chars, int off, int len) throws IOException {
+            throw new UnsupportedOperationException("CBOR content is not written as text");
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private final OutputStream outputStream;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int count;
+    private String deferredName;
+
+    CborEncoder(OutputStream outputStream) {
+        super(UNUSED_WRITER);
+        this.outputStream = outputStream;
+    }
+
+    @Override
+    public JsonWriter beginArray() throws IOException {
+        beforeValue();
+        writeByte(MAJOR_ARRAY << 5 | INDEFINITE);
+        return this;
+    }
+
+    @Override
+    public JsonWriter endArray() throws IOException {
+        writeByte(BREAK);
+        return this;
+    }
+
+    @Override
+    public JsonWriter beginObject() throws IOException {
+        beforeValue();
+        writeByte(MAJOR_MAP << 5 | INDEFINITE);
+        return this;
+    }
+
+    @Override
+    public JsonWriter endObject() throws IOException {
+        if (deferredName != null) {
+            throw new IllegalStateException("Name " + deferredName + " does not have a value");
+        }
+        writeByte(BREAK);
+        return this;
+    }
+
+    @Override
+    public JsonWriter name(String name) throws IOException {
+        if (name == null) {
+            throw new NullPointerException("name == null");
+        }
+        if (deferredName != null) {
+            throw new IllegalStateException("Name " + deferredName + " does not have a value");
+        }
+        deferredName = name;
+        return this;
+    }
+
+    @Override
+    public JsonWriter nullValue() throws IOException {
+        if (deferredName != null && !getSerializeNulls()) {
+            // Like JSON, drop the member altogether
+            deferredName = null;
+            return this;
+        }
+        beforeValue();
+        writeByte(NULL);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeText(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        writeByte(value ? TRUE : FALSE);
+        return this;
+    }
+
+    /**
+     * Overrides the method of the same signature in Gson 2.7 and later, which Gson uses to write boxed booleans.
+     */
+    public JsonWriter value(Boolean value) throws IOException {
+        return value == null ? nullValue() : value(value.booleanValue());
+    }
+
+    /**
+     * Overrides the method of the same signature in Gson 2.9.1 and later.
+     */
+    public JsonWriter value(float value) throws IOException {
+        return value((double) value);
+    }
+
+    @Override
+    public JsonWriter value(double value) throws IOException {
+        beforeValue();
+        writeFloat(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(long value) throws IOException {
+        beforeValue();
+        writeInteger(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Number value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeNumber(value);
+        return this;
+    }
+
+    /**
+     * Overrides the method of the same signature in Gson 2.4 and later. Raw JSON text cannot be written as CBOR.
+     */
+    public JsonWriter jsonValue(String value) throws IOException {
+        throw new UnsupportedOperationException("Raw JSON values cannot be written as CBOR");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    /**
+     * Write the name of the object member the value belongs to, if any.
+     */
+    private void beforeValue() throws IOException {
+        if (deferredName != null) {
+            writeText(deferredName);
+            deferredName = null;
+        }
+    }
+
+    private void writeNumber(Number number) throws IOException {
+        if (number instanceof Integer || number instanceof Long || number instanceof Short ||
+            number instanceof Byte) {
+            writeInteger(number.longValue());
+        } else if (number instanceof Double || number instanceof Float) {
+            writeFloat(number.doubleValue());
+        } else if (number instanceof BigInteger && ((BigInteger) number).bitLength() < Long.SIZE) {
+            writeInteger(number.longValue());
+        } else {
+            // Numbers parsed from text, such as gson's LazilyParsedNumber, only tell their kind by their text
+            try {
+                writeInteger(Long.parseLong(number.toString()));
+            } catch (NumberFormatException e) {
+                writeFloat(number.doubleValue());
+            }
+        }
+    }
+
+    private void writeInteger(long value) throws IOException {
+        if (value >= 0) {
+            writeHeader(MAJOR_UNSIGNED, value);
+        } else {
+            writeHeader(MAJOR_NEGATIVE, -1 - value);
+        }
+    }
+
+    private void writeFloat(double value) throws IOException {
+        float single = (float) value;
+        if (single == value) {
+            writeByte(FLOAT32);
+            writeUnsigned(Float.floatToIntBits(single), 4);
+        } else {
+            writeByte(FLOAT64);
+            writeUnsigned(Double.doubleToLongBits(value), 8);
+        }
+    }
+
+    private void writeText(String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        writeHeader(MAJOR_TEXT, bytes.length);
+        writeBytes(bytes);
+    }
+
+    /**
+     * Write the initial byte of a data item followed by its argument in the shortest form.
+     */
+    private void writeHeader(int majorType, long argument) throws IOException {
+        int major = majorType << 5;
+        if (argument >= 0 && argument < ONE_BYTE) {
+            writeByte(major | (int) argument);
+        } else if (argument >= 0 && argument <= 0xff) {
+            writeByte(major | ONE_BYTE);
+            writeUnsigned(argument, 1);
+        } else if (argument >= 0 && argument <= 0xffff) {
+            writeByte(major | TWO_BYTES);
+            writeUnsigned(argument, 2);
+        } else if (argument >= 0 && argument <= 0xffffffffL) {
+            writeByte(major | FOUR_BYTES);
+            writeUnsigned(argument, 4);
+        } else {
+            writeByte(major | EIGHT_BYTES);
+            writeUnsigned(argument, 8);
+        }
+    }
+
+    private void writeUnsigned(long value, int length) throws IOException {
+        ensureCapacity(length);
+        for (int shift = (length - 1) * 8; shift >= 0; shift -= 8) {
+            buffer[count++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void writeByte(int value) throws IOException {
+        ensureCapacity(1);
+        buffer[count++] = (byte) value;
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        if (bytes.length > BUFFER_SIZE - count) {
+            flushBuffer();
+            if (bytes.length > BUFFER_SIZE) {
+                outputStream.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+    }
+
+    private void ensureCapacity(int length) throws IOException {
+        if (BUFFER_SIZE - count < length) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            outputStream.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+}
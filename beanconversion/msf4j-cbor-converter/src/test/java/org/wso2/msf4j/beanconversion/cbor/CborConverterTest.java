@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.beanconversion.cbor;
+
+import org.testng.annotations.Test;
+import org.wso2.msf4j.beanconversion.BeanConversionException;
+import org.wso2.msf4j.beanconversion.MediaTypeConverter;
+import org.wso2.msf4j.internal.beanconversion.BeanConverter;
+import org.wso2.msf4j.util.ByteBufferOutputStream;
+import org.wso2.msf4j.util.ByteBufferSequence;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Test the CBOR media type converter.
+ */
+public class CborConverterTest {
+
+    private final MediaTypeConverter converter = new CborConverter();
+
+    @Test
+    public void testServiceLoaderRegistration() {
+        assertTrue(BeanConverter.getConverter("application/cbor") instanceof CborConverter);
+        assertTrue(BeanConverter.getConverter("Application/CBOR; foo=bar") instanceof CborConverter);
+    }
+
+    @Test
+    public void testEncoding() {
+        // Examples from RFC 7049 Appendix A
+        assertEquals("00", encode(0));
+        assertEquals("17", encode(23));
+        assertEquals("1818", encode(24));
+        assertEquals("1903e8", encode(1000));
+        assertEquals("1a000f4240", encode(1000000));
+        assertEquals("1b000000e8d4a51000", encode(1000000000000L));
+        assertEquals("20", encode(-1));
+        assertEquals("3903e7", encode(-1000));
+        assertEquals("fb3ff199999999999a", encode(1.1));
+        assertEquals("fa47c35000", encode(100000.0));
+        assertEquals("f5", encode(true));
+        assertEquals("6449455446", encode("IETF"));
+        assertEquals("62c3bc", encode("ü"));
+        // Arrays and maps are streamed as indefinite length items
+        assertEquals("9f019f0203ff9f0405ffff", encode(Arrays.asList(1, Arrays.asList(2, 3), Arrays.asList(4, 5))));
+        assertEquals("bf61610161629f0203ffff", encode(new Sample(1, Arrays.asList(2, 3))));
+    }
+
+    @Test
+    public void testDecoding() {
+        assertEquals(1000000000000L, (long) decode("1b000000e8d4a51000", Long.class));
+        assertEquals(-1000, (int) decode("3903e7", Integer.class));
+        assertEquals(1.5, decode("f93e00", Double.class), 0);
+        assertEquals(100000.0, decode("fa47c35000", Double.class), 0);
+        assertEquals("IETF", decode("6449455446", String.class));
+        // Indefinite length string, array and map, and a tagged item
+        assertEquals("streaming", decode("7f657374726561646d696e67ff", String.class));
+        Sample sample = decode("bf61610161629f0203ffff", Sample.class);
+        assertEquals(1, sample.a);
+        assertEquals(Arrays.asList(2, 3), sample.b);
+        assertEquals("2013-03-21T20:04:00Z", decode("c074323031332d30332d32315432303a30343a30305a", String.class));
+    }
+
+    @Test
+    public void testBeanRoundTrip() {
+        Sample sample = new Sample(-42, Arrays.asList(0, 255, 65536, Integer.MIN_VALUE));
+        sample.name = "msf4j ☃";
+        sample.ratio = 0.1;
+        sample.flags = new boolean[]{true, false};
+        sample.attributes = new LinkedHashMap<>();
+        sample.attributes.put("k", "v");
+
+        ByteBufferOutputStream outputStream = new ByteBufferOutputStream(16);
+        converter.convertToMedia(sample, outputStream);
+        ByteBufferSequence content = new ByteBufferSequence(outputStream.getBuffers());
+        assertEquals(converter.convertToMedia(sample).remaining(), content.remaining());
+
+        Sample result = (Sample) converter.convertToObject(content, Sample.class);
+        assertEquals(sample.a, result.a);
+        assertEquals(sample.b, result.b);
+        assertEquals(sample.name, result.name);
+        assertEquals(sample.ratio, result.ratio);
+        assertTrue(Arrays.equals(sample.flags, result.flags));
+        assertEquals(sample.attributes, result.attributes);
+    }
+
+    @Test(expectedExceptions = BeanConversionException.class)
+    public void testTruncatedContent() {
+        converter.convertToObject(ByteBuffer.wrap(hex("8301820203")), Object.class);
+    }
+
+    @Test(expectedExceptions = BeanConversionException.class)
+    public void testTrailingContent() {
+        converter.convertToObject(ByteBuffer.wrap(hex("0101")), Integer.class);
+    }
+
+    @Test
+    public void testLongRunOfTags() {
+        byte[] content = new byte[1000001];
+        Arrays.fill(content, (byte) 0xc0);
+        content[content.length - 1] = 0x01;
+        assertEquals(1, (int) converter.convertToObject(ByteBuffer.wrap(content), Integer.class));
+    }
+
+    @Test(expectedExceptions = BeanConversionException.class)
+    public void testTaggedBreak() {
+        converter.convertToObject(ByteBuffer.wrap(hex("9fc1ff")), Object.class);
+    }
+
+    @Test(expectedExceptions = BeanConversionException.class)
+    public void testBogusLength() {
+        converter.convertToObject(ByteBuffer.wrap(hex("5b7fffffffffffffff")), Object.class);
+    }
+
+    private String encode(Object object) {
+        ByteBuffer buffer = converter.convertToMedia(object);
+        StringBuilder builder = new StringBuilder();
+        while (buffer.hasRemaining()) {
+            builder.append(String.format("%02x", buffer.get()));
+        }
+        return builder.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T decode(String hex, Class<T> type) {
+        return (T) converter.convertToObject(ByteBuffer.wrap(hex(hex)), type);
+    }
+
+    private static byte[] hex(String hex) {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+        }
+        return bytes;
+    }
+
+    /**
+     * Bean used in the conversions.
+     */
+    private static class Sample {
+        private int a;
+        private List<Integer> b = new ArrayList<>();
+        private String name;
+        private Double ratio;
+        private boolean[] flags;
+        private Map<String, String> attributes;
+
+        Sample() {
+        }
+
+        Sample(int a, List<Integer> b) {
+            this.a = a;
+            this.b = b;
+        }
+    }
+}
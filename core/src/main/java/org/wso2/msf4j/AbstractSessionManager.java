@@ -18,19 +18,28 @@
  */
 package org.wso2.msf4j;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.msf4j.internal.session.BoundedSessionMap;
 import org.wso2.msf4j.internal.session.SessionIdGenerator;
+import org.wso2.msf4j.util.SystemVariableUtil;
 
+import java.io.IOException;
+import java.io.ObjectStreamConstants;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Abstract SessionManager implementation which leave the sessions persistence related method to be implemented.
  */
 public abstract class AbstractSessionManager implements SessionManager {
-    private boolean isStopped;
+    private static final Logger log = LoggerFactory.getLogger(AbstractSessionManager.class);
+    private volatile boolean isStopped;
 
     /**
      * The default maximum inactive interval, in minutes, for Sessions created by
@@ -39,7 +48,7 @@ public abstract class AbstractSessionManager implements SessionManager {
     private static final int DEFAULT_MAX_INACTIVE_INTERVAL = 15;  // In minutes
 
     /**
-     * Max number of sessions that can be active at a given time.
+     * Default max number of sessions kept in memory at a given time.
      */
     private static final int DEFAULT_MAX_ACTIVE_SESSIONS = 100_000;
 
@@ -48,24 +57,68 @@ public abstract class AbstractSessionManager implements SessionManager {
      */
     private static final int SESSION_ID_LENGTH = 16;
 
-    private Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private BoundedSessionMap<Session> sessions;
     private SessionIdGenerator sessionIdGenerator = new SessionIdGenerator();
+    private int maxActiveSessions = Integer.parseInt(
+            SystemVariableUtil.getValue("MSF4J_SESSION_MAX_ACTIVE", String.valueOf(DEFAULT_MAX_ACTIVE_SESSIONS)));
 
-    private ScheduledExecutorService sessionExpiryChecker;
+    /**
+     * Whether sessions evicted for lack of room stay in the persistent storage, from which they are read back on
+     * their next use, rather than being deleted.
+     */
+    private final boolean spillEvictedSessions =
+            Boolean.parseBoolean(SystemVariableUtil.getValue("MSF4J_SESSION_SPILL_EVICTED", "true"));
+
+    /**
+     * Whether sessions persisted with Java serialization are read whatever the configured serializer is. Java
+     * deserialization of a tampered storage can run arbitrary code, so this is off unless the MSF4J_SESSION_READ_LEGACY
+     * system variable enables it.
+     */
+    private volatile boolean readLegacySessions =
+            Boolean.parseBoolean(SystemVariableUtil.getValue("MSF4J_SESSION_READ_LEGACY", "false"));
+
+    private static final SessionSerializer JAVA_SESSION_SERIALIZER = new JavaSessionSerializer();
+
+    private ScheduledThreadPoolExecutor sessionExpiryChecker;
+    // Purges the storage of sessions expired while out of memory, apart from the expiry tasks it would hold up
+    private ScheduledThreadPoolExecutor sessionPurger;
+    private volatile SessionSerializer sessionSerializer = new BinarySessionSerializer();
 
     public final void init() {
         sessionIdGenerator.setSessionIdLength(SESSION_ID_LENGTH);
-        loadSessions(sessions);
 
-        // Session expiry scheduled task
-        sessionExpiryChecker = Executors.newScheduledThreadPool(1);
-        sessionExpiryChecker.scheduleAtFixedRate(() ->
-                        sessions.values().parallelStream()
-                                .filter(session ->
-                                        (System.currentTimeMillis() - session.getLastAccessedTime() >=
-                                                session.getMaxInactiveInterval() * 60 * 1000))
-                                .forEach(Session::invalidate),
-                30, 30, TimeUnit.SECONDS);
+        // Each session has a single expiry task, scheduled for the time at which it would expire. Accessing a
+        // session does not touch the task; the task checks the access time when it runs and reschedules itself
+        // if the session has been used since, so only sessions which are due are ever looked at.
+        sessionExpiryChecker = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "msf4j-session-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sessionExpiryChecker.setRemoveOnCancelPolicy(true);
+
+        // Once the limit is reached, the least recently accessed sessions make room for new ones
+        sessions = new BoundedSessionMap<>(maxActiveSessions, this::evictSession);
+        Map<String, Session> loadedSessions = new ConcurrentHashMap<>();
+        loadSessions(loadedSessions);
+        loadedSessions.values().forEach(session -> {
+            // Sessions which do not fit are left in the storage, as if they had been evicted
+            if (spillEvictedSessions && sessions.size() >= maxActiveSessions) {
+                return;
+            }
+            sessions.put(session.getId(), session);
+            scheduleExpiry(session);
+        });
+
+        if (spillEvictedSessions) {
+            sessionPurger = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "msf4j-session-purge");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sessionPurger.scheduleWithFixedDelay(this::purgeExpiredSessions, DEFAULT_MAX_INACTIVE_INTERVAL,
+                                                 DEFAULT_MAX_INACTIVE_INTERVAL, TimeUnit.MINUTES);
+        }
     }
 
     public final Session getSession(String sessionId) {
@@ -73,9 +126,16 @@ public abstract class AbstractSessionManager implements SessionManager {
         Session session = sessions.get(sessionId);
         if (session == null) {
             session = readSession(sessionId);
+            // A session read back from the storage may have expired while it was not in memory
+            if (session != null && System.currentTimeMillis() >= session.getExpiryTime()) {
+                deleteSession(session);
+                return null;
+            }
         }
         if (session != null) {
-            sessions.put(session.getId(), session);
+            if (sessions.put(session.getId(), session) != session) {
+                scheduleExpiry(session);
+            }
             session.setNew(false);
         }
         return session;
@@ -83,22 +143,160 @@ public abstract class AbstractSessionManager implements SessionManager {
 
     public final Session createSession() {
         checkValidity();
-        if (sessions.size() >= DEFAULT_MAX_ACTIVE_SESSIONS) {
-            throw new IllegalStateException("Too many active sessions");
-        }
         Session session = new Session(sessionIdGenerator.generateSessionId(""), DEFAULT_MAX_INACTIVE_INTERVAL);
         session.setManager(this);
         sessions.put(session.getId(), session);
         saveSession(session);
+        scheduleExpiry(session);
         return session;
     }
 
     public final void invalidateSession(Session session) {
         checkValidity();
         sessions.remove(session.getId());
+        Future<?> expiryTask = session.getExpiryTask();
+        if (expiryTask != null) {
+            expiryTask.cancel(false);
+        }
         deleteSession(session);
     }
 
+    /**
+     * Schedule the expiry check of a session for the time at which it would expire, replacing any earlier check.
+     *
+     * @param session session to be expired
+     */
+    final void scheduleExpiry(Session session) {
+        if (sessionExpiryChecker == null || isStopped) {
+            return;
+        }
+        Future<?> expiryTask = session.getExpiryTask();
+        if (expiryTask != null) {
+            expiryTask.cancel(false);
+        }
+        long delay = Math.max(0, session.getExpiryTime() - System.currentTimeMillis());
+        session.setExpiryTask(sessionExpiryChecker.schedule(() -> expire(session), delay, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Drop a session which has been evicted from memory. Unless spilling is disabled, a persistent SessionManager
+     * keeps the session in its storage, along with the time it was last accessed, and reads it back when it is used
+     * again.
+     */
+    private void evictSession(Session session) {
+        Future<?> expiryTask = session.getExpiryTask();
+        if (expiryTask != null) {
+            expiryTask.cancel(false);
+        }
+        if (spillEvictedSessions) {
+            saveSession(session);
+        } else {
+            deleteSession(session);
+        }
+    }
+
+    /**
+     * Delete the sessions of the storage which have expired while they were not in memory, such as evicted sessions
+     * which have not been used again. Only the sessions whose stored expiry time has passed are read, to check that
+     * they have not been saved again since.
+     */
+    private void purgeExpiredSessions() {
+        long now = System.currentTimeMillis();
+        for (String sessionId : getExpiredSessionIds(now)) {
+            if (isStopped) {
+                return;
+            }
+            if (sessions.contains(sessionId)) {
+                continue;
+            }
+            try {
+                Session session = readSession(sessionId);
+                if (session != null && now >= session.getExpiryTime() && !sessions.contains(sessionId)) {
+                    deleteSession(session);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Cannot purge session " + sessionId, e);
+            }
+        }
+    }
+
+    /**
+     * Get the IDs of the sessions in the persistent storage whose expiry time, as recorded alongside them when they
+     * were saved, has passed, without reading the sessions themselves. A SessionManager without a storage has none.
+     *
+     * @param now current time in milliseconds
+     * @return IDs of the stored sessions which have expired
+     */
+    protected Collection<String> getExpiredSessionIds(long now) {
+        return Collections.emptyList();
+    }
+
+    private void expire(Session session) {
+        if (!session.isValid() || sessions.get(session.getId()) != session) {
+            return;
+        }
+        long delay = session.getExpiryTime() - System.currentTimeMillis();
+        if (delay > 0) {
+            // Accessed since the check was scheduled
+            session.setExpiryTask(sessionExpiryChecker.schedule(() -> expire(session), delay, TimeUnit.MILLISECONDS));
+        } else {
+            session.invalidate();
+        }
+    }
+
+    /**
+     * @return serializer used to persist sessions.
+     */
+    public final SessionSerializer getSessionSerializer() {
+        return sessionSerializer;
+    }
+
+    /**
+     * Set the serializer used to persist sessions, {@link BinarySessionSerializer} by default.
+     *
+     * @param sessionSerializer session serializer
+     */
+    public final void setSessionSerializer(SessionSerializer sessionSerializer) {
+        this.sessionSerializer = sessionSerializer;
+    }
+
+    /**
+     * Read sessions persisted with Java serialization, the format used before the serializer could be chosen,
+     * whatever the configured serializer is, so they survive an upgrade. Only enable this while the storage is
+     * trusted. Defaults to the MSF4J_SESSION_READ_LEGACY system variable or false.
+     *
+     * @param readLegacySessions whether to read sessions persisted with Java serialization
+     */
+    public final void setReadLegacySessions(boolean readLegacySessions) {
+        this.readLegacySessions = readLegacySessions;
+    }
+
+    /**
+     * Deserialize a persisted session. When reading legacy sessions is enabled, sessions persisted with Java
+     * serialization are recognized by their stream header and read as such whatever the configured serializer is.
+     * They are written in the configured format the next time they are saved. Otherwise they are rejected unless
+     * {@link JavaSessionSerializer} is the configured serializer.
+     *
+     * @param bytes serialized session
+     * @return the session
+     * @throws IOException if the bytes are not a serialized session
+     */
+    protected final Session deserializeSession(byte[] bytes) throws IOException {
+        SessionSerializer serializer = sessionSerializer;
+        if (isJavaSerialized(bytes) && !(serializer instanceof JavaSessionSerializer)) {
+            if (!readLegacySessions) {
+                throw new IOException("Session persisted with Java serialization, which is only read when " +
+                                      "MSF4J_SESSION_READ_LEGACY is enabled");
+            }
+            return JAVA_SESSION_SERIALIZER.deserialize(bytes);
+        }
+        return serializer.deserialize(bytes);
+    }
+
+    private static boolean isJavaSerialized(byte[] bytes) {
+        return bytes.length >= 2 && (short) (bytes[0] << 8 | bytes[1] & 0xff) == ObjectStreamConstants.STREAM_MAGIC;
+    }
+
     @Override
     public final int getDefaultMaxInactiveInterval() {
         return DEFAULT_MAX_INACTIVE_INTERVAL;
@@ -106,7 +304,34 @@ public abstract class AbstractSessionManager implements SessionManager {
 
     @Override
     public final int getDefaultMaxActiveSessions() {
-        return DEFAULT_MAX_ACTIVE_SESSIONS;
+        return maxActiveSessions;
+    }
+
+    /**
+     * Set the maximum number of sessions kept in memory, which defaults to the MSF4J_SESSION_MAX_ACTIVE system
+     * variable or 100,000. This has to be set before the SessionManager is initialized.
+     *
+     * @param maxActiveSessions max active sessions
+     */
+    public final void setMaxActiveSessions(int maxActiveSessions) {
+        if (sessions != null) {
+            throw new IllegalStateException("This SessionManager has already been initialized");
+        }
+        this.maxActiveSessions = maxActiveSessions;
+    }
+
+    /**
+     * @return approximate number of sessions in memory.
+     */
+    public final long getActiveSessionCount() {
+        return sessions == null ? 0 : sessions.size();
+    }
+
+    /**
+     * @return number of sessions evicted from memory to make room for new ones.
+     */
+    public final long getEvictedSessionCount() {
+        return sessions == null ? 0 : sessions.getEvictionCount();
     }
 
     @Override
@@ -118,6 +343,21 @@ public abstract class AbstractSessionManager implements SessionManager {
     public final void stop() {
         sessionExpiryChecker.shutdown();
         isStopped = true;
+        if (sessionPurger != null) {
+            sessionPurger.shutdown();
+            try {
+                sessionPurger.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        stopPersistence();
+    }
+
+    /**
+     * Called once this SessionManager has been stopped, to complete any pending work of the session persistence.
+     */
+    protected void stopPersistence() {
     }
 
     protected final void checkValidity() {
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wso2.msf4j;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Select the threads on which the resource methods of a microservice, or a single resource method, are run.
+ * Methods which block, for example on a database or a downstream service, should not hold the transport worker
+ * threads. An annotation on a method takes precedence over the one on its class; without either, the mode set by
+ * MSF4J_DISPATCH_MODE applies, which is {@link DispatchMode#INLINE} by default.
+ * <p>
+ * Interceptors run on the same thread as the resource method, so thread local state set by a preCall is visible to
+ * the method and to the postCall.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Dispatch {
+
+    /**
+     * @return threads on which the resource methods are run
+     */
+    DispatchMode value();
+
+}
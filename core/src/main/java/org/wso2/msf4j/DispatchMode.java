@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wso2.msf4j;
+
+/**
+ * Threads on which resource methods are run, see {@link Dispatch}.
+ */
+public enum DispatchMode {
+
+    /**
+     * Run on the transport worker thread which received the request. Suits methods which do not block.
+     */
+    INLINE,
+
+    /**
+     * Run on a bounded pool of threads, sized by MSF4J_DISPATCH_POOL_SIZE, whose queue holds up to
+     * MSF4J_DISPATCH_QUEUE_SIZE requests. Requests which do not fit are answered with 503 Service Unavailable.
+     */
+    POOLED,
+
+    /**
+     * Run each request on a virtual thread of its own. On a JVM without virtual threads the pool of
+     * {@link #POOLED} is used instead.
+     */
+    VIRTUAL
+}
@@ -14,14 +14,16 @@
  * limitations under the License.
  */
 
-package org.wso2.msf4j.internal.entitywriter;
+package org.wso2.msf4j;
 
 import org.wso2.carbon.messaging.CarbonCallback;
 import org.wso2.carbon.messaging.CarbonMessage;
 
 /**
  * Interface that provides the capability of writing an entity type to
- * a carbon message.
+ * a carbon message. Writers for further entity types can be added through
+ * {@link MicroservicesRunner#addEntityWriter(EntityWriter[])} or registered as OSGi services; the writer of the
+ * closest supertype of an entity is used to write it.
  *
  * @param <T> type of the entity
  */
@@ -51,4 +53,21 @@ public interface EntityWriter<T> {
     void writeData(CarbonMessage carbonMessage, T entity, String mediaType,
                    int chunkSize, CarbonCallback cb);
 
+    /**
+     * Write the entity object to the carbon message in response to a request. Writers which take the request
+     * headers into account, for example to serve byte ranges, override this; by default the request is ignored.
+     *
+     * @param carbonMessage response message
+     * @param entity    object
+     * @param mediaType user defined media type
+     * @param chunkSize user defined chunk size, see {@link #writeData(CarbonMessage, Object, String, int,
+     *                  CarbonCallback)}
+     * @param cb        callback method that should be called to start sending the response payload
+     * @param request   request being responded to, may be null
+     */
+    default void writeData(CarbonMessage carbonMessage, T entity, String mediaType,
+                           int chunkSize, CarbonCallback cb, Request request) {
+        writeData(carbonMessage, entity, mediaType, chunkSize, cb);
+    }
+
 }
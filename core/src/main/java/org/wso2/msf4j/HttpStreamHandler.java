@@ -32,6 +32,20 @@ public interface HttpStreamHandler {
      */
     void init(Response response);
 
+    /**
+     * Initialize the stream handler with control over the rate at which chunks are delivered. Chunks are only
+     * passed to {@link #chunk(ByteBuffer)} while there is outstanding demand, so a handler which cannot keep up
+     * can stop requesting chunks and ask for more later, from any thread. By default all the chunks are requested
+     * up front.
+     *
+     * @param response     response object that should be used to send response
+     * @param subscription subscription used to request chunks
+     */
+    default void init(Response response, HttpStreamSubscription subscription) {
+        init(response);
+        subscription.request(Long.MAX_VALUE);
+    }
+
     /**
      * Http request content will be streamed directly to this method.
      *
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j;
+
+/**
+ * Demand signal of a streamed request body, given to
+ * {@link HttpStreamHandler#init(Response, HttpStreamSubscription)}.
+ */
+public interface HttpStreamSubscription {
+
+    /**
+     * Request more chunks. Demand is cumulative and {@link Long#MAX_VALUE} means unbounded. This may be called from
+     * within {@link HttpStreamHandler#chunk(java.nio.ByteBuffer)} or from any other thread, in which case delivery
+     * continues on the calling thread.
+     *
+     * @param n number of chunks, which must be positive
+     */
+    void request(long n);
+
+    /**
+     * Stop delivering chunks. The rest of the body is discarded and {@link HttpStreamHandler#end()} is not called,
+     * so the handler should have sent its response.
+     */
+    void cancel();
+}
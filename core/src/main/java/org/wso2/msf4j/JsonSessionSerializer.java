@@ -0,0 +1,141 @@
+/*
+ *  Copyright (c) 2016 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.msf4j;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link SessionSerializer} which writes sessions as JSON, for stores that should stay human readable. Each attribute
+ * is written along with its type, and read back with Gson.
+ * <p>
+ * Since the type is read from the stored data, only attributes which are strings, boxed primitives, or lists and
+ * maps of JSON values are supported, and no other class is ever instantiated when a session is read. Lists and maps
+ * are read back as {@link ArrayList} and {@link LinkedHashMap} holding strings, doubles, booleans, lists and maps.
+ */
+public class JsonSessionSerializer implements SessionSerializer {
+
+    private static final Map<String, Class<?>> SCALAR_TYPES = new HashMap<>();
+    private static final String LIST_TYPE = ArrayList.class.getName();
+    private static final String MAP_TYPE = LinkedHashMap.class.getName();
+
+    static {
+        for (Class<?> type : new Class<?>[]{String.class, Boolean.class, Character.class, Byte.class, Short.class,
+                                             Integer.class, Long.class, Float.class, Double.class}) {
+            SCALAR_TYPES.put(type.getName(), type);
+        }
+    }
+
+    private final Gson gson = new Gson();
+
+    @Override
+    public byte[] serialize(Session session) throws IOException {
+        JsonObject json = new JsonObject();
+        json.addProperty("id", session.getId());
+        json.addProperty("creationTime", session.getCreationTime());
+        json.addProperty("lastAccessedTime", session.getLastAccessedTime());
+        json.addProperty("maxInactiveInterval", session.getMaxInactiveInterval());
+        JsonObject attributes = new JsonObject();
+        for (String name : session.getAttributeNames()) {
+            Object value = session.getAttribute(name);
+            if (value != null) {
+                JsonObject attribute = new JsonObject();
+                attribute.addProperty("type", getType(name, value));
+                attribute.add("value", gson.toJsonTree(value));
+                attributes.add(name, attribute);
+            }
+        }
+        json.add("attributes", attributes);
+        return gson.toJson(json).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Session deserialize(byte[] bytes) throws IOException {
+        try {
+            JsonObject json = new JsonParser().parse(new String(bytes, StandardCharsets.UTF_8)).getAsJsonObject();
+            Map<String, Object> attributes = new HashMap<>();
+            for (Map.Entry<String, JsonElement> entry : json.getAsJsonObject("attributes").entrySet()) {
+                JsonObject attribute = entry.getValue().getAsJsonObject();
+                String typeName = attribute.get("type").getAsString();
+                Class<?> type = SCALAR_TYPES.get(typeName);
+                if (type == null) {
+                    if (LIST_TYPE.equals(typeName)) {
+                        type = ArrayList.class;
+                    } else if (MAP_TYPE.equals(typeName)) {
+                        type = LinkedHashMap.class;
+                    } else {
+                        throw new IOException("Unsupported type " + typeName + " of session attribute " +
+                                              entry.getKey());
+                    }
+                }
+                attributes.put(entry.getKey(), gson.fromJson(attribute.get("value"), type));
+            }
+            return new Session(json.get("id").getAsString(), json.get("creationTime").getAsLong(),
+                               json.get("lastAccessedTime").getAsLong(), json.get("maxInactiveInterval").getAsInt(),
+                               attributes);
+        } catch (JsonParseException | IllegalStateException | NullPointerException e) {
+            throw new IOException("Not a JSON serialized session", e);
+        }
+    }
+
+    private static String getType(String name, Object value) throws IOException {
+        if (SCALAR_TYPES.containsKey(value.getClass().getName())) {
+            return value.getClass().getName();
+        } else if (value instanceof List && isJsonValue(value)) {
+            return LIST_TYPE;
+        } else if (value instanceof Map && isJsonValue(value)) {
+            return MAP_TYPE;
+        }
+        throw new IOException("Session attribute " + name + " of type " + value.getClass().getName() +
+                              " cannot be written as JSON");
+    }
+
+    private static boolean isJsonValue(Object value) {
+        if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean) {
+            return true;
+        } else if (value instanceof Collection) {
+            for (Object item : (Collection<?>) value) {
+                if (!isJsonValue(item)) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!(entry.getKey() instanceof String) || !isJsonValue(entry.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ *  Copyright (c) 2016 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.msf4j;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.msf4j.internal.session.SessionLog;
+import org.wso2.msf4j.util.SystemVariableUtil;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * This session manager persists sessions in an append-only log in the local file system. Unlike
+ * {@link PersistentSessionManager}, which keeps a file per session, the sessions share a few large segment files
+ * which are compacted in the background, and start-up reads them sequentially.
+ */
+public class LogSessionManager extends AbstractSessionManager {
+    private static final Logger log = LoggerFactory.getLogger(LogSessionManager.class);
+    private static final String SESSION_LOG_DIR = ".session-log";
+    private static final long DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    private final SessionLog sessionLog;
+
+    /**
+     * Create a session manager configured by the MSF4J_SESSION_LOG_DIR, MSF4J_SESSION_SEGMENT_SIZE, in bytes, and
+     * MSF4J_SESSION_FSYNC system variables.
+     */
+    public LogSessionManager() {
+        this(SystemVariableUtil.getValue("MSF4J_SESSION_LOG_DIR", SESSION_LOG_DIR),
+             Long.parseLong(SystemVariableUtil.getValue("MSF4J_SESSION_SEGMENT_SIZE",
+                                                        String.valueOf(DEFAULT_SEGMENT_SIZE))),
+             Boolean.parseBoolean(SystemVariableUtil.getValue("MSF4J_SESSION_FSYNC", "false")));
+    }
+
+    /**
+     * @param sessionLogDir  directory in which the session log is kept
+     * @param maxSegmentSize size in bytes after which a new log segment is started
+     * @param fsync          whether every write is forced to the storage device
+     */
+    public LogSessionManager(String sessionLogDir, long maxSegmentSize, boolean fsync) {
+        try {
+            sessionLog = new SessionLog(Paths.get(sessionLogDir), maxSegmentSize, fsync);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open session log " + sessionLogDir, e);
+        }
+    }
+
+    @Override
+    public void loadSessions(Map<String, Session> sessions) {
+        // Decoded from the values read when the log was replayed, rather than reading each session again
+        for (Map.Entry<String, byte[]> entry : sessionLog.takeRecoveredSessions().entrySet()) {
+            Session session;
+            try {
+                session = deserializeSession(entry.getValue());
+            } catch (IOException | RuntimeException e) {
+                // Left in the log, since it may become readable again, for example with another serializer
+                log.warn("Skipping unreadable session " + entry.getKey(), e);
+                continue;
+            }
+            session.setManager(this);
+            // Drop expired sessions
+            if (System.currentTimeMillis() >= session.getExpiryTime()) {
+                deleteSession(session);
+            } else {
+                sessions.put(session.getId(), session);
+            }
+        }
+    }
+
+    @Override
+    public Session readSession(String sessionId) {
+        try {
+            byte[] bytes = sessionLog.read(sessionId);
+            if (bytes == null) {
+                return null;
+            }
+            Session session = deserializeSession(bytes);
+            session.setManager(this);
+            return session;
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot read session " + sessionId, e);
+        }
+    }
+
+    @Override
+    public void saveSession(Session session) {
+        try {
+            sessionLog.write(session.getId(), getSessionSerializer().serialize(session), session.getExpiryTime());
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot save session " + session.getId(), e);
+        }
+    }
+
+    @Override
+    public void deleteSession(Session session) {
+        try {
+            sessionLog.delete(session.getId());
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot delete session " + session.getId(), e);
+        }
+    }
+
+    @Override
+    public void updateSession(Session session) {
+        saveSession(session);
+    }
+
+    @Override
+    protected Collection<String> getExpiredSessionIds(long now) {
+        return sessionLog.getExpiredSessionIds(now);
+    }
+
+    @Override
+    protected void stopPersistence() {
+        try {
+            sessionLog.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot close session log", e);
+        }
+    }
+}
@@ -26,6 +26,7 @@ import org.wso2.carbon.transport.http.netty.internal.NettyTransportContextHolder
 import org.wso2.carbon.transport.http.netty.listener.NettyListener;
 import org.wso2.msf4j.internal.MSF4JMessageProcessor;
 import org.wso2.msf4j.internal.MicroservicesRegistryImpl;
+import org.wso2.msf4j.internal.entitywriter.EntityWriterRegistry;
 import org.wso2.msf4j.util.RuntimeAnnotations;
 
 import java.util.HashMap;
@@ -131,6 +132,21 @@ public class MicroservicesRunner {
         return this;
     }
 
+    /**
+     * Add writers for further response entity types. A writer replaces the one already registered for its type.
+     * Entity writers are shared by all the runners in the JVM.
+     *
+     * @param entityWriter The EntityWriter to be added
+     * @return this MicroservicesRunner object
+     */
+    public MicroservicesRunner addEntityWriter(EntityWriter... entityWriter) {
+        checkState();
+        for (EntityWriter writer : entityWriter) {
+            EntityWriterRegistry.addEntityWriter(writer);
+        }
+        return this;
+    }
+
     /**
      * Method to configure transports.
      *
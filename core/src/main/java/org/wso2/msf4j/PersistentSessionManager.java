@@ -20,84 +20,162 @@ package org.wso2.msf4j;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.msf4j.internal.session.WriteBehindFlusher;
+import org.wso2.msf4j.util.SystemVariableUtil;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This session manager persists sessions in the local file system.
+ * <p>
+ * By default every change is written through to the session file before the request continues. In write-behind mode,
+ * enabled by giving a positive write delay, changes only mark the session as dirty; dirty sessions are coalesced and
+ * written in batches by a background thread once there have been no changes for the write delay, or at the latest
+ * after the maximum write lag. Pending changes are written when the manager is stopped.
  */
 public class PersistentSessionManager extends AbstractSessionManager {
     private static final Logger log = LoggerFactory.getLogger(PersistentSessionManager.class);
     private static final String SESSION_DIR = ".sessions";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
 
+    /**
+     * Marks a session which has to be deleted from the file system.
+     */
+    private static final Object DELETED = new Object();
+
+    private final String sessionDir;
+    private final boolean fsync;
+    private final Map<String, Object> pendingWrites = new ConcurrentHashMap<>();
+    private final WriteBehindFlusher flusher;
+
+    /**
+     * Create a session manager configured by the MSF4J_SESSION_WRITE_DELAY and MSF4J_SESSION_MAX_WRITE_LAG system
+     * variables, in milliseconds, and MSF4J_SESSION_FSYNC. Sessions are written through unless a write delay is set.
+     */
     public PersistentSessionManager() {
-        File dir = new File(SESSION_DIR);
+        this(SESSION_DIR,
+             Long.parseLong(SystemVariableUtil.getValue("MSF4J_SESSION_WRITE_DELAY", "0")),
+             Long.parseLong(SystemVariableUtil.getValue("MSF4J_SESSION_MAX_WRITE_LAG", "5000")),
+             Boolean.parseBoolean(SystemVariableUtil.getValue("MSF4J_SESSION_FSYNC", "false")));
+    }
+
+    /**
+     * @param sessionDir    directory in which the session files are kept
+     * @param writeDelay    time in milliseconds without changes after which dirty sessions are written, or zero to
+     *                      write every change through
+     * @param maxWriteLag   maximum time in milliseconds a change may stay unwritten in write-behind mode
+     * @param fsync         whether written session files are forced to the storage device
+     */
+    public PersistentSessionManager(String sessionDir, long writeDelay, long maxWriteLag, boolean fsync) {
+        File dir = new File(sessionDir);
         if (!dir.exists() && !dir.mkdirs()) {
-            throw new IllegalStateException("Cannot create .tmp directory");
+            throw new IllegalStateException("Cannot create " + sessionDir + " directory");
         }
+        this.sessionDir = sessionDir;
+        this.fsync = fsync;
+        flusher = writeDelay > 0 ?
+                  new WriteBehindFlusher("msf4j-session-writer", this::flush, writeDelay,
+                                         Math.max(writeDelay, maxWriteLag)) :
+                  null;
     }
 
     @Override
     public void loadSessions(Map<String, Session> sessions) {
-        File dir = new File(SESSION_DIR);
+        File dir = new File(sessionDir);
         if (!dir.exists()) {
             return;
         }
-        String path = Paths.get(SESSION_DIR).toString();
+        String path = Paths.get(sessionDir).toString();
 
         Arrays.stream(new File(path).listFiles()).parallel().forEach(file -> {
-            Session session = readSession(file.getName());
+            // Left over by an interrupted write
+            if (file.getName().endsWith(TEMP_FILE_SUFFIX)) {
+                if (!file.delete()) {
+                    log.warn("Couldn't delete temporary session file " + file.getAbsolutePath());
+                }
+                return;
+            }
+            Session session;
+            try {
+                session = readSession(file.getName());
+            } catch (RuntimeException e) {
+                // Left in place, since the file may become readable again, for example with another serializer
+                log.warn("Skipping unreadable session file " + file.getAbsolutePath(), e);
+                return;
+            }
+            if (session == null) {
+                return;
+            }
 
             // Delete expired session files
-            if (System.currentTimeMillis() - session.getLastAccessedTime() >=
-                    session.getMaxInactiveInterval() * 60 * 1000 && !file.delete()) {
-                log.warn("Couldn't delete expired session file " + file.getAbsolutePath());
-            } else {
-                sessions.put(session.getId(), session);
+            if (System.currentTimeMillis() >= session.getExpiryTime()) {
+                if (!file.delete()) {
+                    log.warn("Couldn't delete expired session file " + file.getAbsolutePath());
+                }
+                return;
+            }
+            // Files written before their modification time held the expiry time
+            if (file.lastModified() != session.getExpiryTime() && !file.setLastModified(session.getExpiryTime())) {
+                log.warn("Couldn't set the expiry time of session file " + file.getAbsolutePath());
             }
+            sessions.put(session.getId(), session);
         });
     }
 
     @Override
     public Session readSession(String sessionId) {
-        String path = Paths.get(SESSION_DIR, sessionId).toString();
-        if (!new File(path).exists()) {
+        Object pending = pendingWrites.get(sessionId);
+        if (pending != null) {
+            return pending == DELETED ? null : (Session) pending;
+        }
+        Path path = Paths.get(sessionDir, sessionId);
+        if (!Files.exists(path)) {
             return null;
         }
-        try (FileInputStream fis = new FileInputStream(path);
-             ObjectInputStream ois = new ObjectInputStream(fis);) {
-
-            Session session = (Session) ois.readObject();
+        try {
+            Session session = deserializeSession(Files.readAllBytes(path));
             session.setManager(this);
             return session;
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException e) {
             throw new RuntimeException("Cannot read session " + sessionId, e);
         }
     }
 
     @Override
     public void saveSession(Session session) {
-        try (FileOutputStream fout = new FileOutputStream(Paths.get(SESSION_DIR, session.getId()).toString());
-             ObjectOutputStream oos = new ObjectOutputStream(fout)) {
-            oos.writeObject(session);
-        } catch (IOException e) {
-            throw new RuntimeException("Cannot save session " + session.getId(), e);
+        if (flusher != null) {
+            pendingWrites.put(session.getId(), session);
+            flusher.changed();
+            return;
         }
+        writeSession(session);
     }
 
     @Override
     public void deleteSession(Session session) {
-        String pathname = Paths.get(SESSION_DIR, session.getId()).toString();
-        if (!new File(pathname).delete()) {
-            throw new IllegalStateException("File " + pathname + " deletion failed");
+        if (flusher != null) {
+            pendingWrites.put(session.getId(), DELETED);
+            flusher.changed();
+            return;
+        }
+        File file = Paths.get(sessionDir, session.getId()).toFile();
+        if (!file.delete() && file.exists()) {
+            throw new IllegalStateException("File " + file + " deletion failed");
         }
     }
 
@@ -105,4 +183,80 @@ public class PersistentSessionManager extends AbstractSessionManager {
     public void updateSession(Session session) {
         saveSession(session);
     }
+
+    /**
+     * The modification time of a session file is set to the expiry time of the session, so expired sessions are
+     * found from the file metadata alone.
+     */
+    @Override
+    protected Collection<String> getExpiredSessionIds(long now) {
+        File[] files = new File(sessionDir).listFiles(
+                file -> !file.getName().endsWith(TEMP_FILE_SUFFIX) && file.lastModified() <= now);
+        if (files == null) {
+            return Collections.emptyList();
+        }
+        List<String> sessionIds = new ArrayList<>(files.length);
+        for (File file : files) {
+            sessionIds.add(file.getName());
+        }
+        return sessionIds;
+    }
+
+    @Override
+    protected void stopPersistence() {
+        if (flusher != null) {
+            flusher.stop();
+        }
+    }
+
+    /**
+     * Write all the sessions which have changed since the last flush.
+     */
+    private void flush() {
+        for (Map.Entry<String, Object> entry : pendingWrites.entrySet()) {
+            String sessionId = entry.getKey();
+            Object pending = entry.getValue();
+            // A change made from now on is left for the next flush
+            if (!pendingWrites.remove(sessionId, pending)) {
+                continue;
+            }
+            try {
+                if (pending == DELETED) {
+                    Files.deleteIfExists(Paths.get(sessionDir, sessionId));
+                } else {
+                    writeSession((Session) pending);
+                }
+            } catch (Exception e) {
+                log.error("Cannot write session " + sessionId + ", retrying with the next flush", e);
+                pendingWrites.putIfAbsent(sessionId, pending);
+                flusher.changed();
+            }
+        }
+    }
+
+    /**
+     * Write a session to a temporary file which then replaces the session file, so that a failed write never leaves
+     * a partially written session behind.
+     */
+    private void writeSession(Session session) {
+        Path path = Paths.get(sessionDir, session.getId());
+        Path tempPath = Paths.get(sessionDir, session.getId() + TEMP_FILE_SUFFIX);
+        try {
+            byte[] bytes = getSessionSerializer().serialize(session);
+            try (FileOutputStream fout = new FileOutputStream(tempPath.toFile())) {
+                fout.write(bytes);
+                if (fsync) {
+                    fout.getFD().sync();
+                }
+            }
+            Files.setLastModifiedTime(tempPath, FileTime.fromMillis(session.getExpiryTime()));
+            try {
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot save session " + session.getId(), e);
+        }
+    }
 }
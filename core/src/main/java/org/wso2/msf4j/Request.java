@@ -4,12 +4,14 @@ import org.wso2.carbon.messaging.CarbonMessage;
 import org.wso2.carbon.messaging.Constants;
 import org.wso2.carbon.messaging.Headers;
 import org.wso2.msf4j.internal.MSF4JConstants;
+import org.wso2.msf4j.util.HeaderParser;
+import org.wso2.msf4j.util.QueryStringDecoderUtil;
 
 import java.nio.ByteBuffer;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import javax.ws.rs.core.HttpHeaders;
 
 /**
@@ -18,25 +20,18 @@ import javax.ws.rs.core.HttpHeaders;
 public class Request {
 
     private final CarbonMessage carbonMessage;
-    private List<String> acceptTypes = null;
-    private String contentType = null;
+    private List<String> acceptTypes;
+    private boolean acceptParsed;
+    private String contentType;
+    private boolean contentTypeParsed;
+    private Map<String, String> cookies;
     private SessionManager sessionManager;
     private Session session;
+    private QueryStringDecoderUtil queryDecoder;
+    private Map<String, List<String>> queryParameters;
 
     public Request(CarbonMessage carbonMessage) {
         this.carbonMessage = carbonMessage;
-        // find accept types
-        String acceptHeaderStr = carbonMessage.getHeader(HttpHeaders.ACCEPT);
-        acceptTypes = (acceptHeaderStr != null) ?
-                Arrays.asList(acceptHeaderStr.split("\\s*,\\s*"))
-                        .stream()
-                        .map(mediaType -> mediaType.split("\\s*;\\s*")[0])
-                        .collect(Collectors.toList()) :
-                null;
-        //find content type
-        String contentTypeHeaderStr = carbonMessage.getHeader(HttpHeaders.CONTENT_TYPE);
-        //Trim specified charset since UTF-8 is assumed
-        contentType = (contentTypeHeaderStr != null) ? contentTypeHeaderStr.split("\\s*;\\s*")[0] : null;
     }
 
     public void setSessionManager(SessionManager sessionManager) {
@@ -131,6 +126,40 @@ public class Request {
         return (String) carbonMessage.getProperty(Constants.TO);
     }
 
+    /**
+     * Returns the decoded query parameters of the request. The query string is decoded the first time this is called
+     * and the result is shared by every later caller of the same request.
+     *
+     * @return unmodifiable map of query parameter names to their values
+     */
+    public Map<String, List<String>> getQueryParameters() {
+        if (queryParameters == null) {
+            queryParameters = Collections.unmodifiableMap(getQueryDecoder().parameters());
+        }
+        return queryParameters;
+    }
+
+    /**
+     * Returns the first value of a query parameter. Unless the query parameters have already been decoded, only the
+     * value of the requested parameter is decoded, which suits callers such as interceptors that look at a single
+     * parameter.
+     *
+     * @param name name of the query parameter
+     * @return first value of the query parameter or null if it is not present
+     */
+    public String getQueryParameter(String name) {
+        return getQueryDecoder().parameter(name);
+    }
+
+    private QueryStringDecoderUtil getQueryDecoder() {
+        String uri = getUri();
+        if (queryDecoder == null || !queryDecoder.uri().equals(uri)) {
+            queryDecoder = new QueryStringDecoderUtil(uri);
+            queryParameters = null;
+        }
+        return queryDecoder;
+    }
+
     /**
      * @return HTTP method of the request.
      */
@@ -142,6 +171,18 @@ public class Request {
      * @return accept type of the request.
      */
     public List<String> getAcceptTypes() {
+        if (!acceptParsed) {
+            List<HeaderParser.AcceptType> acceptHeader =
+                    HeaderParser.parseAccept(carbonMessage.getHeader(HttpHeaders.ACCEPT));
+            if (acceptHeader != null) {
+                List<String> types = new ArrayList<>(acceptHeader.size());
+                for (HeaderParser.AcceptType acceptType : acceptHeader) {
+                    types.add(acceptType.getMediaType());
+                }
+                acceptTypes = Collections.unmodifiableList(types);
+            }
+            acceptParsed = true;
+        }
         return acceptTypes;
     }
 
@@ -149,9 +190,23 @@ public class Request {
      * @return request body content type.
      */
     public String getContentType() {
+        if (!contentTypeParsed) {
+            contentType = HeaderParser.parseMediaType(carbonMessage.getHeader(HttpHeaders.CONTENT_TYPE));
+            contentTypeParsed = true;
+        }
         return contentType;
     }
 
+    /**
+     * @return unmodifiable map of the cookies sent with the request, empty if the request does not have cookies.
+     */
+    public Map<String, String> getCookies() {
+        if (cookies == null) {
+            cookies = HeaderParser.parseCookies(carbonMessage.getHeader(HttpHeaders.COOKIE));
+        }
+        return cookies;
+    }
+
     /**
      * Returns the current session associated with this request, or if the request does not have a session,
      * creates one.
@@ -159,22 +214,7 @@ public class Request {
      * @return Session
      */
     public Session getSession() {
-        if (sessionManager == null) {
-            throw new IllegalStateException("SessionManager has not been set");
-        }
-        if (session != null) {
-            return session.setAccessed();
-        }
-        String cookieHeader = getHeader("Cookie");
-        if (cookieHeader != null) {
-            session = Arrays.stream(cookieHeader.split(";"))
-                    .filter(cookie -> cookie.startsWith(MSF4JConstants.SESSION_ID))
-                    .findFirst()
-                    .map(jsession -> sessionManager.getSession(jsession.substring(MSF4JConstants.SESSION_ID.length())))
-                    .orElseGet(sessionManager::createSession);
-            return session.setAccessed();
-        }
-        return session = sessionManager.createSession();
+        return getSession(true);
     }
 
     /**
@@ -191,20 +231,14 @@ public class Request {
         if (session != null) {
             return session.setAccessed();
         }
-        String cookieHeader = getHeader("Cookie");
-        if (cookieHeader != null) {
-            session = Arrays.stream(cookieHeader.split(";"))
-                    .filter(cookie -> cookie.startsWith(MSF4JConstants.SESSION_ID))
-                    .findFirst()
-                    .map(jsession -> sessionManager.getSession(jsession.substring(MSF4JConstants.SESSION_ID.length())))
-                    .orElseGet(() -> {
-                        if (create) {
-                            return sessionManager.createSession();
-                        }
-                        return null;
-                    });
-            return session.setAccessed();
-        } else if (create) {
+        String sessionId = getCookies().get(MSF4JConstants.SESSION_COOKIE_NAME);
+        if (sessionId != null) {
+            session = sessionManager.getSession(sessionId);
+            if (session != null) {
+                return session.setAccessed();
+            }
+        }
+        if (create) {
             return session = sessionManager.createSession();
         }
         return null;
@@ -23,7 +23,6 @@ import org.wso2.carbon.messaging.Header;
 import org.wso2.carbon.messaging.Headers;
 import org.wso2.carbon.transport.http.netty.common.Constants;
 import org.wso2.msf4j.internal.MSF4JConstants;
-import org.wso2.msf4j.internal.entitywriter.EntityWriter;
 import org.wso2.msf4j.internal.entitywriter.EntityWriterRegistry;
 
 import java.nio.ByteBuffer;
@@ -289,7 +288,7 @@ public class Response {
     private void processEntity() {
         if (entity != null) {
             EntityWriter entityWriter = EntityWriterRegistry.getEntityWriter(entity.getClass());
-            entityWriter.writeData(carbonMessage, entity, mediaType, chunkSize, carbonCallback);
+            entityWriter.writeData(carbonMessage, entity, mediaType, chunkSize, carbonCallback, request);
         } else {
             carbonMessage.addMessageBody(ByteBuffer.allocate(0));
             carbonMessage.setEndOfMsgAdded(true);
@@ -22,6 +22,8 @@ import java.io.Serializable;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Represents a transport session.
@@ -30,11 +32,12 @@ public class Session implements Serializable {
 
     private static final long serialVersionUID = -3945729418329160933L;
     private transient SessionManager sessionManager;
+    private transient volatile Future<?> expiryTask;
 
     private String id;
     private long creationTime;
-    private long lastAccessedTime;
-    private int maxInactiveInterval;
+    private volatile long lastAccessedTime;
+    private volatile int maxInactiveInterval;
     private boolean isValid = true;
     private boolean isNew = true;
     private Map<String, Object> attributes = new ConcurrentHashMap<>();
@@ -49,19 +52,41 @@ public class Session implements Serializable {
         lastAccessedTime = creationTime;
     }
 
-    long getCreationTime() {
+    /**
+     * Restore a session which has been read by a {@link SessionSerializer}.
+     *
+     * @param id                  session ID
+     * @param creationTime        time in milliseconds at which the session was created
+     * @param lastAccessedTime    time in milliseconds at which the session was last accessed
+     * @param maxInactiveInterval maximum inactive interval in minutes
+     * @param attributes          session attributes
+     */
+    public Session(String id, long creationTime, long lastAccessedTime, int maxInactiveInterval,
+                   Map<String, Object> attributes) {
+        this.id = id;
+        this.creationTime = creationTime;
+        this.lastAccessedTime = lastAccessedTime;
+        this.maxInactiveInterval = maxInactiveInterval;
+        this.attributes.putAll(attributes);
+        isNew = false;
+    }
+
+    public long getCreationTime() {
         return creationTime;
     }
 
-    String getId() {
+    public String getId() {
         return id;
     }
 
     void setMaxInactiveInterval(int interval) {
         this.maxInactiveInterval = interval;
+        if (sessionManager instanceof AbstractSessionManager) {
+            ((AbstractSessionManager) sessionManager).scheduleExpiry(this);
+        }
     }
 
-    int getMaxInactiveInterval() {
+    public int getMaxInactiveInterval() {
         return maxInactiveInterval;
     }
 
@@ -121,10 +146,25 @@ public class Session implements Serializable {
         return this;
     }
 
-    long getLastAccessedTime() {
+    public long getLastAccessedTime() {
         return lastAccessedTime;
     }
 
+    /**
+     * @return time in milliseconds at which this session expires unless it is accessed again.
+     */
+    long getExpiryTime() {
+        return lastAccessedTime + TimeUnit.MINUTES.toMillis(maxInactiveInterval);
+    }
+
+    Future<?> getExpiryTask() {
+        return expiryTask;
+    }
+
+    void setExpiryTask(Future<?> expiryTask) {
+        this.expiryTask = expiryTask;
+    }
+
     public void setManager(SessionManager sessionManager) {
         this.sessionManager = sessionManager;
     }
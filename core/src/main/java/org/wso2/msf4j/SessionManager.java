@@ -60,7 +60,7 @@ public interface SessionManager {
     int getDefaultMaxInactiveInterval();
 
     /**
-     * The maximum number of active sessions that can exist.
+     * The maximum number of sessions kept in memory. Beyond it, the least recently accessed sessions are evicted.
      *
      * @return max active sessions
      */
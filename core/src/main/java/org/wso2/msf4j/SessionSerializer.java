@@ -0,0 +1,46 @@
+/*
+ *  Copyright (c) 2016 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.msf4j;
+
+import java.io.IOException;
+
+/**
+ * Converts sessions to and from bytes, for session managers which persist or replicate sessions. The session
+ * manager of a deserialized session is set by the caller.
+ */
+public interface SessionSerializer {
+
+    /**
+     * Serialize a session.
+     *
+     * @param session session to be serialized
+     * @return serialized session
+     * @throws IOException if the session or one of its attributes cannot be serialized
+     */
+    byte[] serialize(Session session) throws IOException;
+
+    /**
+     * Deserialize a session.
+     *
+     * @param bytes serialized session
+     * @return the session
+     * @throws IOException if the bytes are not a session serialized by this serializer
+     */
+    Session deserialize(byte[] bytes) throws IOException;
+}
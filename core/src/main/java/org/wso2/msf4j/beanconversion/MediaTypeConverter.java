@@ -16,6 +16,13 @@
 
 package org.wso2.msf4j.beanconversion;
 
+import org.wso2.msf4j.util.ByteBufferOutputStream;
+import org.wso2.msf4j.util.ByteBufferSequence;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
 import java.nio.ByteBuffer;
 
@@ -24,6 +31,11 @@ import java.nio.ByteBuffer;
  */
 public abstract class MediaTypeConverter {
 
+    /**
+     * Priority of the converters shipped with MSF4J.
+     */
+    public static final int DEFAULT_PRIORITY = 0;
+
     /**
      * Convert an object to a specific media type.
      *
@@ -37,6 +49,24 @@ public abstract class MediaTypeConverter {
         return toMedia(object);
     }
 
+    /**
+     * Write an object to a stream in a specific media type.
+     *
+     * @param object       object that needs to be converted to a media content
+     * @param outputStream stream to which the media content is written
+     * @throws BeanConversionException throws if conversion is failed
+     */
+    public void convertToMedia(Object object, OutputStream outputStream) throws BeanConversionException {
+        if (object == null || outputStream == null) {
+            throw new BeanConversionException("Object or output stream cannot be null");
+        }
+        try {
+            toMedia(object, outputStream);
+        } catch (IOException e) {
+            throw new BeanConversionException("Unable to write the media content", e);
+        }
+    }
+
     /**
      * Create an object from a specific content.
      *
@@ -52,6 +82,40 @@ public abstract class MediaTypeConverter {
         return toObject(content, targetType);
     }
 
+    /**
+     * Create an object from a content spread over a sequence of buffers.
+     *
+     * @param content    content that needs to be converted to an object
+     * @param targetType media type of the content
+     * @return created object
+     * @throws BeanConversionException throws if object creation is failed
+     */
+    public Object convertToObject(ByteBufferSequence content, Type targetType) throws BeanConversionException {
+        if (content == null || targetType == null) {
+            throw new BeanConversionException("Content or target type cannot be null");
+        }
+        return toObject(content, targetType);
+    }
+
+    /**
+     * Create an object from a content read from a stream.
+     *
+     * @param content    stream of the content that needs to be converted to an object
+     * @param targetType media type of the content
+     * @return created object
+     * @throws BeanConversionException throws if object creation is failed
+     */
+    public Object convertToObject(InputStream content, Type targetType) throws BeanConversionException {
+        if (content == null || targetType == null) {
+            throw new BeanConversionException("Content or target type cannot be null");
+        }
+        try {
+            return toObject(content, targetType);
+        } catch (IOException e) {
+            throw new BeanConversionException("Unable to read the media content", e);
+        }
+    }
+
     /**
      * Return an array of supported media types.
      *
@@ -59,6 +123,16 @@ public abstract class MediaTypeConverter {
      */
     public abstract String[] getSupportedMediaTypes();
 
+    /**
+     * Return the priority of this converter. When several converters support the same media type, the one with the
+     * highest priority is used. Converters with the same priority are used in the order they were registered.
+     *
+     * @return priority of the converter
+     */
+    public int getPriority() {
+        return DEFAULT_PRIORITY;
+    }
+
     /**
      * Convert an object to a specific media type.
      *
@@ -78,4 +152,60 @@ public abstract class MediaTypeConverter {
      */
     protected abstract Object toObject(ByteBuffer content, Type targetType) throws BeanConversionException;
 
+    /**
+     * Create an object from a content spread over a sequence of buffers. The buffers are merged and passed to
+     * {@link #toObject(ByteBuffer, Type)} unless a converter overrides this to read the content as a stream.
+     *
+     * @param content    content that needs to be converted to an object
+     * @param targetType media type of the content
+     * @return created object
+     * @throws BeanConversionException throws if object creation is failed
+     */
+    protected Object toObject(ByteBufferSequence content, Type targetType) throws BeanConversionException {
+        return toObject(content.toByteBuffer(), targetType);
+    }
+
+    /**
+     * Write an object to a stream in a specific media type. The object is converted with
+     * {@link #toMedia(Object)} and the result is written to the stream unless a converter overrides this to write
+     * the content as it is produced. A {@link ByteBufferOutputStream} takes the converted buffer without copying it.
+     *
+     * @param object       object that needs to be converted to a media content
+     * @param outputStream stream to which the media content is written
+     * @throws BeanConversionException throws if conversion is failed
+     * @throws IOException             throws if writing to the stream is failed
+     */
+    protected void toMedia(Object object, OutputStream outputStream) throws BeanConversionException, IOException {
+        ByteBuffer content = toMedia(object);
+        if (outputStream instanceof ByteBufferOutputStream) {
+            ((ByteBufferOutputStream) outputStream).write(content);
+        } else if (content.hasArray()) {
+            outputStream.write(content.array(), content.arrayOffset() + content.position(), content.remaining());
+        } else {
+            byte[] bytes = new byte[content.remaining()];
+            content.duplicate().get(bytes);
+            outputStream.write(bytes);
+        }
+    }
+
+    /**
+     * Create an object from a content read from a stream. The stream is read fully and the content is passed to
+     * {@link #toObject(ByteBuffer, Type)} unless a converter overrides this to parse the content as it is read.
+     *
+     * @param content    stream of the content that needs to be converted to an object
+     * @param targetType media type of the content
+     * @return created object
+     * @throws BeanConversionException throws if object creation is failed
+     * @throws IOException             throws if reading from the stream is failed
+     */
+    protected Object toObject(InputStream content, Type targetType) throws BeanConversionException, IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = content.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+        }
+        return toObject(ByteBuffer.wrap(outputStream.toByteArray()), targetType);
+    }
+
 }
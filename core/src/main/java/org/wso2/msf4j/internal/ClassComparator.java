@@ -1,41 +0,0 @@
-/*
- *  Copyright (c) 2005-2014, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
- *
- *  WSO2 Inc. licenses this file to you under the Apache License,
- *  Version 2.0 (the "License"); you may not use this file except
- *  in compliance with the License.
- *  You may obtain a copy of the License at
- *
- *  http://www.apache.org/licenses/LICENSE-2.0
- *
- *  Unless required by applicable law or agreed to in writing,
- *  software distributed under the License is distributed on an
- *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
- *  KIND, either express or implied.  See the License for the
- *  specific language governing permissions and limitations
- *  under the License.
- *
- */
-package org.wso2.msf4j.internal;
-
-import java.io.Serializable;
-import java.util.Comparator;
-
-/**
- * Compares classes to see if they are subclasses.
- */
-public class ClassComparator implements Comparator<Class>, Serializable {
-
-    private static final long serialVersionUID = 2101798650978464444L;
-
-    @Override
-    public int compare(Class class1, Class class2) {
-        if (class1.equals(class2)) {
-            return 0;
-        } else if (class1.isAssignableFrom(class2)) {
-            return 1;
-        } else {
-            return -1;
-        }
-    }
-}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wso2.msf4j.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable map from types to values which resolves a class to the value of its closest registered supertype, as is
+ * done for entity writers and exception mappers. The resolution of each class is cached in a {@link ClassValue},
+ * so a class is resolved once for the lifetime of the map; changes create a new map with an empty cache.
+ * <p>
+ * If a class has several closest supertypes which are not related to each other, such as two interfaces, the value
+ * registered last wins, so that values added later can override the ones added before them.
+ *
+ * @param <V> type of the values.
+ */
+public final class ClassHierarchyMap<V> {
+
+    private final Map<Class<?>, V> values;
+    private final ClassValue<Optional<V>> resolved = new ClassValue<Optional<V>>() {
+        @Override
+        protected Optional<V> computeValue(Class<?> type) {
+            return Optional.ofNullable(resolve(type));
+        }
+    };
+
+    public ClassHierarchyMap() {
+        this(Collections.emptyMap());
+    }
+
+    private ClassHierarchyMap(Map<Class<?>, V> values) {
+        this.values = values;
+    }
+
+    /**
+     * Create a map with a value added, replacing the value already registered for the type if there is one.
+     *
+     * @param type  registered type.
+     * @param value value of the type.
+     * @return new map.
+     */
+    public ClassHierarchyMap<V> with(Class<?> type, V value) {
+        Map<Class<?>, V> newValues = new LinkedHashMap<>(values);
+        newValues.remove(type);
+        newValues.put(type, value);
+        return new ClassHierarchyMap<>(Collections.unmodifiableMap(newValues));
+    }
+
+    /**
+     * Create a map without the value of a type, provided the type is registered with that value.
+     *
+     * @param type  registered type.
+     * @param value value to be removed.
+     * @return new map, or this map if the value is not registered for the type.
+     */
+    public ClassHierarchyMap<V> without(Class<?> type, V value) {
+        if (!values.containsKey(type) || values.get(type) != value) {
+            return this;
+        }
+        Map<Class<?>, V> newValues = new LinkedHashMap<>(values);
+        newValues.remove(type);
+        return new ClassHierarchyMap<>(Collections.unmodifiableMap(newValues));
+    }
+
+    /**
+     * Get the value of the closest registered supertype of a class.
+     *
+     * @param type class to be resolved.
+     * @return value of the closest registered type, or empty if no supertype of the class is registered.
+     */
+    public Optional<V> get(Class<?> type) {
+        return resolved.get(type);
+    }
+
+    /**
+     * @return number of registered types.
+     */
+    public int size() {
+        return values.size();
+    }
+
+    private V resolve(Class<?> type) {
+        List<Class<?>> candidates = new ArrayList<>();
+        for (Class<?> registered : values.keySet()) {
+            if (registered.isAssignableFrom(type)) {
+                candidates.add(registered);
+            }
+        }
+        // Walk in reverse registration order, so the last registered of the closest types wins
+        for (int i = candidates.size() - 1; i >= 0; i--) {
+            Class<?> candidate = candidates.get(i);
+            if (isClosest(candidate, candidates)) {
+                return values.get(candidate);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isClosest(Class<?> candidate, List<Class<?>> candidates) {
+        for (Class<?> other : candidates) {
+            if (other != candidate && candidate.isAssignableFrom(other)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wso2.msf4j.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.msf4j.DispatchMode;
+import org.wso2.msf4j.util.SystemVariableUtil;
+
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors on which requests are dispatched to resource methods, one per {@link DispatchMode}. The executors are
+ * created on first use and shared by all the microservices of the JVM.
+ */
+public final class DispatchExecutors {
+
+    private static final Logger log = LoggerFactory.getLogger(DispatchExecutors.class);
+
+    /**
+     * Mode of the resource methods which do not select one.
+     */
+    public static final DispatchMode DEFAULT_MODE =
+            parseMode(SystemVariableUtil.getValue("MSF4J_DISPATCH_MODE", DispatchMode.INLINE.name()));
+
+    private DispatchExecutors() {
+    }
+
+    /**
+     * Parse the configured default mode. An unknown mode falls back to {@link DispatchMode#INLINE}.
+     */
+    static DispatchMode parseMode(String mode) {
+        try {
+            return DispatchMode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            log.warn("Unknown dispatch mode '{}' in MSF4J_DISPATCH_MODE, dispatching inline instead", mode);
+            return DispatchMode.INLINE;
+        }
+    }
+
+    /**
+     * Get the executor of a dispatch mode.
+     *
+     * @param mode dispatch mode.
+     * @return executor of the mode, or null if requests should be dispatched on the current thread.
+     */
+    public static Executor get(DispatchMode mode) {
+        switch (mode) {
+            case POOLED:
+                return PooledHolder.EXECUTOR;
+            case VIRTUAL:
+                return VirtualHolder.EXECUTOR;
+            default:
+                return null;
+        }
+    }
+
+    private static final class PooledHolder {
+        private static final ExecutorService EXECUTOR = createPool();
+
+        private static ExecutorService createPool() {
+            int poolSize = Integer.parseInt(SystemVariableUtil.getValue("MSF4J_DISPATCH_POOL_SIZE", "200"));
+            int queueSize = Integer.parseInt(SystemVariableUtil.getValue("MSF4J_DISPATCH_QUEUE_SIZE", "1000"));
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                                                                 new ArrayBlockingQueue<>(queueSize), runnable -> {
+                Thread thread = new Thread(runnable, "msf4j-dispatch-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+
+    private static final class VirtualHolder {
+        private static final ExecutorService EXECUTOR = createVirtualThreadExecutor();
+
+        /**
+         * Virtual threads are looked up reflectively, since they are not available on every JVM MSF4J runs on.
+         */
+        private static ExecutorService createVirtualThreadExecutor() {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.info("Virtual threads are not supported by this JVM, dispatching to the thread pool instead");
+                return PooledHolder.EXECUTOR;
+            }
+        }
+    }
+}
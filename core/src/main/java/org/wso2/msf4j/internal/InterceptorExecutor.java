@@ -75,9 +75,8 @@ public class InterceptorExecutor {
      * Execute postCalls of all interceptors.
      *
      * @param status status that was returned to the client
-     * @throws InterceptorException if error while executing a postCall
      */
-    public void execPostCalls(int status) throws InterceptorException {
+    public void execPostCalls(int status) {
         for (Interceptor interceptor : interceptors) {
             try {
                 interceptor.postCall(request, status, serviceMethodInfo);
@@ -20,6 +20,7 @@ package org.wso2.msf4j.internal;
  */
 public class MSF4JConstants {
 
-    public static final String SESSION_ID = "JSESSIONID=";
+    public static final String SESSION_COOKIE_NAME = "JSESSIONID";
+    public static final String SESSION_ID = SESSION_COOKIE_NAME + "=";
     public static final String CHANNEL_ID = "CHANNEL_ID";
 }
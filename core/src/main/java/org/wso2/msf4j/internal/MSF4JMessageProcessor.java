@@ -27,14 +27,18 @@ import org.wso2.msf4j.Request;
 import org.wso2.msf4j.Response;
 import org.wso2.msf4j.internal.router.HandlerException;
 import org.wso2.msf4j.internal.router.HttpMethodInfo;
-import org.wso2.msf4j.internal.router.HttpMethodInfoBuilder;
 import org.wso2.msf4j.internal.router.HttpResourceModel;
+import org.wso2.msf4j.internal.router.HttpResourceModelProcessor;
 import org.wso2.msf4j.internal.router.PatternPathRouter;
-import org.wso2.msf4j.internal.router.Util;
 import org.wso2.msf4j.util.HttpUtil;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.ext.ExceptionMapper;
 
 /**
@@ -49,6 +53,7 @@ public class MSF4JMessageProcessor implements CarbonMessageProcessor {
 
     private static final Logger log = LoggerFactory.getLogger(MSF4JMessageProcessor.class);
     private static final String MSF4J_MSG_PROC_ID = "MSF4J-CM-PROCESSOR";
+    private static final CompletableFuture<Void> COMPLETED = CompletableFuture.completedFuture(null);
 
     public MSF4JMessageProcessor() {
     }
@@ -68,69 +73,133 @@ public class MSF4JMessageProcessor implements CarbonMessageProcessor {
         Request request = new Request(carbonMessage);
         request.setSessionManager(currentMicroservicesRegistry.getSessionManager());
         Response response = new Response(carbonCallback, request);
+        PatternPathRouter.RoutableDestination<HttpResourceModel> destination;
         try {
-            dispatchMethod(currentMicroservicesRegistry, request, response);
-        } catch (HandlerException e) {
-            handleHandlerException(e, carbonCallback);
-        } catch (InvocationTargetException e) {
-            Throwable targetException = e.getTargetException();
+            destination = getDestination(currentMicroservicesRegistry, request, response);
+        } catch (Throwable t) {
+            onCompletion(failed(t), currentMicroservicesRegistry, carbonMessage, carbonCallback, request);
+            return true;
+        }
+        Executor executor = DispatchExecutors.get(destination.getDestination().getDispatchMode());
+        if (executor == null) {
+            onCompletion(dispatch(currentMicroservicesRegistry, request, response, destination),
+                         currentMicroservicesRegistry, carbonMessage, carbonCallback, request);
+            return true;
+        }
+        try {
+            executor.execute(() -> onCompletion(dispatch(currentMicroservicesRegistry, request, response, destination),
+                                                currentMicroservicesRegistry, carbonMessage, carbonCallback, request));
+        } catch (RejectedExecutionException e) {
+            onCompletion(failed(new HandlerException(javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE,
+                                                     "Too many requests in progress")),
+                         currentMicroservicesRegistry, carbonMessage, carbonCallback, request);
+        }
+        return true;
+    }
+
+    private CompletableFuture<Void> dispatch(MicroservicesRegistryImpl currentMicroservicesRegistry, Request request,
+                                             Response response,
+                                             PatternPathRouter.RoutableDestination<HttpResourceModel> destination) {
+        try {
+            return dispatchMethod(currentMicroservicesRegistry, request, response, destination);
+        } catch (Throwable t) {
+            return failed(t);
+        }
+    }
+
+    private void onCompletion(CompletableFuture<Void> completion,
+                              MicroservicesRegistryImpl currentMicroservicesRegistry, CarbonMessage carbonMessage,
+                              CarbonCallback carbonCallback, Request request) {
+        // Asynchronous resource methods complete later, on the thread which provides their result
+        completion.whenComplete((result, throwable) -> {
+            try {
+                if (throwable != null) {
+                    handleException(currentMicroservicesRegistry, throwable, carbonCallback, request);
+                }
+            } catch (Throwable t) {
+                log.error("Error while sending the error response", t);
+            } finally {
+                // Calling the release method to make sure that there won't be any memory leaks from netty
+                carbonMessage.release();
+            }
+        });
+    }
+
+    private static CompletableFuture<Void> failed(Throwable throwable) {
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+        completion.completeExceptionally(throwable);
+        return completion;
+    }
+
+    private void handleException(MicroservicesRegistryImpl currentMicroservicesRegistry, Throwable throwable,
+                                 CarbonCallback carbonCallback, Request request) {
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        if (throwable instanceof HandlerException) {
+            handleHandlerException((HandlerException) throwable, carbonCallback);
+        } else if (throwable instanceof InvocationTargetException) {
+            Throwable targetException = ((InvocationTargetException) throwable).getTargetException();
             if (targetException instanceof HandlerException) {
                 handleHandlerException((HandlerException) targetException, carbonCallback);
             } else {
                 handleThrowable(currentMicroservicesRegistry, targetException, carbonCallback, request);
             }
-        } catch (InterceptorException e) {
-            log.warn("Interceptors threw an exception", e);
+        } else if (throwable instanceof InterceptorException) {
+            log.warn("Interceptors threw an exception", throwable);
             // TODO: improve the response
             carbonCallback.done(HttpUtil
                     .createTextResponse(javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(),
                             HttpUtil.EMPTY_BODY));
-        } catch (Throwable t) {
-            handleThrowable(currentMicroservicesRegistry, t, carbonCallback, request);
-        } finally {
-            // Calling the release method to make sure that there won't be any memory leaks from netty
-            carbonMessage.release();
+        } else {
+            handleThrowable(currentMicroservicesRegistry, throwable, carbonCallback, request);
         }
-        return true;
     }
 
     /**
-     * Dispatch appropriate resource method.
+     * Find the resource method of a request.
      */
-    private void dispatchMethod(MicroservicesRegistryImpl currentMicroservicesRegistry, Request request,
-                                Response response) throws Exception {
+    private PatternPathRouter.RoutableDestination<HttpResourceModel> getDestination(
+            MicroservicesRegistryImpl currentMicroservicesRegistry, Request request, Response response)
+            throws HandlerException {
         HttpUtil.setConnectionHeader(request, response);
+        String acceptHeader = request.getHeader(HttpHeaders.ACCEPT);
         PatternPathRouter.RoutableDestination<HttpResourceModel> destination =
                 currentMicroservicesRegistry.
                         getMetadata().
                         getDestinationMethod(request.getUri(), request.getHttpMethod(), request.getContentType(),
-                                request.getAcceptTypes());
+                                acceptHeader);
+        response.setMediaType(destination.getDestination().getResponseMediaType(acceptHeader));
+        return destination;
+    }
+
+    /**
+     * Dispatch appropriate resource method. The returned future completes once the response has been sent, which
+     * for asynchronous resource methods is after this method returns.
+     */
+    private CompletableFuture<Void> dispatchMethod(MicroservicesRegistryImpl currentMicroservicesRegistry,
+                                                   Request request, Response response,
+                                                   PatternPathRouter.RoutableDestination<HttpResourceModel>
+                                                           destination) throws Exception {
         HttpResourceModel resourceModel = destination.getDestination();
-        response.setMediaType(Util.getResponseType(request.getAcceptTypes(),
-                resourceModel.getProducesMediaTypes()));
         InterceptorExecutor interceptorExecutor = new InterceptorExecutor(resourceModel, request, response,
                                                                           currentMicroservicesRegistry
                                                                                   .getInterceptors());
         if (interceptorExecutor.execPreCalls()) { // preCalls can throw exceptions
 
-            HttpMethodInfoBuilder httpMethodInfoBuilder =
-                    new HttpMethodInfoBuilder().
-                            httpResourceModel(resourceModel).
-                            httpRequest(request).
-                            httpResponder(response).
-                            requestInfo(destination.getGroupNameValues());
-
-            HttpMethodInfo httpMethodInfo = httpMethodInfoBuilder.build();
-            if (httpMethodInfo.isStreamingSupported()) {
-                while (!(request.isEmpty() && request.isEomAdded())) {
-                    httpMethodInfo.chunk(request.getMessageBody());
-                }
-                httpMethodInfo.end();
-            } else {
-                httpMethodInfo.invoke(request, destination);
+            HttpMethodInfo httpMethodInfo = new HttpResourceModelProcessor(resourceModel)
+                    .buildHttpMethodInfo(request, response, destination.getGroupNameValues());
+            CompletableFuture<Void> completion = httpMethodInfo.isStreamingSupported() ?
+                                                 httpMethodInfo.stream(request) :
+                                                 httpMethodInfo.invoke(request, destination);
+            if (!completion.isDone()) {
+                return completion.thenRun(() -> interceptorExecutor.execPostCalls(response.getStatusCode()));
             }
+            // Rethrows the failure of a result which was already available
+            completion.join();
             interceptorExecutor.execPostCalls(response.getStatusCode()); // postCalls can throw exceptions
         }
+        return COMPLETED;
     }
 
     private void handleThrowable(MicroservicesRegistryImpl currentMicroservicesRegistry, Throwable throwable,
@@ -37,7 +37,6 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.ServiceLoader;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -54,7 +53,7 @@ public class MicroservicesRegistryImpl implements MicroservicesRegistry {
 
     private final List<Interceptor> interceptors = new ArrayList<>();
     private volatile MicroserviceMetadata metadata = new MicroserviceMetadata(Collections.emptyList());
-    private Map<Class, ExceptionMapper> exceptionMappers = new TreeMap<>(new ClassComparator());
+    private volatile ClassHierarchyMap<ExceptionMapper> exceptionMappers = new ClassHierarchyMap<>();
     private SessionManager sessionManager = new DefaultSessionManager();
 
     public MicroservicesRegistryImpl() {
@@ -114,44 +113,44 @@ public class MicroservicesRegistryImpl implements MicroservicesRegistry {
         updateMetadata();
     }
 
-    public void addExceptionMapper(ExceptionMapper... mapper) {
-        Arrays.stream(mapper).forEach(em -> {
-            Arrays.stream(em.getClass().getMethods()).
-                    filter(method -> "toResponse".equals(method.getName()) && method.getParameterCount() == 1 &&
-                            !Throwable.class.getName().equals(method.getParameterTypes()[0].getTypeName())).
-                    findAny().
-                    ifPresent(method -> {
-                        try {
-                            exceptionMappers.put(Class.forName(method.getParameterTypes()[0].getTypeName(), false,
-                                    em.getClass().getClassLoader()), em);
-                        } catch (ClassNotFoundException e) {
-                            log.error("Could not load class", e);
-                        }
-                    });
-        });
+    public synchronized void addExceptionMapper(ExceptionMapper... mapper) {
+        for (ExceptionMapper em : mapper) {
+            Class exceptionType = getExceptionType(em);
+            if (exceptionType != null) {
+                exceptionMappers = exceptionMappers.with(exceptionType, em);
+            }
+        }
     }
 
     Optional<ExceptionMapper> getExceptionMapper(Throwable throwable) {
-        return exceptionMappers.entrySet().
-                stream().
-                filter(entry -> entry.getKey().isAssignableFrom(throwable.getClass())).
-                findFirst().
-                flatMap(entry -> Optional.ofNullable(entry.getValue()));
+        return exceptionMappers.get(throwable.getClass());
     }
 
+    public synchronized void removeExceptionMapper(ExceptionMapper em) {
+        Class exceptionType = getExceptionType(em);
+        if (exceptionType != null) {
+            exceptionMappers = exceptionMappers.without(exceptionType, em);
+        }
+    }
 
-    public void removeExceptionMapper(ExceptionMapper em) {
-        Arrays.stream(em.getClass().getMethods()).
-                filter(method -> method.getName().equals("toResponse") && method.getParameterCount() == 1).
+    /**
+     * Get the exception type handled by an exception mapper, taken from its toResponse method.
+     */
+    private static Class getExceptionType(ExceptionMapper em) {
+        return Arrays.stream(em.getClass().getMethods()).
+                filter(method -> "toResponse".equals(method.getName()) && method.getParameterCount() == 1 &&
+                        !Throwable.class.getName().equals(method.getParameterTypes()[0].getTypeName())).
                 findAny().
-                ifPresent(method -> {
+                map(method -> {
                     try {
-                        exceptionMappers.remove(Class.forName(method.getGenericParameterTypes()[0].getTypeName(),
-                                false, em.getClass().getClassLoader()));
+                        return Class.forName(method.getParameterTypes()[0].getTypeName(), false,
+                                em.getClass().getClassLoader());
                     } catch (ClassNotFoundException e) {
                         log.error("Could not load class", e);
+                        return null;
                     }
-                });
+                }).
+                orElse(null);
     }
 
     public List<Interceptor> getInterceptors() {
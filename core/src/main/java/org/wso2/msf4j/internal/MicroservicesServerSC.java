@@ -26,11 +26,15 @@ import org.slf4j.LoggerFactory;
 import org.wso2.carbon.kernel.startupresolver.RequiredCapabilityListener;
 import org.wso2.carbon.kernel.transports.CarbonTransport;
 import org.wso2.msf4j.DefaultSessionManager;
+import org.wso2.msf4j.EntityWriter;
 import org.wso2.msf4j.Interceptor;
 import org.wso2.msf4j.Microservice;
 import org.wso2.msf4j.MicroservicesRegistry;
 import org.wso2.msf4j.SessionManager;
 import org.wso2.msf4j.SwaggerService;
+import org.wso2.msf4j.beanconversion.MediaTypeConverter;
+import org.wso2.msf4j.internal.beanconversion.BeanConverter;
+import org.wso2.msf4j.internal.entitywriter.EntityWriterRegistry;
 import org.wso2.msf4j.util.RuntimeAnnotations;
 
 import java.util.Dictionary;
@@ -226,6 +230,36 @@ public class MicroservicesServerSC implements RequiredCapabilityListener {
         }
     }
 
+    @Reference(
+            name = "media-type-converter",
+            service = MediaTypeConverter.class,
+            cardinality = ReferenceCardinality.MULTIPLE,
+            policy = ReferencePolicy.DYNAMIC,
+            unbind = "removeMediaTypeConverter"
+    )
+    protected void addMediaTypeConverter(MediaTypeConverter mediaTypeConverter) {
+        BeanConverter.addMediaTypeConverter(mediaTypeConverter);
+    }
+
+    protected void removeMediaTypeConverter(MediaTypeConverter mediaTypeConverter) {
+        BeanConverter.removeMediaTypeConverter(mediaTypeConverter);
+    }
+
+    @Reference(
+            name = "entity-writer",
+            service = EntityWriter.class,
+            cardinality = ReferenceCardinality.MULTIPLE,
+            policy = ReferencePolicy.DYNAMIC,
+            unbind = "removeEntityWriter"
+    )
+    protected void addEntityWriter(EntityWriter entityWriter) {
+        EntityWriterRegistry.addEntityWriter(entityWriter);
+    }
+
+    protected void removeEntityWriter(EntityWriter entityWriter) {
+        EntityWriterRegistry.removeEntityWriter(entityWriter);
+    }
+
     @Reference(
             name = "session-manager",
             service = SessionManager.class,
@@ -16,20 +16,38 @@
 
 package org.wso2.msf4j.internal.beanconversion;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.wso2.msf4j.beanconversion.MediaTypeConverter;
+import org.wso2.msf4j.util.HeaderParser;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Factory class for getting correct media type conversion
  * instance for a given mime type.
+ * <p>
+ * Besides the built in JSON and XML converters, converters are discovered through {@link ServiceLoader} and can be
+ * registered as OSGi services. When several converters support a media type the one with the highest
+ * {@link MediaTypeConverter#getPriority() priority} is used. Media types without a converter fall back to text/plain.
  */
 public class BeanConverter {
 
+    private static final Logger log = LoggerFactory.getLogger(BeanConverter.class);
     private static final MediaTypeConverter DEFAULT_CONVERTER = new TextPlainConverter();
-    private static final Map<String, MediaTypeConverter> converterMap = new HashMap<>();
+    private static final int MAX_CACHED_LOOKUPS = 256;
+
+    private static final List<MediaTypeConverter> registeredConverters = new ArrayList<>();
+    private static volatile Registry registry = new Registry(Collections.emptyList());
 
     private BeanConverter() {
     }
@@ -37,6 +55,7 @@ public class BeanConverter {
     static {
         addMediaTypeConverter(new JsonConverter());
         addMediaTypeConverter(new XmlConverter());
+        loadMediaTypeConverters();
     }
 
     /**
@@ -46,19 +65,77 @@ public class BeanConverter {
      * @return MediaTypeConverter
      */
     public static MediaTypeConverter getConverter(String mediaType) {
-        MediaTypeConverter mediaTypeConverter = converterMap.get(mediaType.toLowerCase(Locale.US));
-        if (mediaTypeConverter == null) {
-            mediaTypeConverter = DEFAULT_CONVERTER;
-        }
-        return mediaTypeConverter;
+        return registry.getConverter(mediaType);
     }
 
     /**
      * Register a media type converter.
+     *
+     * @param mediaTypeConverter converter to be registered
      */
-    private static void addMediaTypeConverter(MediaTypeConverter mediaTypeConverter) {
-        for (String mediaType : mediaTypeConverter.getSupportedMediaTypes()) {
-            converterMap.put(mediaType.toLowerCase(Locale.US), mediaTypeConverter);
+    public static synchronized void addMediaTypeConverter(MediaTypeConverter mediaTypeConverter) {
+        registeredConverters.add(mediaTypeConverter);
+        registry = new Registry(registeredConverters);
+    }
+
+    /**
+     * Unregister a media type converter.
+     *
+     * @param mediaTypeConverter converter to be unregistered
+     */
+    public static synchronized void removeMediaTypeConverter(MediaTypeConverter mediaTypeConverter) {
+        if (registeredConverters.remove(mediaTypeConverter)) {
+            registry = new Registry(registeredConverters);
+        }
+    }
+
+    /**
+     * Register the converters declared in META-INF/services/org.wso2.msf4j.beanconversion.MediaTypeConverter.
+     */
+    private static void loadMediaTypeConverters() {
+        try {
+            for (MediaTypeConverter mediaTypeConverter : ServiceLoader.load(MediaTypeConverter.class)) {
+                addMediaTypeConverter(mediaTypeConverter);
+                log.debug("Added media type converter: " + mediaTypeConverter.getClass().getName());
+            }
+        } catch (ServiceConfigurationError e) {
+            log.error("Unable to load media type converters", e);
+        }
+    }
+
+    /**
+     * Immutable snapshot of the registered converters. Converters are looked up by the exact media type string
+     * first; other spellings of a media type (different case, parameters) are normalized once and cached in the
+     * snapshot, so a new snapshot starts with an empty lookup cache.
+     */
+    private static final class Registry {
+        private final Map<String, MediaTypeConverter> converters = new HashMap<>();
+        private final Map<String, MediaTypeConverter> lookups = new ConcurrentHashMap<>();
+
+        Registry(List<MediaTypeConverter> registered) {
+            List<MediaTypeConverter> byPriority = new ArrayList<>(registered);
+            // Stable sort, so converters of the same priority keep the registration order
+            byPriority.sort(Comparator.comparingInt(MediaTypeConverter::getPriority).reversed());
+            for (MediaTypeConverter mediaTypeConverter : byPriority) {
+                for (String mediaType : mediaTypeConverter.getSupportedMediaTypes()) {
+                    converters.putIfAbsent(mediaType.toLowerCase(Locale.ENGLISH), mediaTypeConverter);
+                }
+            }
+        }
+
+        MediaTypeConverter getConverter(String mediaType) {
+            MediaTypeConverter mediaTypeConverter = converters.get(mediaType);
+            if (mediaTypeConverter == null) {
+                mediaTypeConverter = lookups.get(mediaType);
+                if (mediaTypeConverter == null) {
+                    mediaTypeConverter = converters.getOrDefault(
+                            HeaderParser.parseMediaType(mediaType).toLowerCase(Locale.ENGLISH), DEFAULT_CONVERTER);
+                    if (lookups.size() < MAX_CACHED_LOOKUPS) {
+                        lookups.put(mediaType, mediaTypeConverter);
+                    }
+                }
+            }
+            return mediaTypeConverter;
         }
     }
 }
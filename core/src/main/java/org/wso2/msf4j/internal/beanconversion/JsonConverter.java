@@ -18,19 +18,35 @@ package org.wso2.msf4j.internal.beanconversion;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonSyntaxException;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import org.wso2.msf4j.beanconversion.BeanConversionException;
 import org.wso2.msf4j.beanconversion.MediaTypeConverter;
+import org.wso2.msf4j.util.BufferUtil;
+import org.wso2.msf4j.util.ByteBufferOutputStream;
+import org.wso2.msf4j.util.ByteBufferSequence;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.reflect.Type;
 import java.nio.ByteBuffer;
-import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import javax.ws.rs.core.MediaType;
 
 /**
  * Media type converter for text/json,
- * application/json mime types.
+ * application/json mime types. Json content is always encoded in UTF-8 and is
+ * parsed and written as a stream, without building an intermediate String.
  */
 public class JsonConverter extends MediaTypeConverter {
 
@@ -53,9 +69,40 @@ public class JsonConverter extends MediaTypeConverter {
      */
     @Override
     public ByteBuffer toMedia(Object object) {
-        String value = (object instanceof String || object instanceof JsonArray || object instanceof JsonObject) ?
-                       object.toString() : gson.toJson(object);
-        return ByteBuffer.wrap(value.getBytes(Charset.defaultCharset()));
+        ByteBufferOutputStream outputStream = new ByteBufferOutputStream();
+        try {
+            toMedia(object, outputStream);
+        } catch (IOException e) {
+            throw new BeanConversionException("Unable to perform object to json conversion", e);
+        }
+        return BufferUtil.merge(outputStream.getBuffers());
+    }
+
+    /**
+     * Write an Object to a stream as Json.
+     *
+     * @param object       object that needs to be converted to a media content
+     * @param outputStream stream to which the Json content is written
+     * @throws IOException if error occurs while writing to the stream
+     */
+    @Override
+    public void toMedia(Object object, OutputStream outputStream) throws IOException {
+        Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        try {
+            if (object instanceof String) {
+                writer.write((String) object);
+            } else if (object instanceof JsonArray || object instanceof JsonObject) {
+                // Same as JsonElement#toString
+                JsonWriter jsonWriter = new JsonWriter(writer);
+                jsonWriter.setLenient(true);
+                gson.getAdapter(JsonElement.class).write(jsonWriter, (JsonElement) object);
+            } else {
+                gson.toJson(object, object.getClass(), new JsonWriter(writer));
+            }
+        } catch (JsonIOException e) {
+            throw new BeanConversionException("Unable to perform object to json conversion", e);
+        }
+        writer.flush();
     }
 
     /**
@@ -68,14 +115,45 @@ public class JsonConverter extends MediaTypeConverter {
      */
     @Override
     public Object toObject(ByteBuffer content, Type targetType) throws BeanConversionException {
+        return toObject(new ByteBufferSequence(Collections.singletonList(content)), targetType);
+    }
+
+    /**
+     * Convert a Json content spread over a sequence of buffers to an object. The content is parsed as it is read
+     * from the buffers.
+     *
+     * @param content    content that needs to be converted to an object
+     * @param targetType media type of the content
+     * @return Object that maps the Json data
+     * @throws BeanConversionException if error occure while converting the content
+     */
+    @Override
+    public Object toObject(ByteBufferSequence content, Type targetType) throws BeanConversionException {
+        return toObject(content.asInputStream(), targetType);
+    }
+
+    /**
+     * Convert a Json content read from a stream to an object. The content is parsed as it is read.
+     *
+     * @param content    stream of the content that needs to be converted to an object
+     * @param targetType media type of the content
+     * @return Object that maps the Json data
+     * @throws BeanConversionException if error occure while converting the content
+     */
+    @Override
+    public Object toObject(InputStream content, Type targetType) throws BeanConversionException {
         try {
-            String str = Charset.defaultCharset().decode(content).toString();
-            Object object = gson.fromJson(str, targetType);
+            JsonReader jsonReader = new JsonReader(new InputStreamReader(content, StandardCharsets.UTF_8));
+            Object object = gson.fromJson(jsonReader, targetType);
             if (object == null) {
                 throw new BeanConversionException("Unable to perform json to object conversion");
             }
+            if (jsonReader.peek() != JsonToken.END_DOCUMENT) {
+                throw new BeanConversionException("Unable to perform json to object conversion, " +
+                                                  "json document was not fully consumed");
+            }
             return object;
-        } catch (JsonSyntaxException ex) {
+        } catch (JsonParseException | IOException ex) {
             throw new BeanConversionException("Unable to perform json to object conversion", ex);
         }
     }
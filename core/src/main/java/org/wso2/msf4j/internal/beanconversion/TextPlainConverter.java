@@ -17,6 +17,7 @@
 package org.wso2.msf4j.internal.beanconversion;
 
 import org.wso2.msf4j.beanconversion.MediaTypeConverter;
+import org.wso2.msf4j.util.ByteBufferSequence;
 
 import java.lang.reflect.Type;
 import java.nio.ByteBuffer;
@@ -58,4 +59,16 @@ public class TextPlainConverter extends MediaTypeConverter {
     public Object toObject(ByteBuffer content, Type targetType) {
         return Charset.defaultCharset().decode(content).toString();
     }
+
+    /**
+     * Decode a text content spread over a sequence of buffers.
+     *
+     * @param content    content that needs to be converted to an object
+     * @param targetType media type of the content
+     * @return String object that contains the text data
+     */
+    @Override
+    public Object toObject(ByteBufferSequence content, Type targetType) {
+        return content.toString(Charset.defaultCharset());
+    }
 }
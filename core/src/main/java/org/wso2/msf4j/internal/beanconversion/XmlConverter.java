@@ -18,23 +18,54 @@ package org.wso2.msf4j.internal.beanconversion;
 
 import org.wso2.msf4j.beanconversion.BeanConversionException;
 import org.wso2.msf4j.beanconversion.MediaTypeConverter;
+import org.wso2.msf4j.util.BufferUtil;
+import org.wso2.msf4j.util.ByteBufferOutputStream;
+import org.wso2.msf4j.util.ByteBufferSequence;
+import org.wso2.msf4j.util.SystemVariableUtil;
 
-import java.io.StringReader;
-import java.io.StringWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
 import java.nio.ByteBuffer;
-import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import javax.ws.rs.core.MediaType;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
 
 /**
- * Media type converter for text/xml mime type.
+ * Media type converter for text/xml mime type. The JAXB context of a class is created once and its marshallers and
+ * unmarshallers are pooled, since creating a context is expensive and marshallers are not thread safe. Xml is
+ * written compactly unless pretty printing is enabled with the MSF4J_XML_PRETTY_PRINT system variable.
  */
 public class XmlConverter extends MediaTypeConverter {
 
     private static final String TEXT_XML = "text/xml";
+    private static final boolean PRETTY_PRINT =
+            Boolean.parseBoolean(SystemVariableUtil.getValue("MSF4J_XML_PRETTY_PRINT", "false"));
+    private static final int MAX_POOLED_INSTANCES = 16;
+
+    private final boolean prettyPrint;
+    private final ClassValue<JaxbBinding> bindings = new ClassValue<JaxbBinding>() {
+        @Override
+        protected JaxbBinding computeValue(Class<?> type) {
+            return new JaxbBinding(type);
+        }
+    };
+
+    public XmlConverter() {
+        this(PRETTY_PRINT);
+    }
+
+    /**
+     * @param prettyPrint whether the xml content should be formatted
+     */
+    public XmlConverter(boolean prettyPrint) {
+        this.prettyPrint = prettyPrint;
+    }
 
     /**
      * Provides the supported media types for bean conversions.
@@ -53,13 +84,24 @@ public class XmlConverter extends MediaTypeConverter {
      */
     @Override
     public ByteBuffer toMedia(Object object) throws BeanConversionException {
+        ByteBufferOutputStream outputStream = new ByteBufferOutputStream();
+        toMedia(object, outputStream);
+        return BufferUtil.merge(outputStream.getBuffers());
+    }
+
+    /**
+     * Write an Object to a stream as xml.
+     *
+     * @param object       object that needs to be converted to a media content
+     * @param outputStream stream to which the xml content is written
+     */
+    @Override
+    public void toMedia(Object object, OutputStream outputStream) throws BeanConversionException {
+        JaxbBinding binding = bindings.get(object.getClass());
         try {
-            JAXBContext jaxbContext = JAXBContext.newInstance(object.getClass());
-            Marshaller marshaller = jaxbContext.createMarshaller();
-            StringWriter stringWriter = new StringWriter();
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-            marshaller.marshal(object, stringWriter);
-            return ByteBuffer.wrap(stringWriter.toString().getBytes(Charset.defaultCharset()));
+            Marshaller marshaller = binding.acquireMarshaller();
+            marshaller.marshal(object, outputStream);
+            binding.releaseMarshaller(marshaller);
         } catch (JAXBException e) {
             throw new BeanConversionException("Unable to perform object to xml conversion", e);
         }
@@ -74,16 +116,94 @@ public class XmlConverter extends MediaTypeConverter {
      */
     @Override
     public Object toObject(ByteBuffer content, Type targetType) throws BeanConversionException {
+        return toObject(new ByteBufferSequence(Collections.singletonList(content)), targetType);
+    }
+
+    /**
+     * Convert a xml content spread over a sequence of buffers to an object. The content is unmarshalled as it is
+     * read from the buffers.
+     *
+     * @param content    content that needs to be converted to an object
+     * @param targetType media type of the content
+     * @return Object that maps the xml data
+     */
+    @Override
+    public Object toObject(ByteBufferSequence content, Type targetType) throws BeanConversionException {
+        return toObject(content.asInputStream(), targetType);
+    }
+
+    /**
+     * Convert a xml content read from a stream to an object. The content is unmarshalled as it is read.
+     *
+     * @param content    stream of the content that needs to be converted to an object
+     * @param targetType media type of the content
+     * @return Object that maps the xml data
+     */
+    @Override
+    public Object toObject(InputStream content, Type targetType) throws BeanConversionException {
+        if (!(targetType instanceof Class)) {
+            return null;
+        }
+        JaxbBinding binding = bindings.get((Class<?>) targetType);
         try {
-            String str = Charset.defaultCharset().decode(content).toString();
-            JAXBContext jaxbContext = null;
-            if (targetType instanceof Class) {
-                jaxbContext = JAXBContext.newInstance((Class) targetType);
-                return jaxbContext.createUnmarshaller().unmarshal(new StringReader(str));
-            }
+            Unmarshaller unmarshaller = binding.acquireUnmarshaller();
+            Object object = unmarshaller.unmarshal(content);
+            binding.releaseUnmarshaller(unmarshaller);
+            return object;
         } catch (JAXBException e) {
             throw new BeanConversionException("Unable to perform xml to object conversion", e);
         }
-        return null;
+    }
+
+    /**
+     * JAXB context of a class along with pools of its marshallers and unmarshallers. A marshaller or unmarshaller
+     * which fails is not returned to the pool.
+     */
+    private final class JaxbBinding {
+        private final JAXBContext context;
+        private final JAXBException contextException;
+        private final BlockingQueue<Marshaller> marshallers = new ArrayBlockingQueue<>(MAX_POOLED_INSTANCES);
+        private final BlockingQueue<Unmarshaller> unmarshallers = new ArrayBlockingQueue<>(MAX_POOLED_INSTANCES);
+
+        JaxbBinding(Class<?> type) {
+            JAXBContext jaxbContext = null;
+            JAXBException exception = null;
+            try {
+                jaxbContext = JAXBContext.newInstance(type);
+            } catch (JAXBException e) {
+                exception = e;
+            }
+            this.context = jaxbContext;
+            this.contextException = exception;
+        }
+
+        private JAXBContext getContext() throws JAXBException {
+            if (contextException != null) {
+                throw contextException;
+            }
+            return context;
+        }
+
+        Marshaller acquireMarshaller() throws JAXBException {
+            Marshaller marshaller = marshallers.poll();
+            if (marshaller == null) {
+                marshaller = getContext().createMarshaller();
+                marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, prettyPrint);
+            }
+            return marshaller;
+        }
+
+        void releaseMarshaller(Marshaller marshaller) {
+            marshallers.offer(marshaller);
+        }
+
+        Unmarshaller acquireUnmarshaller() throws JAXBException {
+            Unmarshaller unmarshaller = unmarshallers.poll();
+            return unmarshaller != null ? unmarshaller : getContext().createUnmarshaller();
+        }
+
+        void releaseUnmarshaller(Unmarshaller unmarshaller) {
+            unmarshallers.offer(unmarshaller);
+        }
     }
 }
@@ -16,36 +16,61 @@
 
 package org.wso2.msf4j.internal.entitywriter;
 
-import org.wso2.msf4j.internal.ClassComparator;
+import org.wso2.msf4j.EntityWriter;
+import org.wso2.msf4j.internal.ClassHierarchyMap;
 
+import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
-import java.util.TreeMap;
 
 /**
- * Registry that stores entity writers for different entity types.
+ * Registry that stores entity writers for different entity types. The writer of each entity class is resolved once
+ * and cached; entities without a more specific writer are written by the default writer.
  */
 public class EntityWriterRegistry {
 
     private static final EntityWriter DEFAULT_ENTITY_WRITER = new ObjectEntityWriter();
-    private static final Map<Class, EntityWriter> writers = new TreeMap<>(new ClassComparator());
+    private static final Map<Class, EntityWriter> BUILT_IN_WRITERS = new HashMap<>();
+    private static volatile ClassHierarchyMap<EntityWriter> writers = new ClassHierarchyMap<>();
 
     static {
-        registerEntityWriter(new FileEntityWriter());
-        registerEntityWriter(new InputStreamEntityWriter());
-        registerEntityWriter(new StreamingOutputEntityWriter());
+        addBuiltInEntityWriter(new FileEntityWriter());
+        addBuiltInEntityWriter(new PathEntityWriter());
+        addBuiltInEntityWriter(new FileRegionEntityWriter());
+        addBuiltInEntityWriter(new InputStreamEntityWriter());
+        addBuiltInEntityWriter(new StreamingOutputEntityWriter());
     }
 
     private EntityWriterRegistry() {
     }
 
     /**
-     * Register an entity writer.
+     * Register an entity writer, replacing the writer already registered for its type if there is one.
      *
      * @param entityWriter entity writer for a specific entity type
      */
-    private static void registerEntityWriter(EntityWriter entityWriter) {
-        writers.put(entityWriter.getType(), entityWriter);
+    public static synchronized void addEntityWriter(EntityWriter entityWriter) {
+        writers = writers.with(entityWriter.getType(), entityWriter);
+    }
+
+    /**
+     * Unregister an entity writer. Nothing is done unless the writer is the one registered for its type. If the
+     * writer had replaced a built in writer, the built in writer is restored.
+     *
+     * @param entityWriter entity writer to be removed
+     */
+    public static synchronized void removeEntityWriter(EntityWriter entityWriter) {
+        Class type = entityWriter.getType();
+        ClassHierarchyMap<EntityWriter> newWriters = writers.without(type, entityWriter);
+        EntityWriter builtInWriter = BUILT_IN_WRITERS.get(type);
+        if (newWriters != writers && builtInWriter != null) {
+            newWriters = newWriters.with(type, builtInWriter);
+        }
+        writers = newWriters;
+    }
+
+    private static void addBuiltInEntityWriter(EntityWriter entityWriter) {
+        BUILT_IN_WRITERS.put(entityWriter.getType(), entityWriter);
+        addEntityWriter(entityWriter);
     }
 
     /**
@@ -55,10 +80,6 @@ public class EntityWriterRegistry {
      * @return entity writer
      */
     public static EntityWriter getEntityWriter(Class type) {
-        return writers.entrySet().
-                stream().
-                filter(entry -> entry.getKey().isAssignableFrom(type)).
-                findFirst().
-                flatMap(entry -> Optional.ofNullable(entry.getValue())).orElse(DEFAULT_ENTITY_WRITER);
+        return writers.get(type).orElse(DEFAULT_ENTITY_WRITER);
     }
 }
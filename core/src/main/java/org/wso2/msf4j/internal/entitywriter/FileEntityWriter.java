@@ -16,27 +16,20 @@
 
 package org.wso2.msf4j.internal.entitywriter;
 
-import org.apache.commons.io.FilenameUtils;
 import org.wso2.carbon.messaging.CarbonCallback;
 import org.wso2.carbon.messaging.CarbonMessage;
-import org.wso2.carbon.transport.http.netty.common.Constants;
-import org.wso2.msf4j.Response;
-import org.wso2.msf4j.internal.mime.MimeMapper;
-import org.wso2.msf4j.internal.mime.MimeMappingException;
+import org.wso2.msf4j.EntityWriter;
+import org.wso2.msf4j.Request;
+import org.wso2.msf4j.io.FileRegion;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.channels.FileChannel;
-import javax.ws.rs.core.MediaType;
 
 /**
- * EntityWriter for entity of type File.
+ * EntityWriter for entity of type File. The file is sent as a {@link FileRegion} covering the whole file.
  */
 public class FileEntityWriter implements EntityWriter<File> {
 
-    public static final int DEFAULT_CHUNK_SIZE = 1024;
+    private final FileRegionEntityWriter fileRegionEntityWriter = new FileRegionEntityWriter();
 
     /**
      * Supported entity type.
@@ -51,32 +44,15 @@ public class FileEntityWriter implements EntityWriter<File> {
      */
     @Override
     public void writeData(CarbonMessage carbonMessage, File file, String mediaType, int chunkSize, CarbonCallback cb) {
-        if (mediaType == null || mediaType.equals(MediaType.WILDCARD)) {
-            try {
-                mediaType = MimeMapper.getMimeType(FilenameUtils.getExtension(file.getName()));
-            } catch (MimeMappingException e) {
-                mediaType = MediaType.WILDCARD;
-            }
-        }
-        try {
-            FileChannel fileChannel = new FileInputStream(file).getChannel();
-            if (chunkSize == Response.NO_CHUNK || chunkSize == Response.DEFAULT_CHUNK_SIZE) {
-                chunkSize = DEFAULT_CHUNK_SIZE;
-            }
-            carbonMessage.setHeader(Constants.HTTP_TRANSFER_ENCODING, CHUNKED);
-            carbonMessage.setHeader(Constants.HTTP_CONTENT_TYPE, mediaType);
-            carbonMessage.setBufferContent(false);
-            cb.done(carbonMessage);
+        writeData(carbonMessage, file, mediaType, chunkSize, cb, null);
+    }
 
-            ByteBuffer buffer = ByteBuffer.allocate(chunkSize);
-            while (fileChannel.read(buffer) != -1) {
-                buffer.flip();
-                carbonMessage.addMessageBody(buffer);
-            }
-            fileChannel.close();
-            carbonMessage.setEndOfMsgAdded(true);
-        } catch (IOException e) {
-            throw new RuntimeException("Error occurred while reading from file", e);
-        }
+    /**
+     * Write the entity to the carbon message, honouring the validators and the Range header of the request.
+     */
+    @Override
+    public void writeData(CarbonMessage carbonMessage, File file, String mediaType, int chunkSize, CarbonCallback cb,
+                          Request request) {
+        fileRegionEntityWriter.writeData(carbonMessage, new FileRegion(file), mediaType, chunkSize, cb, request);
     }
 }
@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.internal.entitywriter;
+
+import org.apache.commons.io.FilenameUtils;
+import org.wso2.carbon.messaging.CarbonCallback;
+import org.wso2.carbon.messaging.CarbonMessage;
+import org.wso2.carbon.transport.http.netty.common.Constants;
+import org.wso2.msf4j.EntityWriter;
+import org.wso2.msf4j.Request;
+import org.wso2.msf4j.Response;
+import org.wso2.msf4j.internal.mime.MimeMapper;
+import org.wso2.msf4j.internal.mime.MimeMappingException;
+import org.wso2.msf4j.io.FileRegion;
+import org.wso2.msf4j.util.HeaderParser;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+
+/**
+ * EntityWriter for entity of type FileRegion. Small regions are read into a single heap buffer, larger ones are
+ * memory mapped and the mapped buffers are added to the message as they are, so the content is not copied through
+ * the heap however the region is chunked. Each chunk is a buffer of its own; chunks smaller than a mapping are
+ * sliced out of it, since mapping each of them would cost more than copying it.
+ * <p>
+ * Unless a chunk size is given, the chunk size grows with the size of the region so that a large file is sent in
+ * a handful of mapped chunks. The response is sent with a Content-Length unless chunking is requested.
+ * <p>
+ * When a whole file is sent in response to a GET or HEAD request with status 200, the response carries an ETag and
+ * a Last-Modified date, conditional requests are answered with 304 or 412 as appropriate and GET requests may ask
+ * for one or more byte ranges of the file.
+ */
+public class FileRegionEntityWriter implements EntityWriter<FileRegion> {
+
+    /**
+     * Smallest chunk size picked for a mapped region when no chunk size is given.
+     */
+    static final int MIN_MAPPED_CHUNK_SIZE = 256 * 1024;
+    static final int MAX_MAPPED_CHUNK_SIZE = 8 * 1024 * 1024;
+    static final int MAX_READ_SIZE = 64 * 1024;
+
+    private static final String RANGE = "Range";
+    private static final String IF_RANGE = "If-Range";
+    private static final String ACCEPT_RANGES = "Accept-Ranges";
+    private static final String CONTENT_RANGE = "Content-Range";
+    private static final String BYTES = "bytes";
+    private static final String MULTIPART_BYTERANGES = "multipart/byteranges; boundary=";
+    private static final String CRLF = "\r\n";
+
+    /**
+     * Supported entity type.
+     */
+    @Override
+    public Class<FileRegion> getType() {
+        return FileRegion.class;
+    }
+
+    /**
+     * Write the entity to the carbon message.
+     */
+    @Override
+    public void writeData(CarbonMessage carbonMessage, FileRegion region, String mediaType, int chunkSize,
+                          CarbonCallback cb) {
+        writeData(carbonMessage, region, mediaType, chunkSize, cb, null);
+    }
+
+    /**
+     * Write the entity to the carbon message, honouring the validators and the Range header of the request.
+     */
+    @Override
+    public void writeData(CarbonMessage carbonMessage, FileRegion region, String mediaType, int chunkSize,
+                          CarbonCallback cb, Request request) {
+        Path path = region.getPath();
+        mediaType = getMediaType(path, mediaType);
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = fileChannel.size();
+            if (isConditional(carbonMessage, region, request)) {
+                FileValidator validator = FileValidator.of(path, Files.readAttributes(path, BasicFileAttributes.class));
+                carbonMessage.setHeader(HttpHeaders.ETAG, validator.getETag());
+                carbonMessage.setHeader(HttpHeaders.LAST_MODIFIED, validator.getLastModifiedDate());
+                carbonMessage.setHeader(ACCEPT_RANGES, BYTES);
+                int status = validator.evaluatePreconditions(request.getHeader(HttpHeaders.IF_MATCH),
+                                                             request.getHeader(HttpHeaders.IF_UNMODIFIED_SINCE),
+                                                             request.getHeader(HttpHeaders.IF_NONE_MATCH),
+                                                             request.getHeader(HttpHeaders.IF_MODIFIED_SINCE));
+                if (status != 0) {
+                    writeEmpty(carbonMessage, status, cb);
+                    return;
+                }
+                List<HeaderParser.ByteRange> ranges = null;
+                if (HttpMethod.GET.equals(request.getHttpMethod()) &&
+                    validator.isRangeAllowed(request.getHeader(IF_RANGE))) {
+                    ranges = HeaderParser.parseRanges(request.getHeader(RANGE), size);
+                }
+                if (ranges != null) {
+                    writeRanges(carbonMessage, fileChannel, size, ranges, mediaType, chunkSize, cb);
+                    return;
+                }
+            }
+            writeFile(carbonMessage, fileChannel, region.getPosition(), region.getCount(size), mediaType, chunkSize,
+                      cb);
+        } catch (IOException e) {
+            throw new RuntimeException("Error occurred while reading from file", e);
+        }
+    }
+
+    /**
+     * Validators and ranges apply to whole files served with status 200 in response to GET or HEAD requests.
+     */
+    private static boolean isConditional(CarbonMessage carbonMessage, FileRegion region, Request request) {
+        if (request == null || region.getPosition() != 0 || region.getCount() != FileRegion.TO_END_OF_FILE) {
+            return false;
+        }
+        String httpMethod = request.getHttpMethod();
+        Object status = carbonMessage.getProperty(Constants.HTTP_STATUS_CODE);
+        return (HttpMethod.GET.equals(httpMethod) || HttpMethod.HEAD.equals(httpMethod)) &&
+               (status == null || status.equals(javax.ws.rs.core.Response.Status.OK.getStatusCode()));
+    }
+
+    private static void writeFile(CarbonMessage carbonMessage, FileChannel fileChannel, long position, long count,
+                                  String mediaType, int chunkSize, CarbonCallback cb) throws IOException {
+        writeHeaders(carbonMessage, count, mediaType, chunkSize);
+        cb.done(carbonMessage);
+        if (count == 0) {
+            carbonMessage.addMessageBody(ByteBuffer.allocate(0));
+        } else {
+            writeRegion(carbonMessage, fileChannel, position, count, chunkSize);
+        }
+        carbonMessage.setEndOfMsgAdded(true);
+    }
+
+    /**
+     * Write the requested ranges of a file: a single range as it is and several ranges as a multipart/byteranges
+     * body. If no range is satisfiable the response is 416.
+     */
+    private static void writeRanges(CarbonMessage carbonMessage, FileChannel fileChannel, long size,
+                                    List<HeaderParser.ByteRange> ranges, String mediaType, int chunkSize,
+                                    CarbonCallback cb) throws IOException {
+        if (ranges.isEmpty()) {
+            carbonMessage.setHeader(CONTENT_RANGE, BYTES + " */" + size);
+            writeEmpty(carbonMessage, javax.ws.rs.core.Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE.getStatusCode(),
+                       cb);
+            return;
+        }
+        carbonMessage.setProperty(Constants.HTTP_STATUS_CODE,
+                                  javax.ws.rs.core.Response.Status.PARTIAL_CONTENT.getStatusCode());
+        if (ranges.size() == 1) {
+            HeaderParser.ByteRange range = ranges.get(0);
+            carbonMessage.setHeader(CONTENT_RANGE, getContentRange(range, size));
+            writeFile(carbonMessage, fileChannel, range.getFirst(), range.getLength(), mediaType, chunkSize, cb);
+            return;
+        }
+
+        String boundary = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        List<ByteBuffer> partHeaders = new ArrayList<>(ranges.size());
+        long length = 0;
+        for (HeaderParser.ByteRange range : ranges) {
+            String partHeader = CRLF + "--" + boundary + CRLF +
+                                HttpHeaders.CONTENT_TYPE + ": " + mediaType + CRLF +
+                                CONTENT_RANGE + ": " + getContentRange(range, size) + CRLF + CRLF;
+            ByteBuffer buffer = ByteBuffer.wrap(partHeader.getBytes(StandardCharsets.US_ASCII));
+            partHeaders.add(buffer);
+            length += buffer.remaining() + range.getLength();
+        }
+        ByteBuffer closingBoundary =
+                ByteBuffer.wrap((CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.US_ASCII));
+        length += closingBoundary.remaining();
+
+        writeHeaders(carbonMessage, length, MULTIPART_BYTERANGES + boundary, chunkSize);
+        cb.done(carbonMessage);
+        for (int i = 0; i < ranges.size(); i++) {
+            carbonMessage.addMessageBody(partHeaders.get(i));
+            writeRegion(carbonMessage, fileChannel, ranges.get(i).getFirst(), ranges.get(i).getLength(), chunkSize);
+        }
+        carbonMessage.addMessageBody(closingBoundary);
+        carbonMessage.setEndOfMsgAdded(true);
+    }
+
+    private static void writeHeaders(CarbonMessage carbonMessage, long length, String mediaType, int chunkSize) {
+        if (chunkSize == Response.NO_CHUNK) {
+            carbonMessage.setHeader(Constants.HTTP_CONTENT_LENGTH, String.valueOf(length));
+        } else {
+            carbonMessage.setHeader(Constants.HTTP_TRANSFER_ENCODING, CHUNKED);
+        }
+        carbonMessage.setHeader(Constants.HTTP_CONTENT_TYPE, mediaType);
+        carbonMessage.setBufferContent(false);
+    }
+
+    /**
+     * Send a response without a body, such as 304.
+     */
+    private static void writeEmpty(CarbonMessage carbonMessage, int status, CarbonCallback cb) {
+        carbonMessage.setProperty(Constants.HTTP_STATUS_CODE, status);
+        if (status != javax.ws.rs.core.Response.Status.NOT_MODIFIED.getStatusCode()) {
+            carbonMessage.setHeader(Constants.HTTP_CONTENT_LENGTH, "0");
+        }
+        carbonMessage.addMessageBody(ByteBuffer.allocate(0));
+        carbonMessage.setEndOfMsgAdded(true);
+        cb.done(carbonMessage);
+    }
+
+    private static String getContentRange(HeaderParser.ByteRange range, long size) {
+        return BYTES + ' ' + range.getFirst() + '-' + range.getLast() + '/' + size;
+    }
+
+    /**
+     * Add a region of a file to the message.
+     *
+     * @param carbonMessage response message
+     * @param fileChannel   channel of the file
+     * @param position      offset of the region
+     * @param count         number of bytes in the region
+     * @param chunkSize     user defined chunk size, see {@link EntityWriter#writeData}
+     * @throws IOException if the file cannot be read
+     */
+    static void writeRegion(CarbonMessage carbonMessage, FileChannel fileChannel, long position, long count,
+                            int chunkSize) throws IOException {
+        int size = chunkSize > 0 ? chunkSize : getChunkSize(count);
+        if (count <= MAX_READ_SIZE) {
+            addChunks(carbonMessage, read(fileChannel, position, (int) count), size);
+            return;
+        }
+        // Map whole chunks, but no less than the largest mapped chunk at a time
+        long mappingSize = size >= MAX_MAPPED_CHUNK_SIZE ? size : (long) (MAX_MAPPED_CHUNK_SIZE / size) * size;
+        long end = position + count;
+        while (position < end) {
+            long length = Math.min(mappingSize, end - position);
+            addChunks(carbonMessage, fileChannel.map(FileChannel.MapMode.READ_ONLY, position, length), size);
+            position += length;
+        }
+    }
+
+    /**
+     * Add a buffer to the message as chunks of the given size, which share the content of the buffer.
+     */
+    private static void addChunks(CarbonMessage carbonMessage, ByteBuffer buffer, int chunkSize) {
+        while (buffer.remaining() > chunkSize) {
+            ByteBuffer chunk = buffer.slice();
+            chunk.limit(chunkSize);
+            carbonMessage.addMessageBody(chunk);
+            buffer.position(buffer.position() + chunkSize);
+        }
+        carbonMessage.addMessageBody(buffer);
+    }
+
+    /**
+     * Get the chunk size for a region, aiming for about 16 chunks so that the transport can start sending before
+     * the whole region is mapped.
+     */
+    static int getChunkSize(long count) {
+        if (count <= MAX_READ_SIZE) {
+            return (int) count;
+        }
+        long size = Long.highestOneBit(count / 16);
+        return (int) Math.max(MIN_MAPPED_CHUNK_SIZE, Math.min(MAX_MAPPED_CHUNK_SIZE, size));
+    }
+
+    /**
+     * Get the media type of a file, derived from its extension unless the user has set one.
+     */
+    static String getMediaType(Path path, String mediaType) {
+        if (mediaType == null || mediaType.equals(MediaType.WILDCARD)) {
+            try {
+                Path fileName = path.getFileName();
+                return MimeMapper.getMimeType(FilenameUtils.getExtension(fileName == null ? "" : fileName.toString()));
+            } catch (MimeMappingException e) {
+                return MediaType.WILDCARD;
+            }
+        }
+        return mediaType;
+    }
+
+    private static ByteBuffer read(FileChannel fileChannel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (fileChannel.read(buffer, position + buffer.position()) == -1) {
+                throw new EOFException("File is shorter than the region to be sent");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
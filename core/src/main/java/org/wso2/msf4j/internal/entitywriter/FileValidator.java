@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.internal.entitywriter;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Validators of a file: a strong ETag derived from the file key (the inode on most file systems), size and last
+ * modification time, and the Last-Modified date. Validators are cached per path and reused as long as the file
+ * attributes do not change, so a revalidation costs a single stat of the file.
+ */
+final class FileValidator {
+
+    private static final int MAX_CACHED_VALIDATORS = 1024;
+    private static final DateTimeFormatter HTTP_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+    private static final Map<Path, FileValidator> validators = new ConcurrentHashMap<>();
+
+    private final Object fileKey;
+    private final long size;
+    private final long lastModified;
+    private final String eTag;
+    private final String lastModifiedDate;
+
+    private FileValidator(BasicFileAttributes attributes) {
+        this.fileKey = attributes.fileKey();
+        this.size = attributes.size();
+        this.lastModified = attributes.lastModifiedTime().toMillis();
+        this.eTag = "\"" + Integer.toHexString(Objects.hashCode(fileKey)) + '-' + Long.toHexString(size) + '-' +
+                    Long.toHexString(lastModified) + '"';
+        this.lastModifiedDate = HTTP_DATE_FORMAT.format(Instant.ofEpochMilli(lastModified));
+    }
+
+    /**
+     * Get the validators of a file.
+     *
+     * @param path       path of the file
+     * @param attributes current attributes of the file
+     * @return validators of the file
+     */
+    static FileValidator of(Path path, BasicFileAttributes attributes) {
+        FileValidator validator = validators.get(path);
+        if (validator == null || !validator.matches(attributes)) {
+            validator = new FileValidator(attributes);
+            if (validators.size() >= MAX_CACHED_VALIDATORS) {
+                validators.clear();
+            }
+            validators.put(path, validator);
+        }
+        return validator;
+    }
+
+    String getETag() {
+        return eTag;
+    }
+
+    String getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    /**
+     * Evaluate the preconditions of a GET or HEAD request in the order given in RFC 7232, section 6.
+     *
+     * @return 412 if a precondition fails, 304 if the client has the current representation, 0 otherwise
+     */
+    int evaluatePreconditions(String ifMatch, String ifUnmodifiedSince, String ifNoneMatch, String ifModifiedSince) {
+        if (ifMatch != null) {
+            if (!matches(ifMatch, false)) {
+                return javax.ws.rs.core.Response.Status.PRECONDITION_FAILED.getStatusCode();
+            }
+        } else if (ifUnmodifiedSince != null) {
+            long date = parseDate(ifUnmodifiedSince);
+            if (date >= 0 && lastModifiedSeconds() > date) {
+                return javax.ws.rs.core.Response.Status.PRECONDITION_FAILED.getStatusCode();
+            }
+        }
+        if (ifNoneMatch != null) {
+            if (matches(ifNoneMatch, true)) {
+                return javax.ws.rs.core.Response.Status.NOT_MODIFIED.getStatusCode();
+            }
+        } else if (ifModifiedSince != null) {
+            long date = parseDate(ifModifiedSince);
+            if (date >= 0 && lastModifiedSeconds() <= date) {
+                return javax.ws.rs.core.Response.Status.NOT_MODIFIED.getStatusCode();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Check an If-Range header, which allows a range request only if the client has the current representation.
+     *
+     * @param ifRange value of the If-Range header, may be null
+     * @return true if the Range header of the request should be honoured
+     */
+    boolean isRangeAllowed(String ifRange) {
+        if (ifRange == null) {
+            return true;
+        }
+        String value = ifRange.trim();
+        if (value.startsWith("\"") || value.startsWith("W/")) {
+            return value.equals(eTag);
+        }
+        return parseDate(value) == lastModifiedSeconds();
+    }
+
+    private boolean matches(BasicFileAttributes attributes) {
+        return size == attributes.size() && lastModified == attributes.lastModifiedTime().toMillis() &&
+               Objects.equals(fileKey, attributes.fileKey());
+    }
+
+    /**
+     * Check whether a list of entity tags matches the ETag of the file. Weak comparison ignores the weak indicator,
+     * strong comparison only matches strong tags.
+     */
+    private boolean matches(String entityTags, boolean weak) {
+        for (String entityTag : entityTags.split(",")) {
+            String tag = entityTag.trim();
+            if ("*".equals(tag)) {
+                return true;
+            }
+            if (weak && tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * HTTP dates have a resolution of a second, so modification times are compared in whole seconds.
+     */
+    private long lastModifiedSeconds() {
+        return lastModified / 1000;
+    }
+
+    /**
+     * @return seconds since the epoch or -1 if the date is not a valid HTTP date
+     */
+    private static long parseDate(String date) {
+        try {
+            return ZonedDateTime.parse(date.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+}
@@ -19,6 +19,7 @@ package org.wso2.msf4j.internal.entitywriter;
 import org.wso2.carbon.messaging.CarbonCallback;
 import org.wso2.carbon.messaging.CarbonMessage;
 import org.wso2.carbon.transport.http.netty.common.Constants;
+import org.wso2.msf4j.EntityWriter;
 import org.wso2.msf4j.Response;
 
 import java.io.IOException;
@@ -26,11 +27,13 @@ import java.io.InputStream;
 import java.nio.ByteBuffer;
 
 /**
- * EntityWriter for entity of type InputStream.
+ * EntityWriter for entity of type InputStream. Each chunk is read straight into a buffer allocated for it until the
+ * buffer is full or the stream ends, then handed to the transport, so the content is neither copied nor overwritten
+ * while the transport may still be sending it.
  */
 public class InputStreamEntityWriter implements EntityWriter<InputStream> {
 
-    public static final int DEFAULT_CHUNK_SIZE = 1024;
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
 
     /**
      * Supported entity type.
@@ -55,16 +58,46 @@ public class InputStreamEntityWriter implements EntityWriter<InputStream> {
             carbonMessage.setBufferContent(false);
             cb.done(carbonMessage);
 
-            byte[] data = new byte[chunkSize];
-            int len;
-            while ((len = ipStream.read(data)) != -1) {
-                carbonMessage.addMessageBody(ByteBuffer.wrap(data, 0, len));
-            }
-
-            ipStream.close();
+            writeChunks(carbonMessage, ipStream, chunkSize);
             carbonMessage.setEndOfMsgAdded(true);
         } catch (IOException e) {
             throw new RuntimeException("Error occurred while reading from InputStream", e);
         }
     }
+
+    private static void writeChunks(CarbonMessage carbonMessage, InputStream ipStream, int chunkSize)
+            throws IOException {
+        try (InputStream in = ipStream) {
+            while (true) {
+                ByteBuffer buffer = ByteBuffer.allocate(chunkSize);
+                int len = fill(in, buffer.array());
+                if (len > 0) {
+                    buffer.limit(len);
+                    // The transport owns the buffer from here on
+                    carbonMessage.addMessageBody(buffer);
+                }
+                if (len < chunkSize) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Read until the array is full or the stream ends, so a stream returning a few bytes at a time does not leave
+     * a mostly empty buffer behind each of its reads.
+     *
+     * @return number of bytes read, less than the length of the array only at the end of the stream
+     */
+    private static int fill(InputStream in, byte[] bytes) throws IOException {
+        int len = 0;
+        while (len < bytes.length) {
+            int count = in.read(bytes, len, bytes.length - len);
+            if (count == -1) {
+                break;
+            }
+            len += count;
+        }
+        return len;
+    }
 }
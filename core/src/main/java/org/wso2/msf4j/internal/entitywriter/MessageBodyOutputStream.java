@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wso2.msf4j.internal.entitywriter;
+
+import org.wso2.carbon.messaging.CarbonMessage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Output stream which writes to the body of a message in chunks. Content is written into a buffer allocated for
+ * the chunk, which is added to the message as is once it is full, so each chunk is a buffer of its own. Content
+ * flushed before the buffer is full is copied into a buffer of its size instead, and the chunk buffer is kept for
+ * the content written next.
+ */
+final class MessageBodyOutputStream extends OutputStream {
+
+    private final CarbonMessage carbonMessage;
+    private final int chunkSize;
+    private ByteBuffer current;
+    private boolean closed;
+
+    MessageBodyOutputStream(CarbonMessage carbonMessage, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size should be positive: " + chunkSize);
+        }
+        this.carbonMessage = carbonMessage;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (current == null) {
+            current = ByteBuffer.allocate(chunkSize);
+        }
+        current.put((byte) b);
+        if (!current.hasRemaining()) {
+            sendCurrent();
+        }
+    }
+
+    @Override
+    public void write(byte[] bytes, int off, int len) throws IOException {
+        ensureOpen();
+        if (off < 0 || len < 0 || len > bytes.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            if (current == null) {
+                current = ByteBuffer.allocate(chunkSize);
+            }
+            int count = Math.min(len, current.remaining());
+            current.put(bytes, off, count);
+            off += count;
+            len -= count;
+            if (!current.hasRemaining()) {
+                sendCurrent();
+            }
+        }
+    }
+
+    /**
+     * Send the content written so far as a chunk.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        if (current != null && current.position() > 0) {
+            sendPartial();
+        }
+    }
+
+    /**
+     * Send the remaining content. The message is not ended, that is left to the writer.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (current != null && current.position() > 0) {
+            sendPartial();
+        }
+        current = null;
+    }
+
+    private void sendCurrent() {
+        current.flip();
+        // The transport owns the buffer from here on
+        carbonMessage.addMessageBody(current);
+        current = null;
+    }
+
+    private void sendPartial() {
+        current.flip();
+        ByteBuffer chunk = ByteBuffer.allocate(current.remaining());
+        chunk.put(current).flip();
+        carbonMessage.addMessageBody(chunk);
+        current.clear();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream is closed");
+        }
+    }
+}
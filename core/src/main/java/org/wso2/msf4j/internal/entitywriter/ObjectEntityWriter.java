@@ -19,10 +19,13 @@ package org.wso2.msf4j.internal.entitywriter;
 import org.wso2.carbon.messaging.CarbonCallback;
 import org.wso2.carbon.messaging.CarbonMessage;
 import org.wso2.carbon.transport.http.netty.common.Constants;
+import org.wso2.msf4j.EntityWriter;
 import org.wso2.msf4j.Response;
 import org.wso2.msf4j.internal.beanconversion.BeanConverter;
+import org.wso2.msf4j.util.ByteBufferOutputStream;
 
 import java.nio.ByteBuffer;
+import java.util.List;
 import javax.ws.rs.core.MediaType;
 
 /**
@@ -39,17 +42,24 @@ public class ObjectEntityWriter implements EntityWriter<Object> {
     }
 
     /**
-     * Write the entity to the carbon message.
+     * Write the entity to the carbon message. The converter writes the entity into a sequence of buffers which are
+     * added to the message as they are.
      */
     @Override
     public void writeData(CarbonMessage carbonMessage, Object entity, String mediaType, int chunkSize,
                           CarbonCallback cb) {
         mediaType = (mediaType != null) ? mediaType : MediaType.WILDCARD;
-        ByteBuffer byteBuffer = BeanConverter.getConverter(mediaType).convertToMedia(entity);
-        carbonMessage.addMessageBody(byteBuffer);
+        ByteBufferOutputStream outputStream = new ByteBufferOutputStream();
+        BeanConverter.getConverter(mediaType).convertToMedia(entity, outputStream);
+        List<ByteBuffer> buffers = outputStream.getBuffers();
+        if (buffers.isEmpty()) {
+            carbonMessage.addMessageBody(ByteBuffer.allocate(0));
+        } else {
+            buffers.forEach(carbonMessage::addMessageBody);
+        }
         carbonMessage.setEndOfMsgAdded(true);
         if (chunkSize == Response.NO_CHUNK) {
-            carbonMessage.setHeader(Constants.HTTP_CONTENT_LENGTH, String.valueOf(byteBuffer.remaining()));
+            carbonMessage.setHeader(Constants.HTTP_CONTENT_LENGTH, String.valueOf(outputStream.size()));
         } else {
             carbonMessage.setHeader(Constants.HTTP_TRANSFER_ENCODING, CHUNKED);
         }
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.internal.entitywriter;
+
+import org.wso2.carbon.messaging.CarbonCallback;
+import org.wso2.carbon.messaging.CarbonMessage;
+import org.wso2.msf4j.EntityWriter;
+import org.wso2.msf4j.Request;
+import org.wso2.msf4j.io.FileRegion;
+
+import java.nio.file.Path;
+
+/**
+ * EntityWriter for entity of type Path. The file is sent as a {@link FileRegion} covering the whole file.
+ */
+public class PathEntityWriter implements EntityWriter<Path> {
+
+    private final FileRegionEntityWriter fileRegionEntityWriter = new FileRegionEntityWriter();
+
+    /**
+     * Supported entity type.
+     */
+    @Override
+    public Class<Path> getType() {
+        return Path.class;
+    }
+
+    /**
+     * Write the entity to the carbon message.
+     */
+    @Override
+    public void writeData(CarbonMessage carbonMessage, Path path, String mediaType, int chunkSize, CarbonCallback cb) {
+        writeData(carbonMessage, path, mediaType, chunkSize, cb, null);
+    }
+
+    /**
+     * Write the entity to the carbon message, honouring the validators and the Range header of the request.
+     */
+    @Override
+    public void writeData(CarbonMessage carbonMessage, Path path, String mediaType, int chunkSize, CarbonCallback cb,
+                          Request request) {
+        fileRegionEntityWriter.writeData(carbonMessage, new FileRegion(path), mediaType, chunkSize, cb, request);
+    }
+}
@@ -19,15 +19,20 @@ package org.wso2.msf4j.internal.entitywriter;
 import org.wso2.carbon.messaging.CarbonCallback;
 import org.wso2.carbon.messaging.CarbonMessage;
 import org.wso2.carbon.transport.http.netty.common.Constants;
+import org.wso2.msf4j.EntityWriter;
+import org.wso2.msf4j.Response;
 
 import java.io.IOException;
 import javax.ws.rs.core.StreamingOutput;
 
 /**
- * EntityWriter for entity of type {@link javax.ws.rs.core.StreamingOutput}.
+ * EntityWriter for entity of type {@link javax.ws.rs.core.StreamingOutput}. The output is buffered in chunks of the
+ * requested size and each chunk is sent once it is full or the output is flushed.
  */
 public class StreamingOutputEntityWriter implements EntityWriter<StreamingOutput> {
 
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
     /**
      * Supported entity type.
      */
@@ -42,12 +47,17 @@ public class StreamingOutputEntityWriter implements EntityWriter<StreamingOutput
     @Override
     public void writeData(CarbonMessage carbonMessage, StreamingOutput output,
                           String mediaType, int chunkSize, CarbonCallback cb) {
+        if (chunkSize == Response.NO_CHUNK || chunkSize == Response.DEFAULT_CHUNK_SIZE) {
+            chunkSize = DEFAULT_CHUNK_SIZE;
+        }
         try {
             carbonMessage.setHeader(Constants.HTTP_CONTENT_TYPE, mediaType);
             carbonMessage.setHeader(Constants.HTTP_TRANSFER_ENCODING, CHUNKED);
             carbonMessage.setBufferContent(false);
             cb.done(carbonMessage);
-            output.write(carbonMessage.getOutputStream());
+            try (MessageBodyOutputStream outputStream = new MessageBodyOutputStream(carbonMessage, chunkSize)) {
+                output.write(outputStream);
+            }
             carbonMessage.setEndOfMsgAdded(true);
         } catch (IOException e) {
             throw new RuntimeException("Error occurred while streaming output", e);
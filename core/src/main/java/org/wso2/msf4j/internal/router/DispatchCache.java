@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.internal.router;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of dispatch decisions. Entries are spread over a fixed number of stripes, each of which is a small
+ * LRU map guarded by its own lock, so concurrent requests rarely contend and the least recently used entries of a
+ * stripe are evicted once it is full.
+ *
+ * @param <V> type of the cached value.
+ */
+public final class DispatchCache<V> {
+
+    private static final int STRIPES = 16;
+
+    private final Stripe<V>[] stripes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Create a cache holding at most {@code capacity} entries. A capacity of zero disables caching.
+     *
+     * @param capacity maximum number of entries.
+     */
+    @SuppressWarnings("unchecked")
+    public DispatchCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Cache capacity cannot be negative: " + capacity);
+        }
+        int stripeCapacity = capacity == 0 ? 0 : Math.max(1, capacity / STRIPES);
+        stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe<>(stripeCapacity, evictions);
+        }
+    }
+
+    /**
+     * Get the cached value of a key.
+     *
+     * @param key dispatch key.
+     * @return cached value or null if the key is not cached.
+     */
+    public V get(Key key) {
+        Stripe<V> stripe = stripeOf(key);
+        V value;
+        synchronized (stripe) {
+            value = stripe.get(key);
+        }
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Cache a value.
+     *
+     * @param key   dispatch key.
+     * @param value value to be cached.
+     */
+    public void put(Key key, V value) {
+        Stripe<V> stripe = stripeOf(key);
+        if (stripe.capacity == 0) {
+            return;
+        }
+        synchronized (stripe) {
+            stripe.put(key, value);
+        }
+    }
+
+    /**
+     * Remove all the entries of the cache.
+     */
+    public void invalidate() {
+        for (Stripe<V> stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    /**
+     * @return number of entries currently in the cache.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe<V> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return number of lookups that found a cached value.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of lookups that did not find a cached value.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of entries evicted to make room for new ones.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private Stripe<V> stripeOf(Key key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    /**
+     * An access ordered map which drops its eldest entry when it grows beyond the capacity.
+     */
+    private static final class Stripe<V> extends LinkedHashMap<Key, V> {
+        private static final long serialVersionUID = -3046404569416284125L;
+
+        private final int capacity;
+        private final transient LongAdder evictions;
+
+        Stripe(int capacity, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Key of a dispatch decision: the routing target along with the request method, Content-Type and Accept header.
+     * The target is either the request path or the set of resource models the path was routed to.
+     */
+    public static final class Key {
+        private final Object target;
+        private final String httpMethod;
+        private final String contentType;
+        private final String acceptHeader;
+        private final int hash;
+
+        public Key(Object target, String httpMethod, String contentType, String acceptHeader) {
+            this.target = target;
+            this.httpMethod = httpMethod;
+            this.contentType = contentType;
+            this.acceptHeader = acceptHeader;
+            this.hash = Objects.hash(target, httpMethod, contentType, acceptHeader);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash &&
+                   target.equals(other.target) &&
+                   Objects.equals(httpMethod, other.httpMethod) &&
+                   Objects.equals(contentType, other.contentType) &&
+                   Objects.equals(acceptHeader, other.acceptHeader);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -16,34 +16,18 @@
 
 package org.wso2.msf4j.internal.router;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.wso2.msf4j.HttpStreamHandler;
 import org.wso2.msf4j.HttpStreamer;
 import org.wso2.msf4j.Request;
 import org.wso2.msf4j.Response;
 
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.nio.ByteBuffer;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-import javax.ws.rs.Path;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MultivaluedMap;
 
-import static org.wso2.msf4j.internal.router.Util.GROUP_PATTERN;
-import static org.wso2.msf4j.internal.router.Util.GROUP_PATTERN_REGEX;
-import static org.wso2.msf4j.internal.router.Util.WILD_CARD_PATTERN;
-
 /**
  * HttpMethodInfo is a helper class having state information about the http handler method to be invoked, the handler
  * and arguments required for invocation by the Dispatcher. RequestRouter populates this class and stores in its
@@ -51,31 +35,33 @@ import static org.wso2.msf4j.internal.router.Util.WILD_CARD_PATTERN;
  */
 public class HttpMethodInfo {
 
-    private final Method method;
+    private static final CompletableFuture<Void> COMPLETED = CompletableFuture.completedFuture(null);
+
+    private final MethodInvoker invoker;
     private final Object handler;
     private final Object[] args;
     private MultivaluedMap<String, Object> formParameters = null;
     private Response responder;
     private HttpStreamHandler httpStreamHandler;
-    private static final Logger log = LoggerFactory.getLogger(HttpMethodInfo.class);
+    private RequestBodyPublisher requestBodyPublisher;
 
     /**
      * Construct HttpMethodInfo object for a handler
      * method that does not support streaming.
      *
-     * @param method    handler method
+     * @param invoker   invoker of the handler method
      * @param handler   object of the handler method
      * @param args      method arguments array
      * @param responder responder object
      */
-    public HttpMethodInfo(Method method,
+    public HttpMethodInfo(MethodInvoker invoker,
                           Object handler,
                           Object[] args,
                           MultivaluedMap<String, Object> formParameters,
                           Response responder) {
-        this.method = method;
+        this.invoker = invoker;
         this.handler = handler;
-        this.args = Arrays.copyOf(args, args.length);
+        this.args = args;
         this.formParameters = formParameters;
         this.responder = responder;
     }
@@ -84,27 +70,27 @@ public class HttpMethodInfo {
      * Construct HttpMethodInfo object for a streaming
      * supported handler method.
      *
-     * @param method       handler method
+     * @param invoker      invoker of the handler method
      * @param handler      object of the handler method
      * @param args         method arguments array
      * @param responder    responder object
      * @param httpStreamer streaming handler
      * @throws HandlerException throws when HttpMethodInfo construction is unsuccessful
      */
-    public HttpMethodInfo(Method method,
+    public HttpMethodInfo(MethodInvoker invoker,
                           Object handler,
                           Object[] args,
                           MultivaluedMap<String, Object> formParameters,
                           Response responder,
                           HttpStreamer httpStreamer) throws HandlerException {
-        this(method, handler, args, formParameters, responder);
+        this(invoker, handler, args, formParameters, responder);
 
-        if (!method.getReturnType().equals(Void.TYPE)) {
+        if (!invoker.getMethod().getReturnType().equals(Void.TYPE)) {
             throw new HandlerException(javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR,
                     "Resource method should be void if it accepts chunked requests");
         }
         try {
-            method.invoke(handler, args);
+            invoker.invoke(handler, args);
         } catch (InvocationTargetException e) {
             throw new HandlerException(javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR,
                     "Resource method invocation failed", e.getTargetException());
@@ -117,22 +103,55 @@ public class HttpMethodInfo {
             throw new HandlerException(javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR,
                     "Streaming unsupported");
         }
-        httpStreamHandler.init(this.responder);
+        requestBodyPublisher = new RequestBodyPublisher(httpStreamHandler);
+        httpStreamHandler.init(this.responder, requestBodyPublisher);
     }
 
     /**
-     * Calls the http resource method.
+     * Calls the http resource method. If the method is asynchronous, that is if it returns a {@link CompletionStage}
+     * or takes a {@code @Suspended AsyncResponse}, the response is sent once the result is available rather than
+     * when the method returns.
      *
      * @param request original request
      * @param destination matching Destinations for the route
+     * @return future completed once the response has been sent, or exceptionally if the resource method failed
      * @throws Exception if error occurs while invoking the resource method
      */
-    public void invoke(Request request, PatternPathRouter.RoutableDestination<HttpResourceModel> destination)
+    public CompletableFuture<Void> invoke(Request request,
+                                          PatternPathRouter.RoutableDestination<HttpResourceModel> destination)
             throws Exception {
-        Object returnVal = method.invoke(handler, args);
-        returnVal = invokeSubResource(request, destination, returnVal);
-        responder.setEntity(returnVal);
-        responder.send();
+        Object returnVal = invokeSubResource(request, destination, invokeMethod());
+        SuspendedResponse suspendedResponse = null;
+        if (returnVal instanceof SuspendedResponse) {
+            suspendedResponse = (SuspendedResponse) returnVal;
+        } else if (returnVal instanceof CompletionStage) {
+            suspendedResponse = SuspendedResponse.of((CompletionStage<?>) returnVal);
+        }
+        if (suspendedResponse == null) {
+            responder.setEntity(returnVal);
+            responder.send();
+            return COMPLETED;
+        }
+        SuspendedResponse completedResponse = suspendedResponse;
+        CompletableFuture<Void> completion = suspendedResponse.getResult().thenAccept(entity -> {
+            responder.setEntity(entity);
+            responder.send();
+        });
+        completion.whenComplete((result, throwable) -> completedResponse.onComplete(throwable));
+        return completion;
+    }
+
+    /**
+     * Invoke the resource method. The result of a method taking an AsyncResponse is the response itself.
+     */
+    private Object invokeMethod() throws Exception {
+        Object returnVal = invoker.invoke(handler, args);
+        for (Object arg : args) {
+            if (arg instanceof SuspendedResponse) {
+                return arg;
+            }
+        }
+        return returnVal;
     }
 
     private Object invokeSubResource(Request request,
@@ -140,179 +159,43 @@ public class HttpMethodInfo {
                                    Object returnVal) throws Exception {
         // If this is a sub resource locator need to find and invoke the correct method
         if (destination.getDestination().isSubResourceLocator()) {
-            String requestPath = request.getUri();
-            if (requestPath.endsWith("/")) {
-                requestPath = requestPath.substring(0, requestPath.length() - 1);
-            }
-            if (requestPath.contains("?")) {
-                requestPath = requestPath.substring(0, requestPath.indexOf("?"));
-            }
-
-            if (!destination.getDestination().isSubResourceScanned()) {
-                // Scan the return object class to search the methods
-                for (Method method : returnVal.getClass().getMethods()) {
-                    if (Modifier.isPublic(method.getModifiers()) && Util.isHttpMethodAvailable(method)) {
-                        String relativePath = "";
-                        if (method.getAnnotation(Path.class) != null) {
-                            relativePath = method.getAnnotation(Path.class).value();
-                        }
-                        if (relativePath.startsWith("/")) {
-                            relativePath = relativePath.substring(1);
-                        }
-                        String absolutePath = relativePath.isEmpty() ? destination.getDestination().getPath() :
-                                              String.format("%s/%s", destination.getDestination().getPath(),
-                                                            relativePath);
-                        HttpResourceModel resourceModel = new HttpResourceModel(absolutePath, method, returnVal, false);
-                        resourceModel.setParent(destination.getDestination());
-                        SubresourceKey subResKey = new SubresourceKey(absolutePath, method.getDeclaringClass(),
-                                                                      resourceModel.getHttpMethod());
-                        destination.getDestination().addSubResources(subResKey, resourceModel);
-                    } else if (Modifier.isPublic(method.getModifiers()) && method.getAnnotation(Path.class) != null) {
-                        // Sub resource locator method
-                        String relativePath = method.getAnnotation(Path.class).value();
-                        if (relativePath.startsWith("/")) {
-                            relativePath = relativePath.substring(1);
-                        }
-                        String absolutePath = relativePath.isEmpty() ? destination.getDestination().getPath() :
-                                              String.format("%s/%s", destination.getDestination().getPath(),
-                                                            relativePath);
-                        HttpResourceModel resourceModel = new HttpResourceModel(absolutePath, method, returnVal, true);
-                        resourceModel.setParent(destination.getDestination());
-                        SubresourceKey subResKey =
-                                new SubresourceKey(absolutePath, method.getDeclaringClass(), Collections.emptySet());
-                        destination.getDestination().addSubResources(subResKey, resourceModel);
-                    }
-                }
-                destination.getDestination().setSubResourceScanned(true);
-            }
-            String finalRequestPath = requestPath;
-
-            List<Map.Entry<SubresourceKey, HttpResourceModel>> entries =
-                    destination.getDestination().getSubResources().entrySet().stream()
-                               .filter(e -> e.getValue().getHttpMethod().contains(request.getHttpMethod()) &&
-                                            finalRequestPath.matches(e.getKey().getPath().replaceAll(GROUP_PATTERN,
-                                                                                                GROUP_PATTERN_REGEX)) &&
-                                            returnVal.getClass().equals(e.getKey().getTypedClass()))
-                               .collect(Collectors.toList());
-            Optional<Map.Entry<SubresourceKey, HttpResourceModel>> entry = entries.stream().filter(
-                    entryPair -> entryPair.getValue().matchConsumeMediaType(request.getContentType()) &&
-                                 entryPair.getValue().matchProduceMediaType(request.getAcceptTypes()))
-                                                                                  .findFirst();
-
-            HttpResourceModel resourceModel;
-            if (entry.isPresent()) {
-                resourceModel = entry.get().getValue();
-            } else {
-                // Another sub-resource call
-                String finalRequestPath1 = requestPath;
-                entries = destination.getDestination().getSubResources().entrySet().stream()
-                           .filter(e -> finalRequestPath1
-                                                .matches(e.getKey().getPath()
-                                                          .replaceAll(GROUP_PATTERN, GROUP_PATTERN_REGEX).concat(".*"))
-                               && e.getValue().isSubResourceLocator()
-                               && returnVal.getClass().equals(e.getKey().getTypedClass())).collect(Collectors.toList());
-                entry = entries.stream().filter(entryPair ->
-                                                entryPair
-                                                        .getValue()
-                                                        .matchConsumeMediaType(
-                                                                request.getContentType()) &&
-                                                entryPair
-                                                        .getValue()
-                                                        .matchProduceMediaType(
-                                                                request.getAcceptTypes()))
-                       .findFirst();
-                if (entry.isPresent()) {
-                    resourceModel = entry.get().getValue();
-                } else {
-                    throw new HandlerException(javax.ws.rs.core.Response.Status.NOT_FOUND,
-                                               String.format("Problem accessing: %s. Reason: Not Found", requestPath));
-                }
+            String requestPath = URI.create(request.getUri()).normalize().getPath();
+            if (returnVal == null) {
+                throw new HandlerException(javax.ws.rs.core.Response.Status.NOT_FOUND,
+                                           String.format("Problem accessing: %s. Reason: Not Found", requestPath));
             }
-
-            // Process path to get the PathParam values
-            Path declaredAnnotation = resourceModel.getMethod().getDeclaredAnnotation(Path.class);
-            String[] parts = declaredAnnotation.value().split("/");
-            StringBuilder sb = new StringBuilder();
-            List<String> groupNames = new ArrayList<>();
-            for (String part : parts) {
-                Matcher groupMatcher = Pattern.compile(GROUP_PATTERN).matcher(part);
-                if (groupMatcher.matches()) {
-                    groupNames.add(Util.stripBraces(part));
-                    sb.append("([^/]+)");
-                } else if (WILD_CARD_PATTERN.matcher(part).matches()) {
-                    sb.append(".*?");
-                } else {
-                    sb.append(part);
-                }
-                sb.append("/");
-            }
-            if (sb.length() > 0) {
-                sb.setLength(sb.length() - 1);
-            }
-
-            Map<String, String> groupNameValues = new HashMap<>();
-            destination.getGroupNameValues().entrySet().forEach(e -> groupNameValues.put(e.getKey(), e.getValue()));
-
-            //Get the sub resource path
-            String[] paths =
-                    requestPath.split(destination.getDestination().getPath().replaceAll(GROUP_PATTERN, "([^/]+)"));
-            String subResPath = "/";
-            if (paths.length != 0) {
-                subResPath = paths[1];
+            String acceptHeader = request.getHeader(HttpHeaders.ACCEPT);
+            PatternPathRouter.RoutableDestination<HttpResourceModel> newDestination =
+                    destination.getDestination().getSubResourceRouter(returnVal)
+                               .getDestination(requestPath, request.getHttpMethod(), request.getContentType(),
+                                               acceptHeader);
+            if (newDestination == null) {
+                throw new HandlerException(javax.ws.rs.core.Response.Status.NOT_FOUND,
+                                           String.format("Problem accessing: %s. Reason: Not Found", requestPath));
             }
+            HttpResourceModel resourceModel = newDestination.getDestination();
 
-            Pattern pattern = Pattern.compile(sb.toString() + ".*");
-            Matcher matcher = pattern.matcher(subResPath);
-            if (matcher.matches()) {
-                for (int i = 1; i <= matcher.groupCount(); i++) {
-                    groupNameValues.putIfAbsent(groupNames.get(i - 1), matcher.group(i));
-                }
-            }
             // Invoke the sub-resource method
             HttpResourceModelProcessor httpSubResourceModelProcessor = new HttpResourceModelProcessor(resourceModel);
             httpSubResourceModelProcessor.setFormParameters(formParameters);
-            responder.setMediaType(
-                    Util.getResponseType(request.getAcceptTypes(), resourceModel.getProducesMediaTypes()));
+            responder.setMediaType(resourceModel.getResponseMediaType(acceptHeader));
             HttpMethodInfo httpMethodInfo = httpSubResourceModelProcessor
-                    .buildHttpMethodInfo(request, responder, groupNameValues);
+                    .buildHttpMethodInfo(request, responder, newDestination.getGroupNameValues(), returnVal);
 
-            PatternPathRouter.RoutableDestination<HttpResourceModel> newDestination =
-                    new PatternPathRouter.RoutableDestination<>(resourceModel, groupNameValues);
-            Object returnedValue = httpMethodInfo.method.invoke(httpMethodInfo.handler, httpMethodInfo.args);
+            Object returnedValue = httpMethodInfo.invokeMethod();
             return httpMethodInfo.invokeSubResource(request, newDestination, returnedValue);
         }
         return returnVal;
     }
 
     /**
-     * If chunk handling is supported provide chunks directly.
+     * If chunk handling is supported stream the request body to the handler, as fast as the handler requests chunks.
      *
-     * @param chunk chunk content
-     * @throws Exception if error occurs while invoking streaming handlers
+     * @param request request whose body is streamed
+     * @return future completed once the body has been streamed, or exceptionally if the streaming handler failed
      */
-    public void chunk(ByteBuffer chunk) throws Exception {
-        try {
-            httpStreamHandler.chunk(chunk);
-        } catch (Throwable e) {
-            log.error("Exception while invoking streaming handlers", e);
-            httpStreamHandler.error(e);
-            throw e;
-        }
-    }
-
-    /**
-     * If chunk handling is supported end streaming chunks.
-     *
-     * @throws Exception if error occurs while stopping streaming handlers
-     */
-    public void end() throws Exception {
-        try {
-            httpStreamHandler.end();
-        } catch (Throwable e) {
-            log.error("Exception while invoking streaming handlers", e);
-            httpStreamHandler.error(e);
-            throw e;
-        }
+    public CompletableFuture<Void> stream(Request request) {
+        return requestBodyPublisher.start(request);
     }
 
     /**
@@ -16,8 +16,11 @@
 
 package org.wso2.msf4j.internal.router;
 
+import org.wso2.msf4j.Dispatch;
+import org.wso2.msf4j.DispatchMode;
 import org.wso2.msf4j.HttpStreamer;
 import org.wso2.msf4j.formparam.FormDataParam;
+import org.wso2.msf4j.internal.DispatchExecutors;
 import org.wso2.msf4j.util.Utils;
 
 import java.lang.annotation.Annotation;
@@ -26,11 +29,11 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import javax.annotation.Nullable;
 import javax.ws.rs.Consumes;
@@ -48,6 +51,7 @@ import javax.ws.rs.PUT;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 
 /**
@@ -68,6 +72,7 @@ public final class HttpResourceModel {
         supportedAnnotation.add(FormParam.class);
         supportedAnnotation.add(FormDataParam.class);
         supportedAnnotation.add(CookieParam.class);
+        supportedAnnotation.add(Suspended.class);
 
         SUPPORTED_PARAM_ANNOTATIONS = Collections.unmodifiableSet(supportedAnnotation);
     }
@@ -77,15 +82,19 @@ public final class HttpResourceModel {
 
     private final Set<String> httpMethods;
     private final String path;
+    private final List<String> pathParts;
+    private final boolean isTemplatePath;
     private final Method method;
+    private final MethodInvoker invoker;
     private final Object handler;
     private final List<ParameterInfo<?>> paramInfoList;
-    private List<String> consumesMediaTypes;
-    private List<String> producesMediaTypes;
+    private final ParamBinder[] bindingPlan;
+    private final DispatchMode dispatchMode;
+    private MediaTypeMatcher consumesMediaTypes;
+    private MediaTypeMatcher producesMediaTypes;
     private int isStreamingReqSupported = STREAMING_REQ_UNKNOWN;
-    private Map<SubresourceKey, HttpResourceModel> subResources = new HashMap<>();
+    private final Map<Class<?>, SubResourceRouter> subResourceRouters = new ConcurrentHashMap<>();
     private boolean isSubResourceLocator;
-    private boolean isSubResourceScanned;
     private HttpResourceModel parent;
 
     /**
@@ -102,44 +111,20 @@ public final class HttpResourceModel {
      */
     public void setParent(HttpResourceModel parent) {
         this.parent = parent;
-        consumesMediaTypes = parseConsumesMediaTypes();
-        producesMediaTypes = parseProducesMediaTypes();
+        consumesMediaTypes = new MediaTypeMatcher(parseConsumesMediaTypes());
+        producesMediaTypes = new MediaTypeMatcher(parseProducesMediaTypes());
     }
 
     /**
-     * Get the sub resource locators of this model.
-     * @return Map of subresource locators of this.
-     */
-    public Map<SubresourceKey, HttpResourceModel> getSubResources() {
-        return subResources;
-    }
-
-    /**
-     * Set the sub resource locators of this model.
-     * @param subResources Map of sub resource locators.
-     */
-    public void setSubResources(Map<SubresourceKey, HttpResourceModel> subResources) {
-        this.subResources = subResources;
-    }
-
-    public void addSubResources(SubresourceKey subresourceKey, HttpResourceModel httpResourceModel) {
-        subResources.put(subresourceKey, httpResourceModel);
-    }
-
-    /**
-     * Set if this model is already scanned for sub resource locators.
-     * @param subResourceScanned boolean indicate whether this already scanned for sub resource locators.
-     */
-    public void setSubResourceScanned(boolean subResourceScanned) {
-        isSubResourceScanned = subResourceScanned;
-    }
-
-    /**
-     * Check if this model is already scanned for sub resource locators.
-     * @return boolean whether this model already scanned for sub resources.
+     * Get the router of the sub resource returned by this sub resource locator. Routers are built on the first request
+     * and cached per returned class.
+     *
+     * @param subResource object returned by this sub resource locator.
+     * @return router of the resource methods and sub resource locators of the returned object.
      */
-    public boolean isSubResourceScanned() {
-        return isSubResourceScanned;
+    SubResourceRouter getSubResourceRouter(Object subResource) {
+        return subResourceRouters.computeIfAbsent(subResource.getClass(),
+                                                  type -> new SubResourceRouter(this, subResource));
     }
 
     /**
@@ -153,15 +138,20 @@ public final class HttpResourceModel {
     public HttpResourceModel(String path, Method method, Object handler, boolean isSubResourceLocator) {
         this.httpMethods = getHttpMethods(method);
         this.path = path;
+        this.pathParts = Collections.unmodifiableList(Utils.split(path, "/", true));
+        this.isTemplatePath = path.contains("{") || path.contains("**");
         this.method = method;
+        this.invoker = new MethodInvoker(method);
         this.handler = handler;
         this.isSubResourceLocator = isSubResourceLocator;
         this.paramInfoList = makeParamInfoList(method);
-        consumesMediaTypes = parseConsumesMediaTypes();
-        producesMediaTypes = parseProducesMediaTypes();
+        this.bindingPlan = HttpResourceModelProcessor.createBindingPlan(paramInfoList);
+        this.dispatchMode = parseDispatchMode();
+        consumesMediaTypes = new MediaTypeMatcher(parseConsumesMediaTypes());
+        producesMediaTypes = new MediaTypeMatcher(parseProducesMediaTypes());
     }
 
-    private List<String> parseConsumesMediaTypes() {
+    private String[] parseConsumesMediaTypes() {
         String[] consumesMediaTypeArr =
                 method.isAnnotationPresent(Consumes.class) ? method.getAnnotation(Consumes.class).value() :
                 handler.getClass().isAnnotationPresent(Consumes.class) ?
@@ -177,10 +167,10 @@ public final class HttpResourceModel {
                                    handler.getClass().isAnnotationPresent(Consumes.class) ?
                                    handler.getClass().getAnnotation(Consumes.class).value() : ANY_MEDIA_TYPE;
         }
-        return Arrays.asList(consumesMediaTypeArr);
+        return consumesMediaTypeArr;
     }
 
-    private List<String> parseProducesMediaTypes() {
+    private String[] parseProducesMediaTypes() {
         String[] producesMediaTypeArr =
                 method.isAnnotationPresent(Produces.class) ? method.getAnnotation(Produces.class).value() :
                 handler.getClass().isAnnotationPresent(Produces.class) ?
@@ -196,24 +186,37 @@ public final class HttpResourceModel {
                                    handler.getClass().isAnnotationPresent(Produces.class) ?
                                    handler.getClass().getAnnotation(Produces.class).value() : ANY_MEDIA_TYPE;
         }
-        return Arrays.asList(producesMediaTypeArr);
+        return producesMediaTypeArr;
     }
 
+    /**
+     * Check whether this resource consumes request bodies of the given media type.
+     *
+     * @param consumesMediaType media type of the request body.
+     * @return true if the media type is compatible with one of the consumed media types.
+     */
     public boolean matchConsumeMediaType(String consumesMediaType) {
-        return consumesMediaType == null
-                || consumesMediaType.isEmpty()
-                || consumesMediaType.equals("*/*")
-                || this.consumesMediaTypes.contains("*/*")
-                || this.consumesMediaTypes.contains(consumesMediaType);
+        return consumesMediaTypes.matchesContentType(consumesMediaType);
+    }
+
+    /**
+     * Check whether this resource produces a media type the client accepts.
+     *
+     * @param acceptHeader value of the Accept header of the request.
+     * @return true if one of the produced media types is accepted.
+     */
+    public boolean matchProduceMediaType(String acceptHeader) {
+        return producesMediaTypes.isAcceptable(acceptHeader);
     }
 
-    public boolean matchProduceMediaType(List<String> producesMediaTypes) {
-        return producesMediaTypes == null
-                || producesMediaTypes.contains("*/*")
-                || this.producesMediaTypes.contains("*/*")
-                || this.producesMediaTypes
-                .stream().filter
-                        (producesMediaTypes::contains).findAny().isPresent();
+    /**
+     * Select the media type of the response among the media types this resource produces.
+     *
+     * @param acceptHeader value of the Accept header of the request.
+     * @return media type of the response or null if none of the produced media types is accepted.
+     */
+    public String getResponseMediaType(String acceptHeader) {
+        return producesMediaTypes.negotiate(acceptHeader);
     }
 
     /**
@@ -230,6 +233,20 @@ public final class HttpResourceModel {
         return path;
     }
 
+    /**
+     * @return non empty parts of the path associated with this model.
+     */
+    public List<String> getPathParts() {
+        return pathParts;
+    }
+
+    /**
+     * @return true if the path associated with this model has captures or wild cards.
+     */
+    public boolean isTemplatePath() {
+        return isTemplatePath;
+    }
+
     /**
      * @return handler method that handles an http end-point.
      */
@@ -237,6 +254,13 @@ public final class HttpResourceModel {
         return method;
     }
 
+    /**
+     * @return invoker of the handler method.
+     */
+    public MethodInvoker getInvoker() {
+        return invoker;
+    }
+
     /**
      * @return instance of {@code HttpHandler}.
      */
@@ -378,16 +402,42 @@ public final class HttpResourceModel {
         }
     }
 
+    /**
+     * Get the threads on which this resource method is run, selected by the {@link Dispatch} annotation of the
+     * method or of its class.
+     *
+     * @return dispatch mode of the method.
+     */
+    public DispatchMode getDispatchMode() {
+        return dispatchMode;
+    }
+
+    private DispatchMode parseDispatchMode() {
+        Dispatch dispatch = method.getAnnotation(Dispatch.class);
+        if (dispatch == null) {
+            Class<?> handlerClass = handler == null ? method.getDeclaringClass() : handler.getClass();
+            dispatch = handlerClass.getAnnotation(Dispatch.class);
+        }
+        return dispatch == null ? DispatchExecutors.DEFAULT_MODE : dispatch.value();
+    }
+
     public List<ParameterInfo<?>> getParamInfoList() {
         return paramInfoList;
     }
 
+    /**
+     * @return binders of the handler method parameters, in order.
+     */
+    ParamBinder[] getBindingPlan() {
+        return bindingPlan;
+    }
+
     public List<String> getConsumesMediaTypes() {
-        return consumesMediaTypes;
+        return consumesMediaTypes.getMediaTypes();
     }
 
     public List<String> getProducesMediaTypes() {
-        return producesMediaTypes;
+        return producesMediaTypes.getMediaTypes();
     }
 
     /**
@@ -30,7 +30,7 @@ import org.wso2.msf4j.formparam.FormParamIterator;
 import org.wso2.msf4j.formparam.exception.FormUploadException;
 import org.wso2.msf4j.formparam.util.StreamUtil;
 import org.wso2.msf4j.internal.beanconversion.BeanConverter;
-import org.wso2.msf4j.util.BufferUtil;
+import org.wso2.msf4j.util.ByteBufferSequence;
 import org.wso2.msf4j.util.QueryStringDecoderUtil;
 
 import java.io.File;
@@ -47,7 +47,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -58,7 +57,10 @@ import javax.ws.rs.FormParam;
 import javax.ws.rs.HeaderParam;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
@@ -72,7 +74,7 @@ public class HttpResourceModelProcessor {
     private final HttpResourceModel httpResourceModel;
     private HttpStreamer httpStreamer;
     private MultivaluedMap<String, Object> formParameters = null;
-    private Map<String, String> formParamContentType = new HashMap<>();
+    private Map<String, String> formParamContentType;
     private static Path tempRepoPath = Paths.get(System.getProperty("java.io.tmpdir"), "msf4jtemp");
     private Path tmpPathForRequest;
     // Temp File cleaning thread
@@ -92,59 +94,45 @@ public class HttpResourceModelProcessor {
      * @return HttpMethodInfo
      * @throws HandlerException If an error occurs
      */
-    @SuppressWarnings("unchecked")
     public HttpMethodInfo buildHttpMethodInfo(Request request,
                                               Response responder,
                                               Map<String, String> groupValues)
             throws HandlerException {
+        return buildHttpMethodInfo(request, responder, groupValues, httpResourceModel.getHttpHandler());
+    }
+
+    /**
+     * Build an HttpMethodInfo object to dispatch the request to the given handler instead of the handler of the
+     * model. Used for sub resources, whose models are shared by every object a locator returns.
+     *
+     * @param request     HttpRequest to be handled.
+     * @param responder   HttpResponder to write the response.
+     * @param groupValues Values needed for the invocation.
+     * @param handler     object to invoke the resource method on.
+     * @return HttpMethodInfo
+     * @throws HandlerException If an error occurs
+     */
+    @SuppressWarnings("unchecked")
+    HttpMethodInfo buildHttpMethodInfo(Request request,
+                                       Response responder,
+                                       Map<String, String> groupValues,
+                                       Object handler)
+            throws HandlerException {
         try {
-            //Setup args for reflection call
-            List<HttpResourceModel.ParameterInfo<?>> paramInfoList = httpResourceModel.getParamInfoList();
-            Object[] args = new Object[paramInfoList.size()];
-            int idx = 0;
-            for (HttpResourceModel.ParameterInfo<?> paramInfo : paramInfoList) {
-                if (paramInfo.getAnnotation() != null) {
-                    Class<? extends Annotation> annotationType = paramInfo.getAnnotation().annotationType();
-                    if (PathParam.class.isAssignableFrom(annotationType)) {
-                        args[idx] = getPathParamValue((HttpResourceModel.ParameterInfo<String>) paramInfo,
-                                groupValues);
-                    } else if (QueryParam.class.isAssignableFrom(annotationType)) {
-                        args[idx] = getQueryParamValue((HttpResourceModel.ParameterInfo<List<String>>) paramInfo,
-                                request.getUri());
-                    } else if (HeaderParam.class.isAssignableFrom(annotationType)) {
-                        args[idx] = getHeaderParamValue((HttpResourceModel.ParameterInfo<List<String>>) paramInfo,
-                                request);
-                    } else if (CookieParam.class.isAssignableFrom(annotationType)) {
-                        args[idx] = getCookieParamValue((HttpResourceModel.ParameterInfo<String>) paramInfo,
-                                request);
-                    } else if (Context.class.isAssignableFrom(annotationType)) {
-                        args[idx] = getContextParamValue((HttpResourceModel.ParameterInfo<Object>) paramInfo,
-                                request, responder);
-                    } else if (FormParam.class.isAssignableFrom(annotationType)) {
-                        args[idx] = getFormParamValue((HttpResourceModel.ParameterInfo<List<Object>>) paramInfo,
-                                request);
-                    } else if (FormDataParam.class.isAssignableFrom(annotationType)) {
-                        args[idx] = getFormDataParamValue((HttpResourceModel.ParameterInfo<List<Object>>) paramInfo,
-                                request);
-                    } else {
-                        createObject(request, args, idx, paramInfo);
-                    }
-                } else {
-                    // If an annotation is not present the parameter is considered a
-                    // request body data parameter
-                    createObject(request, args, idx, paramInfo);
-                }
-                idx++;
+            ParamBinder[] bindingPlan = httpResourceModel.getBindingPlan();
+            Object[] args = new Object[bindingPlan.length];
+            for (int i = 0; i < bindingPlan.length; i++) {
+                args[i] = bindingPlan[i].bind(this, request, responder, groupValues);
             }
 
             if (httpStreamer == null) {
-                return new HttpMethodInfo(httpResourceModel.getMethod(),
-                        httpResourceModel.getHttpHandler(),
+                return new HttpMethodInfo(httpResourceModel.getInvoker(),
+                        handler,
                         args, formParameters,
                         responder);
             } else {
-                return new HttpMethodInfo(httpResourceModel.getMethod(),
-                        httpResourceModel.getHttpHandler(),
+                return new HttpMethodInfo(httpResourceModel.getInvoker(),
+                        handler,
                         args, formParameters,
                         responder,
                         httpStreamer);
@@ -156,15 +144,68 @@ public class HttpResourceModelProcessor {
         }
     }
 
-    private void createObject(Request request, Object[] args, int idx, HttpResourceModel.ParameterInfo<?> paramInfo) {
-        ByteBuffer fullContent = BufferUtil.merge(request.getFullMessageBody());
+    /**
+     * Compile the binding plan of a resource method, a binder per parameter which resolves the argument from the
+     * request. The annotation of each parameter is inspected once here instead of on every request.
+     *
+     * @param paramInfoList parameters of the resource method.
+     * @return binders of the parameters, in order.
+     */
+    @SuppressWarnings("unchecked")
+    static ParamBinder[] createBindingPlan(List<HttpResourceModel.ParameterInfo<?>> paramInfoList) {
+        ParamBinder[] bindingPlan = new ParamBinder[paramInfoList.size()];
+        int idx = 0;
+        for (HttpResourceModel.ParameterInfo<?> paramInfo : paramInfoList) {
+            ParamBinder binder;
+            Class<? extends Annotation> annotationType =
+                    paramInfo.getAnnotation() == null ? null : paramInfo.getAnnotation().annotationType();
+            if (annotationType == null) {
+                // If an annotation is not present the parameter is considered a
+                // request body data parameter
+                binder = createBodyBinder(paramInfo);
+            } else if (PathParam.class.isAssignableFrom(annotationType)) {
+                binder = createPathParamBinder((HttpResourceModel.ParameterInfo<String>) paramInfo);
+            } else if (QueryParam.class.isAssignableFrom(annotationType)) {
+                binder = createQueryParamBinder((HttpResourceModel.ParameterInfo<List<String>>) paramInfo);
+            } else if (HeaderParam.class.isAssignableFrom(annotationType)) {
+                binder = createHeaderParamBinder((HttpResourceModel.ParameterInfo<List<String>>) paramInfo);
+            } else if (CookieParam.class.isAssignableFrom(annotationType)) {
+                binder = createCookieParamBinder((HttpResourceModel.ParameterInfo<String>) paramInfo);
+            } else if (Context.class.isAssignableFrom(annotationType)) {
+                binder = createContextParamBinder((HttpResourceModel.ParameterInfo<Object>) paramInfo);
+            } else if (Suspended.class.isAssignableFrom(annotationType)) {
+                if (paramInfo.getParameterType() != AsyncResponse.class) {
+                    throw new IllegalArgumentException("@Suspended parameters should be of type " +
+                                                       AsyncResponse.class.getName());
+                }
+                binder = (processor, request, responder, groupValues) -> new SuspendedResponse();
+            } else if (FormParam.class.isAssignableFrom(annotationType)) {
+                HttpResourceModel.ParameterInfo<List<Object>> info =
+                        (HttpResourceModel.ParameterInfo<List<Object>>) paramInfo;
+                binder = (processor, request, responder, groupValues) -> processor.getFormParamValue(info, request);
+            } else if (FormDataParam.class.isAssignableFrom(annotationType)) {
+                HttpResourceModel.ParameterInfo<List<Object>> info =
+                        (HttpResourceModel.ParameterInfo<List<Object>>) paramInfo;
+                binder = (processor, request, responder, groupValues) ->
+                        processor.getFormDataParamValue(info, request);
+            } else {
+                binder = createBodyBinder(paramInfo);
+            }
+            bindingPlan[idx++] = binder;
+        }
+        return bindingPlan;
+    }
+
+    private static ParamBinder createBodyBinder(HttpResourceModel.ParameterInfo<?> paramInfo) {
         Type paramType = paramInfo.getParameterType();
-        args[idx] =
-                BeanConverter.getConverter((request.getContentType() != null) ? request.getContentType() :
-                        MediaType.WILDCARD).convertToObject(fullContent, paramType);
+        return (processor, request, responder, groupValues) -> {
+            ByteBufferSequence fullContent = new ByteBufferSequence(request.getFullMessageBody());
+            return BeanConverter.getConverter((request.getContentType() != null) ? request.getContentType() :
+                    MediaType.WILDCARD).convertToObject(fullContent, paramType);
+        };
     }
 
-    private Object getFormDataParamValue(HttpResourceModel.ParameterInfo<List<Object>> paramInfo, Request request)
+    Object getFormDataParamValue(HttpResourceModel.ParameterInfo<List<Object>> paramInfo, Request request)
             throws FormUploadException, IOException {
         Type paramType = paramInfo.getParameterType();
         FormDataParam formDataParam = paramInfo.getAnnotation();
@@ -181,7 +222,7 @@ public class HttpResourceModelProcessor {
                 return parameter;
             } else if (isNotNull && parameter.get(0).getClass().isAssignableFrom(File.class)) {
                 return parameter.get(0);
-            } else if (MediaType.TEXT_PLAIN.equalsIgnoreCase(formParamContentType.get(formDataParam.value()))) {
+            } else if (MediaType.TEXT_PLAIN.equalsIgnoreCase(getFormParamContentType(formDataParam.value()))) {
                 return paramInfo.convert(parameter);
             } else if (MediaType.APPLICATION_FORM_URLENCODED.equals(request.getContentType())) {
                 return paramInfo.convert(parameter);
@@ -227,6 +268,9 @@ public class HttpResourceModelProcessor {
                 }
                 boolean isFile = item.getHeaders().getHeader("content-disposition").contains("filename") ||
                         MediaType.APPLICATION_OCTET_STREAM.equals(item.getHeaders().getHeader("content-type"));
+                if (formParamContentType == null) {
+                    formParamContentType = new HashMap<>();
+                }
                 formParamContentType.putIfAbsent(item.getFieldName(), cType);
 
                 List<Object> existingValues = parameters.get(item.getFieldName());
@@ -247,7 +291,7 @@ public class HttpResourceModelProcessor {
                 }
             }
         } else if (MediaType.APPLICATION_FORM_URLENCODED.equals(request.getContentType())) {
-            ByteBuffer fullContent = BufferUtil.merge(request.getFullMessageBody());
+            ByteBufferSequence fullContent = new ByteBufferSequence(request.getFullMessageBody());
             String bodyStr = BeanConverter
                     .getConverter((request.getContentType() != null) ? request.getContentType() : MediaType.WILDCARD)
                     .convertToObject(fullContent, paramInfo.getParameterType()).toString();
@@ -260,7 +304,7 @@ public class HttpResourceModelProcessor {
 
     private Object createBean(List<Object> parameter, FormDataParam formDataParam, Type paramType, boolean isNotNull) {
         if (isNotNull) {
-            MediaTypeConverter converter = BeanConverter.getConverter(formParamContentType.get(formDataParam.value()));
+            MediaTypeConverter converter = BeanConverter.getConverter(getFormParamContentType(formDataParam.value()));
             ByteBuffer value = ByteBuffer.wrap(parameter.get(0).toString().getBytes(Charset.defaultCharset()));
             return converter.convertToObject(value, paramType);
         }
@@ -282,7 +326,7 @@ public class HttpResourceModelProcessor {
         return file;
     }
 
-    private Object getFormParamValue(HttpResourceModel.ParameterInfo<List<Object>> paramInfo, Request request)
+    Object getFormParamValue(HttpResourceModel.ParameterInfo<List<Object>> paramInfo, Request request)
             throws FormUploadException, IOException {
         FormParam formParam = paramInfo.getAnnotation();
         if (getFormParameters() == null) {
@@ -300,7 +344,7 @@ public class HttpResourceModelProcessor {
                     }
                 }
             } else if (MediaType.APPLICATION_FORM_URLENCODED.equals(request.getContentType())) {
-                ByteBuffer fullContent = BufferUtil.merge(request.getFullMessageBody());
+                ByteBufferSequence fullContent = new ByteBufferSequence(request.getFullMessageBody());
                 String bodyStr = BeanConverter.getConverter(
                         (request.getContentType() != null) ? request.getContentType() : MediaType.WILDCARD)
                         .convertToObject(fullContent, paramInfo.getParameterType()).toString();
@@ -321,97 +365,110 @@ public class HttpResourceModelProcessor {
         return paramInfo.convert(paramValue);
     }
 
-    @SuppressWarnings("unchecked")
-    private Object getContextParamValue(HttpResourceModel.ParameterInfo<Object> paramInfo, Request request,
-                                        Response responder) throws FormUploadException, IOException {
+    private static ParamBinder createContextParamBinder(HttpResourceModel.ParameterInfo<Object> paramInfo) {
         Type paramType = paramInfo.getParameterType();
-        Object value = null;
-        if (((Class) paramType).isAssignableFrom(Request.class)) {
-            value = request;
-        } else if (((Class) paramType).isAssignableFrom(Response.class)) {
-            value = responder;
-        } else if (((Class) paramType).isAssignableFrom(HttpStreamer.class)) {
-            if (httpStreamer == null) {
-                httpStreamer = new HttpStreamer();
-            }
-            value = httpStreamer;
-        } else if (((Class) paramType).isAssignableFrom(FormParamIterator.class)) {
-            value = new FormParamIterator(request);
-        } else if (((Class) paramType).isAssignableFrom(MultivaluedMap.class)) {
-            MultivaluedMap<String, Object> listMultivaluedMap = new MultivaluedHashMap<>();
-            if (MediaType.MULTIPART_FORM_DATA.equals(request.getContentType())) {
-                listMultivaluedMap = extractRequestFormParams(request, paramInfo, false);
-            } else if (MediaType.APPLICATION_FORM_URLENCODED.equals(request.getContentType())) {
-                ByteBuffer fullContent = BufferUtil.merge(request.getFullMessageBody());
-                String bodyStr = BeanConverter.getConverter(
-                        (request.getContentType() != null) ? request.getContentType() : MediaType.WILDCARD)
-                        .convertToObject(fullContent, paramInfo.getParameterType()).toString();
-                QueryStringDecoderUtil queryStringDecoderUtil = new QueryStringDecoderUtil(bodyStr, false);
-                MultivaluedMap<String, Object> finalListMultivaluedMap = listMultivaluedMap;
-                queryStringDecoderUtil.parameters().entrySet().
-                        forEach(entry -> finalListMultivaluedMap.put(entry.getKey(), new ArrayList(entry.getValue())));
-            }
-            value = listMultivaluedMap;
+        Class<?> paramClass = paramType instanceof ParameterizedType ?
+                              (Class<?>) ((ParameterizedType) paramType).getRawType() : (Class<?>) paramType;
+        if (paramClass.isAssignableFrom(Request.class)) {
+            return (processor, request, responder, groupValues) -> request;
+        } else if (paramClass.isAssignableFrom(Response.class)) {
+            return (processor, request, responder, groupValues) -> responder;
+        } else if (paramClass.isAssignableFrom(HttpStreamer.class)) {
+            return (processor, request, responder, groupValues) -> processor.getHttpStreamer();
+        } else if (paramClass.isAssignableFrom(FormParamIterator.class)) {
+            return (processor, request, responder, groupValues) -> new FormParamIterator(request);
+        } else if (paramClass.isAssignableFrom(MultivaluedMap.class)) {
+            return (processor, request, responder, groupValues) -> processor.getFormItems(paramInfo, request);
+        }
+        String message = String.format("Could not resolve parameter %s", paramType.getTypeName());
+        return (processor, request, responder, groupValues) -> {
+            throw new NullPointerException(message);
+        };
+    }
+
+    private HttpStreamer getHttpStreamer() {
+        if (httpStreamer == null) {
+            httpStreamer = new HttpStreamer();
         }
-        Objects.requireNonNull(value, String.format("Could not resolve parameter %s", paramType.getTypeName()));
-        return value;
+        return httpStreamer;
     }
 
     @SuppressWarnings("unchecked")
-    private Object getPathParamValue(HttpResourceModel.ParameterInfo<String> info, Map<String, String> groupValues) {
+    private MultivaluedMap<String, Object> getFormItems(HttpResourceModel.ParameterInfo<Object> paramInfo,
+                                                       Request request) throws IOException {
+        MultivaluedMap<String, Object> listMultivaluedMap = new MultivaluedHashMap<>();
+        if (MediaType.MULTIPART_FORM_DATA.equals(request.getContentType())) {
+            listMultivaluedMap = extractRequestFormParams(request, paramInfo, false);
+        } else if (MediaType.APPLICATION_FORM_URLENCODED.equals(request.getContentType())) {
+            ByteBufferSequence fullContent = new ByteBufferSequence(request.getFullMessageBody());
+            String bodyStr = BeanConverter.getConverter(
+                    (request.getContentType() != null) ? request.getContentType() : MediaType.WILDCARD)
+                    .convertToObject(fullContent, paramInfo.getParameterType()).toString();
+            QueryStringDecoderUtil queryStringDecoderUtil = new QueryStringDecoderUtil(bodyStr, false);
+            MultivaluedMap<String, Object> finalListMultivaluedMap = listMultivaluedMap;
+            queryStringDecoderUtil.parameters().entrySet().
+                    forEach(entry -> finalListMultivaluedMap.put(entry.getKey(), new ArrayList(entry.getValue())));
+        }
+        return listMultivaluedMap;
+    }
+
+    private static ParamBinder createPathParamBinder(HttpResourceModel.ParameterInfo<String> info) {
         PathParam pathParam = info.getAnnotation();
-        String value = groupValues.get(pathParam.value());
-        if (value == null) {
-            String defaultVal = info.getDefaultVal();
-            if (defaultVal != null) {
+        String name = pathParam.value();
+        String defaultVal = info.getDefaultVal();
+        String message = String.format("Could not resolve value for parameter %s", name);
+        return (processor, request, responder, groupValues) -> {
+            String value = groupValues.get(name);
+            if (value == null) {
                 value = defaultVal;
             }
-        }
-        Objects.requireNonNull(value, String.format("Could not resolve value for parameter %s", pathParam.value()));
-        return info.convert(value);
+            Objects.requireNonNull(value, message);
+            return info.convert(value);
+        };
     }
 
-    @SuppressWarnings("unchecked")
-    private Object getQueryParamValue(HttpResourceModel.ParameterInfo<List<String>> info, String uri) {
+    private static ParamBinder createQueryParamBinder(HttpResourceModel.ParameterInfo<List<String>> info) {
         QueryParam queryParam = info.getAnnotation();
-        List<String> values = new QueryStringDecoderUtil(uri).parameters().get(queryParam.value());
-        if (values == null || values.isEmpty()) {
-            String defaultVal = info.getDefaultVal();
-            if (defaultVal != null) {
-                values = Collections.singletonList(defaultVal);
+        String name = queryParam.value();
+        List<String> defaultValues = info.getDefaultVal() != null ?
+                                     Collections.singletonList(info.getDefaultVal()) : null;
+        return (processor, request, responder, groupValues) -> {
+            List<String> values = request.getQueryParameters().get(name);
+            if ((values == null || values.isEmpty()) && defaultValues != null) {
+                values = defaultValues;
             }
-        }
-        return info.convert(values);
+            return info.convert(values);
+        };
     }
 
-    @SuppressWarnings("unchecked")
-    private Object getHeaderParamValue(HttpResourceModel.ParameterInfo<List<String>> info, Request request) {
+    private static ParamBinder createHeaderParamBinder(HttpResourceModel.ParameterInfo<List<String>> info) {
         HeaderParam headerParam = info.getAnnotation();
         String headerName = headerParam.value();
-        String header = request.getHeader(headerName);
-        if (header == null || header.isEmpty()) {
-            String defaultVal = info.getDefaultVal();
-            if (defaultVal != null) {
+        String defaultVal = info.getDefaultVal();
+        return (processor, request, responder, groupValues) -> {
+            String header = request.getHeader(headerName);
+            if ((header == null || header.isEmpty()) && defaultVal != null) {
                 header = defaultVal;
             }
-        }
-        return info.convert(Collections.singletonList(header));
+            return info.convert(Collections.singletonList(header));
+        };
     }
 
-    @SuppressWarnings("unchecked")
-    private Object getCookieParamValue(HttpResourceModel.ParameterInfo<String> info, Request request) {
+    private static ParamBinder createCookieParamBinder(HttpResourceModel.ParameterInfo<String> info) {
         CookieParam cookieParam = info.getAnnotation();
         String cookieName = cookieParam.value();
-        String cookieHeader = request.getHeader("Cookie");
-        if (cookieHeader != null) {
-            String cookieValue = Arrays.stream(cookieHeader.split(";"))
-                    .filter(cookie -> cookie.startsWith(cookieName + "="))
-                    .findFirst()
-                    .map(cookie -> cookie.substring((cookieName + "=").length()))
-                    .orElseGet(info::getDefaultVal);
-            return info.convert(cookieValue);
-        }
-        return null;
+        String defaultVal = info.getDefaultVal();
+        return (processor, request, responder, groupValues) -> {
+            if (request.getHeader(HttpHeaders.COOKIE) == null) {
+                return null;
+            }
+            String cookieValue = request.getCookies().get(cookieName);
+            return info.convert(cookieValue != null ? cookieValue : defaultVal);
+        };
+    }
+
+    private String getFormParamContentType(String name) {
+        return formParamContentType == null ? null : formParamContentType.get(name);
     }
 
     /**
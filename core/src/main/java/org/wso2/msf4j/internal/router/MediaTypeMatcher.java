@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.internal.router;
+
+import org.wso2.msf4j.util.HeaderParser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Matches requests against the media types a resource method consumes or produces. The declared media types are
+ * parsed once, when the resource model is built, into interned {@link MediaType} instances so matching a request
+ * only compares types and subtypes.
+ * <p>
+ * Content negotiation follows the quality values of the {@code Accept} header: each declared media type takes the
+ * quality of the most specific media range matching it, and the one accepted with the highest quality wins, then the
+ * one matched by the most specific range, then the one declared first. The result is cached per distinct {@code Accept} header.
+ */
+public final class MediaTypeMatcher {
+
+    private static final int MAX_INTERNED_MEDIA_TYPES = 4096;
+    private static final int MAX_CACHED_ACCEPT_HEADERS = 1024;
+    private static final int MAX_CACHED_NEGOTIATIONS = 256;
+    private static final Map<String, MediaType> INTERNED_MEDIA_TYPES = new ConcurrentHashMap<>();
+    private static final Map<String, AcceptRange[]> ACCEPT_HEADERS = new ConcurrentHashMap<>();
+    private static final AcceptRange[] NO_RANGES = new AcceptRange[0];
+    // Cached in place of a media type when nothing declared is acceptable
+    private static final String NOT_ACCEPTABLE = "";
+
+    private final List<String> mediaTypes;
+    private final MediaType[] parsedMediaTypes;
+    private final boolean matchesAny;
+    private final Map<String, String> negotiations = new ConcurrentHashMap<>();
+
+    /**
+     * Create a matcher for the given declared media types.
+     *
+     * @param mediaTypes media types as declared in {@code @Consumes} or {@code @Produces}.
+     */
+    public MediaTypeMatcher(String[] mediaTypes) {
+        this.mediaTypes = Collections.unmodifiableList(Arrays.asList(mediaTypes.clone()));
+        this.parsedMediaTypes = new MediaType[mediaTypes.length];
+        boolean any = false;
+        for (int i = 0; i < mediaTypes.length; i++) {
+            parsedMediaTypes[i] = intern(mediaTypes[i]);
+            any |= parsedMediaTypes[i].isWildcardType() && parsedMediaTypes[i].isWildcardSubtype();
+        }
+        this.matchesAny = any;
+    }
+
+    /**
+     * @return declared media types.
+     */
+    public List<String> getMediaTypes() {
+        return mediaTypes;
+    }
+
+    /**
+     * Check whether a request body of the given media type can be consumed.
+     *
+     * @param contentType media type of the request body, without parameters.
+     * @return true if the media type is compatible with one of the declared media types.
+     */
+    public boolean matchesContentType(String contentType) {
+        if (contentType == null || contentType.isEmpty() || matchesAny) {
+            return true;
+        }
+        MediaType mediaType = intern(contentType);
+        for (MediaType declared : parsedMediaTypes) {
+            if (declared.isCompatible(mediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether one of the declared media types is acceptable to a client.
+     *
+     * @param acceptHeader value of the Accept header of the request, may be null.
+     * @return true if one of the declared media types is accepted.
+     */
+    public boolean isAcceptable(String acceptHeader) {
+        return negotiate(acceptHeader) != null;
+    }
+
+    /**
+     * Select the declared media type to respond with.
+     *
+     * @param acceptHeader value of the Accept header of the request, may be null.
+     * @return media type of the response or null if none of the declared media types is accepted.
+     */
+    public String negotiate(String acceptHeader) {
+        if (acceptHeader == null) {
+            return negotiate(NO_RANGES);
+        }
+        String negotiated = negotiations.get(acceptHeader);
+        if (negotiated == null) {
+            negotiated = negotiate(parseAccept(acceptHeader));
+            if (negotiated == null) {
+                negotiated = NOT_ACCEPTABLE;
+            }
+            if (negotiations.size() >= MAX_CACHED_NEGOTIATIONS) {
+                negotiations.clear();
+            }
+            negotiations.put(acceptHeader, negotiated);
+        }
+        return negotiated.isEmpty() ? null : negotiated;
+    }
+
+    private String negotiate(AcceptRange[] acceptRanges) {
+        if (acceptRanges.length == 0) {
+            // No preference, a wild card keeps the default media type of the entity writers.
+            return matchesAny || mediaTypes.isEmpty() ? MediaType.WILDCARD : mediaTypes.get(0);
+        }
+        int selected = -1;
+        float selectedQuality = 0;
+        int selectedSpecificity = -1;
+        MediaType selectedRange = null;
+        for (int i = 0; i < parsedMediaTypes.length; i++) {
+            MediaType declared = parsedMediaTypes[i];
+            AcceptRange range = matchRange(declared, acceptRanges);
+            if (range != null && range.quality > 0 && (range.quality > selectedQuality ||
+                (range.quality == selectedQuality && range.specificity > selectedSpecificity))) {
+                selected = i;
+                selectedQuality = range.quality;
+                selectedSpecificity = range.specificity;
+                selectedRange = range.mediaType;
+            }
+        }
+        if (selected < 0) {
+            return null;
+        }
+        MediaType declared = parsedMediaTypes[selected];
+        if (declared.isWildcardType() && declared.isWildcardSubtype()) {
+            // A resource without a declared media type responds with the default media type of the entity writers.
+            return MediaType.WILDCARD;
+        }
+        if (declared.isWildcardSubtype() && !selectedRange.isWildcardSubtype()) {
+            return selectedRange.getType() + '/' + selectedRange.getSubtype();
+        }
+        return mediaTypes.get(selected);
+    }
+
+    /**
+     * Find the media range which gives the quality of a declared media type. A concrete media type takes the quality
+     * of the most specific range matching it, so {@code application/json;q=0} excludes it even if {@code *}{@code /*}
+     * is accepted. A declared wild card stands for any of the media types it covers, so it takes the best range with
+     * a non zero quality.
+     */
+    private static AcceptRange matchRange(MediaType declared, AcceptRange[] acceptRanges) {
+        if (declared.isWildcardType() || declared.isWildcardSubtype()) {
+            // Ranges are ordered by quality and specificity, so the first compatible range is the best one.
+            for (AcceptRange range : acceptRanges) {
+                if (range.quality <= 0) {
+                    return null;
+                }
+                if (range.mediaType.isCompatible(declared)) {
+                    return range;
+                }
+            }
+            return null;
+        }
+        AcceptRange matched = null;
+        for (AcceptRange range : acceptRanges) {
+            if (range.mediaType.isCompatible(declared) &&
+                (matched == null || range.specificity > matched.specificity)) {
+                matched = range;
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Get the interned instance of a media type. Parameters of the media type are ignored.
+     *
+     * @param mediaType media type string such as {@code application/json}.
+     * @return interned media type.
+     */
+    static MediaType intern(String mediaType) {
+        MediaType interned = INTERNED_MEDIA_TYPES.get(mediaType);
+        if (interned == null) {
+            interned = parseMediaType(mediaType);
+            if (INTERNED_MEDIA_TYPES.size() >= MAX_INTERNED_MEDIA_TYPES) {
+                INTERNED_MEDIA_TYPES.clear();
+            }
+            MediaType existing = INTERNED_MEDIA_TYPES.putIfAbsent(mediaType, interned);
+            if (existing != null) {
+                interned = existing;
+            }
+        }
+        return interned;
+    }
+
+    private static MediaType parseMediaType(String mediaType) {
+        String value = HeaderParser.parseMediaType(mediaType).toLowerCase(Locale.ENGLISH);
+        int slash = value.indexOf('/');
+        if (slash < 0) {
+            // A lone '*' is sent by some clients as a short hand for */*
+            return MediaType.MEDIA_TYPE_WILDCARD.equals(value) ? MediaType.WILDCARD_TYPE : new MediaType(value, null);
+        }
+        String type = value.substring(0, slash).trim();
+        String subtype = value.substring(slash + 1).trim();
+        if (MediaType.MEDIA_TYPE_WILDCARD.equals(type) && MediaType.MEDIA_TYPE_WILDCARD.equals(subtype)) {
+            return MediaType.WILDCARD_TYPE;
+        }
+        return new MediaType(type, subtype);
+    }
+
+    /**
+     * Parse an Accept header into media ranges ordered by descending quality and then by descending specificity.
+     * Otherwise equal ranges keep the order of the header. Parsed headers are shared across requests.
+     */
+    static AcceptRange[] parseAccept(String acceptHeader) {
+        AcceptRange[] ranges = ACCEPT_HEADERS.get(acceptHeader);
+        if (ranges == null) {
+            List<HeaderParser.AcceptType> acceptTypes = HeaderParser.parseAccept(acceptHeader);
+            List<AcceptRange> parsed = new ArrayList<>(acceptTypes.size());
+            for (HeaderParser.AcceptType acceptType : acceptTypes) {
+                parsed.add(new AcceptRange(intern(acceptType.getMediaType()), acceptType.getQuality()));
+            }
+            // List.sort is stable
+            parsed.sort((r1, r2) -> r1.quality != r2.quality ? Float.compare(r2.quality, r1.quality) :
+                                    Integer.compare(r2.specificity, r1.specificity));
+            ranges = parsed.toArray(new AcceptRange[parsed.size()]);
+            if (ACCEPT_HEADERS.size() >= MAX_CACHED_ACCEPT_HEADERS) {
+                ACCEPT_HEADERS.clear();
+            }
+            ACCEPT_HEADERS.putIfAbsent(acceptHeader, ranges);
+        }
+        return ranges;
+    }
+
+    /**
+     * A media range of an Accept header.
+     */
+    static final class AcceptRange {
+        private final MediaType mediaType;
+        private final float quality;
+        private final int specificity;
+
+        AcceptRange(MediaType mediaType, float quality) {
+            this.mediaType = mediaType;
+            this.quality = quality;
+            this.specificity = mediaType.isWildcardType() ? 0 : mediaType.isWildcardSubtype() ? 1 : 2;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.internal.router;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Invokes a resource method through a {@link MethodHandle} built once when the resource is registered, instead of
+ * going through {@link Method#invoke(Object, Object...)} on every request. The handle is adapted to take the target
+ * and the argument array, so it can be called with {@code invokeExact} without any per call lookups or access checks.
+ * <p>
+ * Exceptions thrown by the method are wrapped in an {@link InvocationTargetException} so callers handle them the
+ * same way as with reflection, while arguments which cannot be passed to the method, such as a null for a primitive
+ * parameter, are reported as an {@link IllegalArgumentException}. Methods which are not accessible through a public
+ * lookup, such as public methods of non public classes, fall back to reflection.
+ */
+public final class MethodInvoker {
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+    private static final MethodHandle WRAP_TARGET_EXCEPTION;
+
+    static {
+        try {
+            WRAP_TARGET_EXCEPTION = MethodHandles.lookup().findStatic(
+                    MethodInvoker.class, "wrapTargetException", MethodType.methodType(Object.class, Throwable.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Method method;
+    private final MethodHandle handle;
+
+    /**
+     * Create an invoker for the given method.
+     *
+     * @param method method to be invoked.
+     */
+    public MethodInvoker(Method method) {
+        this.method = method;
+        this.handle = createHandle(method);
+    }
+
+    private static MethodHandle createHandle(Method method) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+        if (Modifier.isStatic(method.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        // Mark what the method itself throws, so it can be told apart from failures to adapt the arguments
+        handle = MethodHandles.catchException(handle, Throwable.class, WRAP_TARGET_EXCEPTION.asType(
+                MethodType.methodType(handle.type().returnType(), Throwable.class)));
+        return handle.asSpreader(Object[].class, method.getParameterCount()).asType(INVOKER_TYPE);
+    }
+
+    /**
+     * @return the method invoked by this invoker.
+     */
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Invoke the method.
+     *
+     * @param target object to invoke the method on, ignored for static methods.
+     * @param args   method arguments.
+     * @return value returned by the method, or null for void methods.
+     * @throws InvocationTargetException if the method throws an exception.
+     * @throws IllegalAccessException    if the method is not accessible.
+     * @throws IllegalArgumentException  if the arguments cannot be passed to the method.
+     */
+    public Object invoke(Object target, Object[] args) throws InvocationTargetException, IllegalAccessException {
+        if (handle == null) {
+            return method.invoke(target, args);
+        }
+        try {
+            return (Object) handle.invokeExact(target, args);
+        } catch (TargetException e) {
+            throw new InvocationTargetException(e.getCause());
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalArgumentException("Cannot invoke " + method + " with the given arguments", t);
+        }
+    }
+
+    private static Object wrapTargetException(Throwable t) throws TargetException {
+        throw new TargetException(t);
+    }
+
+    /**
+     * Carries an exception thrown by the invoked method.
+     */
+    private static final class TargetException extends Exception {
+        private static final long serialVersionUID = 2794167470351230155L;
+
+        TargetException(Throwable cause) {
+            super(null, cause, false, false);
+        }
+    }
+}
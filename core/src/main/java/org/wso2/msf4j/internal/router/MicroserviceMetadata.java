@@ -18,13 +18,13 @@ package org.wso2.msf4j.internal.router;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.msf4j.util.SystemVariableUtil;
 import org.wso2.msf4j.util.Utils;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.net.URI;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -47,7 +47,13 @@ public final class MicroserviceMetadata {
 
     private static final Logger log = LoggerFactory.getLogger(MicroserviceMetadata.class);
 
+    private static final int DISPATCH_CACHE_SIZE =
+            Integer.parseInt(SystemVariableUtil.getValue("MSF4J_DISPATCH_CACHE_SIZE", "1024"));
+
     private final PatternPathRouter<HttpResourceModel> patternRouter = PatternPathRouter.create();
+    private final DispatchCache<PatternPathRouter.RoutableDestination<HttpResourceModel>> pathCache =
+            new DispatchCache<>(DISPATCH_CACHE_SIZE);
+    private final DispatchCache<HttpResourceModel> resourceCache = new DispatchCache<>(DISPATCH_CACHE_SIZE);
 
     /**
      * Construct HttpResourceHandler. Reads all annotations from all the handler classes and methods passed in,
@@ -119,7 +125,7 @@ public final class MicroserviceMetadata {
                           "HTTP calls will not be routed to this method", method.getName(), method.getParameterTypes());
             }
         }
-
+        invalidateCaches();
     }
 
     private boolean isHttpMethodAvailable(Method method) {
@@ -139,7 +145,7 @@ public final class MicroserviceMetadata {
      * @param uri               request uri
      * @param httpMethod        http method of the request
      * @param contentTypeHeader content type of the request
-     * @param acceptHeader      accept type of the request
+     * @param acceptHeader      Accept header of the request
      * @return matching resource method
      * @throws HandlerException if the method not found or content type mismatch
      */
@@ -147,20 +153,47 @@ public final class MicroserviceMetadata {
             .RoutableDestination<HttpResourceModel> getDestinationMethod(String uri,
                                                                          String httpMethod,
                                                                          String contentTypeHeader,
-                                                                         List<String> acceptHeader)
+                                                                         String acceptHeader)
             throws HandlerException {
+        DispatchCache.Key pathKey = new DispatchCache.Key(stripQuery(uri), httpMethod, contentTypeHeader,
+                                                          acceptHeader);
+        PatternPathRouter.RoutableDestination<HttpResourceModel> cachedDestination = pathCache.get(pathKey);
+        if (cachedDestination != null) {
+            return cachedDestination;
+        }
         try {
             String path = URI.create(uri).normalize().getPath();
 
             List<PatternPathRouter.RoutableDestination<HttpResourceModel>>
                     routableDestinations = patternRouter.getDestinations(path);
 
+            // Routes with path params can not be cached by path, but the negotiated resource depends only on the
+            // routed resources, so cache it by them instead.
+            DispatchCache.Key resourceKey = null;
+            if (!routableDestinations.isEmpty()) {
+                List<HttpResourceModel> resources = new ArrayList<>(routableDestinations.size());
+                for (PatternPathRouter.RoutableDestination<HttpResourceModel> destination : routableDestinations) {
+                    resources.add(destination.getDestination());
+                }
+                resourceKey = new DispatchCache.Key(resources, httpMethod, contentTypeHeader, acceptHeader);
+                HttpResourceModel cachedResource = resourceCache.get(resourceKey);
+                if (cachedResource != null) {
+                    for (PatternPathRouter.RoutableDestination<HttpResourceModel> destination
+                            : routableDestinations) {
+                        if (destination.getDestination() == cachedResource) {
+                            return destination;
+                        }
+                    }
+                }
+            }
+
             List<PatternPathRouter.RoutableDestination<HttpResourceModel>>
                     matchedDestinations = getMatchedDestination(routableDestinations, httpMethod, path);
 
+            PatternPathRouter.RoutableDestination<HttpResourceModel> matchedDestination;
             if (!matchedDestinations.isEmpty()) {
                 if (matchedDestinations.size() == 1) {
-                    return matchedDestinations.stream().filter(matchedDestination1 ->
+                    matchedDestination = matchedDestinations.stream().filter(matchedDestination1 ->
                                                                        matchedDestination1.getDestination()
                                                                                           .matchConsumeMediaType(
                                                                                                   contentTypeHeader) &&
@@ -169,7 +202,7 @@ public final class MicroserviceMetadata {
                                                                                                   acceptHeader))
                                               .findFirst().get();
                 } else {
-                    return matchedDestinations.stream().filter(matchedDestination1 ->
+                    matchedDestination = matchedDestinations.stream().filter(matchedDestination1 ->
                                                                        matchedDestination1.getDestination()
                                                                                           .matchConsumeMediaType(
                                                                                                   contentTypeHeader) &&
@@ -188,12 +221,52 @@ public final class MicroserviceMetadata {
                 throw new HandlerException(Response.Status.NOT_FOUND,
                         String.format("Problem accessing: %s. Reason: Not Found", uri));
             }
+            HttpResourceModel resource = matchedDestination.getDestination();
+            if (resource.isTemplatePath() || resource.isSubResourceLocator()) {
+                resourceCache.put(resourceKey, resource);
+            } else {
+                pathCache.put(pathKey, matchedDestination);
+            }
+            return matchedDestination;
         } catch (NoSuchElementException ex) {
             throw new HandlerException(Response.Status.UNSUPPORTED_MEDIA_TYPE,
                     String.format("Problem accessing: %s. Reason: Unsupported Media Type", uri), ex);
         }
     }
 
+    /**
+     * @return cache of the resources matched by request path.
+     */
+    public DispatchCache<PatternPathRouter.RoutableDestination<HttpResourceModel>> getPathCache() {
+        return pathCache;
+    }
+
+    /**
+     * @return cache of the resources negotiated among the resources a templated path was routed to.
+     */
+    public DispatchCache<HttpResourceModel> getResourceCache() {
+        return resourceCache;
+    }
+
+    /**
+     * Drop all the cached dispatch decisions.
+     */
+    public void invalidateCaches() {
+        pathCache.invalidate();
+        resourceCache.invalidate();
+    }
+
+    private static String stripQuery(String uri) {
+        int end = uri.length();
+        for (int i = 0; i < end; i++) {
+            char c = uri.charAt(i);
+            if (c == '?' || c == '#') {
+                return uri.substring(0, i);
+            }
+        }
+        return uri;
+    }
+
     /**
      * Get HttpResourceModel which matches the HttpMethod of the request.
      *
@@ -206,7 +279,7 @@ public final class MicroserviceMetadata {
     getMatchedDestination(List<PatternPathRouter.RoutableDestination<HttpResourceModel>> routableDestinations,
                           String targetHttpMethod, String requestUri) {
 
-        Iterable<String> requestUriParts = Collections.unmodifiableList(Utils.split(requestUri, "/", true));
+        Iterable<String> requestUriParts = Utils.split(requestUri, "/", true);
         List<PatternPathRouter.RoutableDestination<HttpResourceModel>> matchedDestinations =
                 new ArrayList<>(routableDestinations.size());
         int maxExactMatch = 0;
@@ -219,8 +292,7 @@ public final class MicroserviceMetadata {
 
             for (String httpMethod : resourceModel.getHttpMethod()) {
                 if (targetHttpMethod.equals(httpMethod)) {
-                    int exactMatch = getExactPrefixMatchCount(requestUriParts, Collections
-                            .unmodifiableList(Utils.split(resourceModel.getPath(), "/", true)));
+                    int exactMatch = getExactPrefixMatchCount(requestUriParts, resourceModel.getPathParts());
 
                     // When there are multiple matches present, the following precedence order is used -
                     // 1. template path that has highest exact prefix match with the url is chosen.
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.internal.router;
+
+import org.wso2.msf4j.Request;
+import org.wso2.msf4j.Response;
+
+import java.util.Map;
+
+/**
+ * Resolves the value of a resource method parameter from a request. Binders are created once per parameter when the
+ * resource is registered, see {@link HttpResourceModelProcessor#createBindingPlan(java.util.List)}.
+ */
+@FunctionalInterface
+interface ParamBinder {
+
+    /**
+     * Resolve the parameter value.
+     *
+     * @param processor   processor of the request, holds state shared by the parameters such as form params.
+     * @param request     request to be handled.
+     * @param responder   response of the request.
+     * @param groupValues path param values.
+     * @return value of the parameter.
+     * @throws Exception if the value cannot be resolved.
+     */
+    Object bind(HttpResourceModelProcessor processor, Request request, Response responder,
+                Map<String, String> groupValues) throws Exception;
+}
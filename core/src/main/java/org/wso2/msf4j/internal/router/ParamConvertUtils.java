@@ -22,8 +22,12 @@ import org.wso2.msf4j.util.Defaults;
 import org.wso2.msf4j.util.Primitives;
 
 import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -44,22 +48,26 @@ import java.util.function.Function;
  */
 public final class ParamConvertUtils {
 
-    private static final Map<Class<?>, Method> PRIMITIVES_PARSE_METHODS;
+    private static final Map<Class<?>, Function<String, Object>> PRIMITIVES_PARSERS;
 
-    // Setup methods for converting string into primitive/boxed types
+    // Setup functions for converting string into primitive/boxed types
     static {
-        Map<Class<?>, Method> methods = new HashMap<>();
-        for (Class<?> wrappedType : Primitives.allWrapperTypes()) {
-            try {
-                methods.put(wrappedType, wrappedType.getMethod("valueOf", String.class));
-            } catch (NoSuchMethodException e) {
-                // Void and Character has no valueOf. It's ok to ignore them
-            }
-        }
-
-        PRIMITIVES_PARSE_METHODS = methods;
+        Map<Class<?>, Function<String, Object>> parsers = new HashMap<>();
+        parsers.put(Boolean.class, Boolean::valueOf);
+        parsers.put(Byte.class, Byte::valueOf);
+        parsers.put(Short.class, Short::valueOf);
+        parsers.put(Integer.class, Integer::valueOf);
+        parsers.put(Long.class, Long::valueOf);
+        parsers.put(Float.class, Float::valueOf);
+        parsers.put(Double.class, Double::valueOf);
+        parsers.put(Character.class, value -> value.charAt(0));
+        // Void has no valueOf. It's ok to ignore it
+
+        PRIMITIVES_PARSERS = parsers;
     }
 
+    private static final MethodType CONVERTER_TYPE = MethodType.methodType(Object.class, String.class);
+
     private ParamConvertUtils() {
     }
 
@@ -229,21 +237,12 @@ public final class ParamConvertUtils {
             return null;
         }
 
+        final Function<String, Object> parser = PRIMITIVES_PARSERS.get(boxedType);
         return new BasicConverter(defaultValue) {
             @Override
             protected Object convert(String value) throws Exception {
-                Method method = PRIMITIVES_PARSE_METHODS.get(boxedType);
-                if (method != null) {
-                    // It's primitive/wrapper type (except char)
-                    return method.invoke(null, value);
-                }
-                // One exception is char type
-                if (boxedType == Character.class) {
-                    return value.charAt(0);
-                }
-
-                // Should not happen.
-                return null;
+                // Should not happen if there is no parser.
+                return parser == null ? null : parser.apply(value);
             }
         };
     }
@@ -258,10 +257,19 @@ public final class ParamConvertUtils {
     private static Function<List<String>, Object> createStringConstructorConverter(Class<?> resultClass) {
         try {
             final Constructor<?> constructor = resultClass.getConstructor(String.class);
+            MethodHandle handle;
+            try {
+                handle = MethodHandles.publicLookup().unreflectConstructor(constructor).asType(CONVERTER_TYPE);
+            } catch (IllegalAccessException e) {
+                // Public constructor of a non public class, use reflection
+                handle = null;
+            }
+            final MethodHandle constructorHandle = handle;
             return new BasicConverter(Defaults.defaultValue(resultClass)) {
                 @Override
                 protected Object convert(String value) throws Exception {
-                    return constructor.newInstance(value);
+                    return constructorHandle == null ? constructor.newInstance(value) :
+                           invoke(constructorHandle, value);
                 }
             };
         } catch (NoSuchMethodException e) {
@@ -290,14 +298,36 @@ public final class ParamConvertUtils {
         }
 
         final Method convertMethod = method;
+        MethodHandle handle = null;
+        if (Modifier.isStatic(convertMethod.getModifiers())) {
+            try {
+                handle = MethodHandles.publicLookup().unreflect(convertMethod).asType(CONVERTER_TYPE);
+            } catch (IllegalAccessException e) {
+                // Public method of a non public class, use reflection
+            }
+        }
+        final MethodHandle convertHandle = handle;
         return new BasicConverter(Defaults.defaultValue(resultClass)) {
             @Override
             protected Object convert(String value) throws Exception {
-                return convertMethod.invoke(null, value);
+                return convertHandle == null ? convertMethod.invoke(null, value) : invoke(convertHandle, value);
             }
         };
     }
 
+    /**
+     * Invoke a converter handle of type (String)Object, rethrowing what it throws.
+     */
+    private static Object invoke(MethodHandle handle, String value) throws Exception {
+        try {
+            return (Object) handle.invokeExact(value);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
     /**
      * Creates a converter function that converts value into a {@link List}, {@link Set} or {@link SortedSet}.
      *
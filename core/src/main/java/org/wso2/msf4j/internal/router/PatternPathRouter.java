@@ -19,8 +19,6 @@ package org.wso2.msf4j.internal.router;
 import org.wso2.msf4j.util.Utils;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
@@ -29,6 +27,8 @@ import java.util.regex.Pattern;
 /**
  * Matches incoming un-matched paths to destinations. Designed to be used for routing URI paths to http resources.
  * Parameters within braces "{}" are treated as template parameter (a named wild-card pattern).
+ * Templates are compiled into a {@link SegmentTrie}, so routing cost depends on the depth of the path and not on the
+ * number of templates added.
  *
  * @param <T> represents the destination of the routes.
  */
@@ -45,13 +45,13 @@ public final class PatternPathRouter<T> {
 
     private static final String PATH_SLASH = "/";
 
-    private final List<ImmutablePair<Pattern, RouteDestinationWithGroups>> patternRouteList;
+    private final SegmentTrie<T> trie;
 
     /**
      * Initialize PatternPathRouter.
      */
     public PatternPathRouter() {
-        this.patternRouteList = new ArrayList<>();
+        this.trie = new SegmentTrie<>();
     }
 
     public static <T> PatternPathRouter<T> create() {
@@ -74,7 +74,11 @@ public final class PatternPathRouter<T> {
 
 
         String[] parts = path.split(PATH_SLASH);
-        StringBuilder sb = new StringBuilder();
+        if (parts.length == 0) {
+            // Root path, matches the empty path only
+            parts = new String[] { "" };
+        }
+        List<SegmentTrie.Segment> segments = new ArrayList<>(parts.length);
         List<String> groupNames = new ArrayList<>();
 
         for (String part : parts) {
@@ -83,27 +87,18 @@ public final class PatternPathRouter<T> {
                 PathPart pathPart = createPathPart(groupMatcher.group(1));
                 groupNames.add(pathPart.getName());
                 if (pathPart.getPattern() != null) {
-                    sb.append('(');
-                    sb.append(pathPart.getPattern());
-                    sb.append(')');
+                    segments.add(SegmentTrie.Segment.constrainedCapture(pathPart.getPattern()));
                 } else {
-                    sb.append("([^/]+?)");
+                    segments.add(SegmentTrie.Segment.capture());
                 }
             } else if (WILD_CARD_PATTERN.matcher(part).matches()) {
-                sb.append(".*?");
+                segments.add(SegmentTrie.Segment.wildCard());
             } else {
-                sb.append(part);
+                segments.add(SegmentTrie.Segment.literal(part));
             }
-            sb.append(PATH_SLASH);
-        }
-
-        //Ignore the last "/"
-        if (sb.length() > 0) {
-            sb.setLength(sb.length() - 1);
         }
 
-        Pattern pattern = Pattern.compile(sb.toString());
-        patternRouteList.add(ImmutablePair.of(pattern, new RouteDestinationWithGroups(destination, groupNames)));
+        trie.add(segments, groupNames, destination);
     }
 
     private static PathPart createPathPart(String uriChunk) {
@@ -162,44 +157,9 @@ public final class PatternPathRouter<T> {
         String cleanPath = (path.endsWith(PATH_SLASH) && path.length() > 0)
                 ? path.substring(0, path.length() - 1) : path;
 
-        List<RoutableDestination<T>> result = new ArrayList<>();
-
-        for (ImmutablePair<Pattern, RouteDestinationWithGroups> patternRoute : patternRouteList) {
-            Map<String, String> groupNameValues = new HashMap<>();
-            Matcher matcher = patternRoute.getFirst().matcher(cleanPath);
-            if (matcher.matches()) {
-                int matchIndex = 1;
-                for (String name : patternRoute.getSecond().getGroupNames()) {
-                    String value = matcher.group(matchIndex);
-                    groupNameValues.put(name, value);
-                    matchIndex++;
-                }
-                result.add(new RoutableDestination<>(patternRoute.getSecond().getDestination(),
-                                                     Collections.unmodifiableMap(groupNameValues)));
-            }
-        }
-        //Check for sub-resource locator
-        if (result.isEmpty()) {
-            patternRouteList.stream()
-                            .filter(patternRoute -> patternRoute.getSecond().destination instanceof HttpResourceModel &&
-                                                    ((HttpResourceModel) patternRoute.getSecond().destination)
-                                                            .isSubResourceLocator()).forEach(patternRoute -> {
-                Map<String, String> groupNameValues = new HashMap<>();
-                Pattern pattern = Pattern.compile(patternRoute.getFirst().pattern() + ".*");
-                Matcher matcher = pattern.matcher(cleanPath);
-                if (matcher.matches()) {
-                    int matchIndex = 1;
-                    for (String name : patternRoute.getSecond().getGroupNames()) {
-                        String value = matcher.group(matchIndex);
-                        groupNameValues.put(name, value);
-                        matchIndex++;
-                    }
-                    result.add(new RoutableDestination<>(patternRoute.getSecond().getDestination(),
-                                                         Collections.unmodifiableMap(groupNameValues)));
-                }
-            });
-        }
-        return result;
+        // Sub-resource locators are also matched against the leading part of the path
+        return trie.match(cleanPath, destination -> destination instanceof HttpResourceModel &&
+                                                    ((HttpResourceModel) destination).isSubResourceLocator());
     }
 
     /**
@@ -242,26 +202,4 @@ public final class PatternPathRouter<T> {
             return Utils.toString(this, new String[] { "destination", "groupNameValues" });
         }
     }
-
-    /**
-     * Helper class to store the groupNames and Destination.
-     */
-    private final class RouteDestinationWithGroups {
-
-        private final T destination;
-        private final List<String> groupNames;
-
-        public RouteDestinationWithGroups(T destination, List<String> groupNames) {
-            this.destination = destination;
-            this.groupNames = groupNames;
-        }
-
-        public T getDestination() {
-            return destination;
-        }
-
-        public List<String> getGroupNames() {
-            return groupNames;
-        }
-    }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.internal.router;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.msf4j.HttpStreamHandler;
+import org.wso2.msf4j.HttpStreamSubscription;
+import org.wso2.msf4j.Request;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers the chunks of a request body to an {@link HttpStreamHandler} as the handler requests them. Chunks are
+ * only taken from the request while there is outstanding demand, so a slow handler leaves the rest of the body with
+ * the transport instead of having it buffered here. Delivery runs on whichever thread adds demand, and never on two
+ * threads at once.
+ */
+class RequestBodyPublisher implements HttpStreamSubscription {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestBodyPublisher.class);
+
+    private final HttpStreamHandler httpStreamHandler;
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private volatile Request request;
+
+    RequestBodyPublisher(HttpStreamHandler httpStreamHandler) {
+        this.httpStreamHandler = httpStreamHandler;
+    }
+
+    /**
+     * Start delivering the body of a request. Demand added before this call is kept until then.
+     *
+     * @param request request whose body is delivered
+     * @return future completed once the whole body has been delivered or the subscription has been cancelled
+     */
+    CompletableFuture<Void> start(Request request) {
+        this.request = request;
+        drain();
+        return completion;
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            fail(new IllegalArgumentException("Number of requested chunks must be positive: " + n));
+            return;
+        }
+        demand.accumulateAndGet(n, (current, added) -> {
+            long sum = current + added;
+            return sum < 0 ? Long.MAX_VALUE : sum;
+        });
+        drain();
+    }
+
+    @Override
+    public void cancel() {
+        completion.complete(null);
+    }
+
+    private void drain() {
+        if (request == null || wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            while (!completion.isDone() && demand.get() > 0) {
+                if (request.isEmpty() && request.isEomAdded()) {
+                    end();
+                    return;
+                }
+                ByteBuffer chunk = request.getMessageBody();
+                if (chunk == null) {
+                    // The transport gives up waiting for the next chunk only when the thread is interrupted
+                    fail(new IOException("Interrupted while reading the request body"));
+                    return;
+                }
+                if (demand.get() != Long.MAX_VALUE) {
+                    demand.decrementAndGet();
+                }
+                try {
+                    httpStreamHandler.chunk(chunk);
+                } catch (Throwable t) {
+                    log.error("Exception while invoking streaming handlers", t);
+                    fail(t);
+                    return;
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void end() {
+        try {
+            httpStreamHandler.end();
+            completion.complete(null);
+        } catch (Throwable t) {
+            log.error("Exception while invoking streaming handlers", t);
+            fail(t);
+        }
+    }
+
+    private void fail(Throwable cause) {
+        if (completion.completeExceptionally(cause)) {
+            httpStreamHandler.error(cause);
+        }
+    }
+}
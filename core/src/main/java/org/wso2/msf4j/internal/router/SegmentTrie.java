@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.internal.router;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Trie of path templates keyed by path segment. Each template is stored as a chain of nodes, one per segment,
+ * where a segment is either a literal, a single segment capture ({@code {name}}), a regex constrained capture
+ * ({@code {name: regex}}) or a wild card ({@code **}). Looking up a path walks the trie segment by segment so the
+ * cost of a lookup depends on the depth of the path rather than on the number of templates.
+ * <p>
+ * A template segment always matches one or more whole path segments; captures and wild cards never match part of
+ * a segment. Regex constrained captures and wild cards may span several path segments.
+ *
+ * @param <T> represents the destination of the routes.
+ */
+final class SegmentTrie<T> {
+
+    private static final char PATH_SLASH = '/';
+
+    private final Node<T> root = new Node<>();
+    private int routeCount;
+    private int maxGroupCount;
+
+    /**
+     * Add a template to the trie.
+     *
+     * @param segments    compiled segments of the template.
+     * @param groupNames  names of the captures of the template, in the order they appear.
+     * @param destination destination of the template.
+     */
+    void add(List<Segment> segments, List<String> groupNames, T destination) {
+        Node<T> node = root;
+        for (Segment segment : segments) {
+            node = node.child(segment);
+        }
+        if (node.routes == null) {
+            node.routes = new ArrayList<>(1);
+        }
+        node.routes.add(new Route<>(destination, groupNames.toArray(new String[groupNames.size()]), routeCount++));
+        maxGroupCount = Math.max(maxGroupCount, groupNames.size());
+    }
+
+    /**
+     * Get the destinations of all the templates that match the given path. If no template matches the whole path,
+     * the destinations which satisfy {@code prefixFilter} and whose template matches a leading part of the path
+     * are returned instead. Destinations are returned in the order they were added.
+     *
+     * @param path         path to be routed, without a trailing slash.
+     * @param prefixFilter selects destinations that may match a leading part of the path.
+     * @return matching destinations.
+     */
+    List<PatternPathRouter.RoutableDestination<T>> match(String path, Predicate<T> prefixFilter) {
+        String[] segments = split(path);
+        int[] offsets = new int[segments.length];
+        for (int i = 1; i < segments.length; i++) {
+            offsets[i] = offsets[i - 1] + segments[i - 1].length() + 1;
+        }
+        Lookup<T> lookup = new Lookup<>(path, segments, offsets, maxGroupCount, prefixFilter);
+        lookup.walk(root, 0, 0);
+        return lookup.result();
+    }
+
+    /**
+     * Split the path by slash retaining empty segments, so that "" gives [""] and "/a" gives ["", "a"].
+     */
+    private static String[] split(String path) {
+        int count = 1;
+        for (int i = 0; i < path.length(); i++) {
+            if (path.charAt(i) == PATH_SLASH) {
+                count++;
+            }
+        }
+        String[] segments = new String[count];
+        int start = 0;
+        int idx = 0;
+        for (int i = 0; i < path.length(); i++) {
+            if (path.charAt(i) == PATH_SLASH) {
+                segments[idx++] = path.substring(start, i);
+                start = i + 1;
+            }
+        }
+        segments[idx] = path.substring(start);
+        return segments;
+    }
+
+    /**
+     * Kinds of template segments.
+     */
+    enum SegmentType {
+        LITERAL, CAPTURE, CONSTRAINED_CAPTURE, WILD_CARD
+    }
+
+    /**
+     * A compiled segment of a path template.
+     */
+    static final class Segment {
+        private static final Segment CAPTURE = new Segment(SegmentType.CAPTURE, null, null);
+        private static final Segment WILD_CARD = new Segment(SegmentType.WILD_CARD, null, null);
+
+        private final SegmentType type;
+        private final String value;
+        private final Pattern pattern;
+
+        private Segment(SegmentType type, String value, Pattern pattern) {
+            this.type = type;
+            this.value = value;
+            this.pattern = pattern;
+        }
+
+        static Segment literal(String value) {
+            return new Segment(SegmentType.LITERAL, value, null);
+        }
+
+        static Segment capture() {
+            return CAPTURE;
+        }
+
+        static Segment constrainedCapture(String regex) {
+            return new Segment(SegmentType.CONSTRAINED_CAPTURE, regex, Pattern.compile(regex));
+        }
+
+        static Segment wildCard() {
+            return WILD_CARD;
+        }
+
+        SegmentType getType() {
+            return type;
+        }
+    }
+
+    /**
+     * A node of the trie. Children are created lazily since most nodes have only one kind of child.
+     */
+    private static final class Node<T> {
+        private Map<String, Node<T>> literals;
+        private Node<T> capture;
+        private Map<String, Node<T>> constrainedCaptures;
+        private Node<T> wildCard;
+        private Pattern pattern;
+        private List<Route<T>> routes;
+
+        Node<T> child(Segment segment) {
+            switch (segment.type) {
+                case LITERAL:
+                    if (literals == null) {
+                        literals = new HashMap<>();
+                    }
+                    return literals.computeIfAbsent(segment.value, key -> new Node<>());
+                case CAPTURE:
+                    if (capture == null) {
+                        capture = new Node<>();
+                    }
+                    return capture;
+                case CONSTRAINED_CAPTURE:
+                    if (constrainedCaptures == null) {
+                        constrainedCaptures = new LinkedHashMap<>();
+                    }
+                    return constrainedCaptures.computeIfAbsent(segment.value, key -> {
+                        Node<T> node = new Node<>();
+                        node.pattern = segment.pattern;
+                        return node;
+                    });
+                default:
+                    if (wildCard == null) {
+                        wildCard = new Node<>();
+                    }
+                    return wildCard;
+            }
+        }
+    }
+
+    /**
+     * A template stored at the node of its last segment.
+     */
+    private static final class Route<T> {
+        private final T destination;
+        private final String[] groupNames;
+        private final int order;
+
+        Route(T destination, String[] groupNames, int order) {
+            this.destination = destination;
+            this.groupNames = groupNames;
+            this.order = order;
+        }
+    }
+
+    /**
+     * A route matched by a lookup along with the values of its captures.
+     */
+    private static final class Match<T> {
+        private final Route<T> route;
+        private final Map<String, String> groupNameValues;
+
+        Match(Route<T> route, Map<String, String> groupNameValues) {
+            this.route = route;
+            this.groupNameValues = groupNameValues;
+        }
+    }
+
+    /**
+     * State of a single lookup. Captured values are kept on a stack that is unwound while backtracking.
+     */
+    private static final class Lookup<T> {
+        private final String path;
+        private final String[] segments;
+        private final int[] offsets;
+        private final String[] groupValues;
+        private final Predicate<T> prefixFilter;
+        private final List<Match<T>> matches = new ArrayList<>();
+        private List<Match<T>> prefixMatches;
+
+        Lookup(String path, String[] segments, int[] offsets, int maxGroupCount, Predicate<T> prefixFilter) {
+            this.path = path;
+            this.segments = segments;
+            this.offsets = offsets;
+            this.groupValues = new String[maxGroupCount];
+            this.prefixFilter = prefixFilter;
+        }
+
+        void walk(Node<T> node, int idx, int groupCount) {
+            if (node.routes != null) {
+                if (idx == segments.length) {
+                    for (Route<T> route : node.routes) {
+                        collect(route, groupCount, matches);
+                    }
+                } else if (matches.isEmpty()) {
+                    for (Route<T> route : node.routes) {
+                        if (prefixFilter.test(route.destination)) {
+                            if (prefixMatches == null) {
+                                prefixMatches = new ArrayList<>();
+                            }
+                            collect(route, groupCount, prefixMatches);
+                        }
+                    }
+                }
+            }
+            if (idx == segments.length) {
+                return;
+            }
+            String segment = segments[idx];
+            if (node.literals != null) {
+                Node<T> child = node.literals.get(segment);
+                if (child != null) {
+                    walk(child, idx + 1, groupCount);
+                }
+            }
+            if (node.capture != null && !segment.isEmpty()) {
+                groupValues[groupCount] = segment;
+                walk(node.capture, idx + 1, groupCount + 1);
+            }
+            if (node.constrainedCaptures != null) {
+                int start = offsets[idx];
+                for (Node<T> child : node.constrainedCaptures.values()) {
+                    Matcher matcher = child.pattern.matcher(path);
+                    for (int last = idx; last < segments.length; last++) {
+                        int end = offsets[last] + segments[last].length();
+                        if (matcher.region(start, end).matches()) {
+                            groupValues[groupCount] = path.substring(start, end);
+                            walk(child, last + 1, groupCount + 1);
+                        }
+                    }
+                }
+            }
+            if (node.wildCard != null) {
+                for (int next = idx + 1; next <= segments.length; next++) {
+                    walk(node.wildCard, next, groupCount);
+                }
+            }
+        }
+
+        private void collect(Route<T> route, int groupCount, List<Match<T>> target) {
+            // A template with wild cards may match the same path in more than one way, first match wins.
+            for (Match<T> match : target) {
+                if (match.route == route) {
+                    return;
+                }
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < groupCount; i++) {
+                values.put(route.groupNames[i], groupValues[i]);
+            }
+            target.add(new Match<>(route, Collections.unmodifiableMap(values)));
+        }
+
+        List<PatternPathRouter.RoutableDestination<T>> result() {
+            List<Match<T>> found = !matches.isEmpty() || prefixMatches == null ? matches : prefixMatches;
+            // Keep the order in which the templates were added, the precedence checks depend on it.
+            found.sort((m1, m2) -> Integer.compare(m1.route.order, m2.route.order));
+            List<PatternPathRouter.RoutableDestination<T>> result = new ArrayList<>(found.size());
+            for (Match<T> match : found) {
+                result.add(new PatternPathRouter.RoutableDestination<>(match.route.destination,
+                                                                       match.groupNameValues));
+            }
+            return result;
+        }
+    }
+}
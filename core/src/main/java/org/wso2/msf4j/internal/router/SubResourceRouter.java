@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.internal.router;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import javax.ws.rs.Path;
+
+/**
+ * Routes requests to the resource methods and sub resource locators of the object returned by a sub resource
+ * locator. The methods of the returned class are scanned once and their absolute path templates are compiled into
+ * {@link PatternPathRouter}s, so dispatching to a sub resource costs the same as dispatching to a regular resource.
+ * A router is built per locator and returned class, see {@link HttpResourceModel#getSubResourceRouter(Object)}.
+ */
+final class SubResourceRouter {
+
+    private final PatternPathRouter<HttpResourceModel> resources = PatternPathRouter.create();
+    private final PatternPathRouter<HttpResourceModel> locators = PatternPathRouter.create();
+
+    /**
+     * Scan the sub resource class returned by a locator.
+     *
+     * @param locator      sub resource locator model.
+     * @param subResource  instance returned by the locator, used to resolve class level annotations.
+     */
+    SubResourceRouter(HttpResourceModel locator, Object subResource) {
+        for (Method method : subResource.getClass().getMethods()) {
+            if (!Modifier.isPublic(method.getModifiers())) {
+                continue;
+            }
+            boolean isResourceMethod = Util.isHttpMethodAvailable(method);
+            Path path = method.getAnnotation(Path.class);
+            if (!isResourceMethod && path == null) {
+                continue;
+            }
+            String relativePath = path == null ? "" : path.value();
+            if (relativePath.startsWith("/")) {
+                relativePath = relativePath.substring(1);
+            }
+            String absolutePath = relativePath.isEmpty() ? locator.getPath() :
+                                  String.format("%s/%s", locator.getPath(), relativePath);
+            HttpResourceModel resourceModel =
+                    new HttpResourceModel(absolutePath, method, subResource, !isResourceMethod);
+            resourceModel.setParent(locator);
+            if (isResourceMethod) {
+                resources.add(absolutePath, resourceModel);
+            } else {
+                locators.add(absolutePath, resourceModel);
+            }
+        }
+    }
+
+    /**
+     * Get the resource method or the next sub resource locator to handle a request.
+     *
+     * @param path        request path.
+     * @param httpMethod  http method of the request.
+     * @param contentType content type of the request.
+     * @param acceptHeader Accept header of the request.
+     * @return matching destination or null if there is none.
+     */
+    PatternPathRouter.RoutableDestination<HttpResourceModel> getDestination(String path, String httpMethod,
+                                                                           String contentType,
+                                                                           String acceptHeader) {
+        PatternPathRouter.RoutableDestination<HttpResourceModel> destination =
+                select(resources.getDestinations(path), httpMethod, contentType, acceptHeader);
+        if (destination == null) {
+            // Another sub-resource call
+            destination = select(locators.getDestinations(path), null, contentType, acceptHeader);
+        }
+        return destination;
+    }
+
+    /**
+     * Select the most specific destination, the one with the least path params. Methods declared in the sub resource
+     * class itself take precedence over inherited ones.
+     */
+    private static PatternPathRouter.RoutableDestination<HttpResourceModel>
+    select(List<PatternPathRouter.RoutableDestination<HttpResourceModel>> destinations, String httpMethod,
+           String contentType, String acceptHeader) {
+        PatternPathRouter.RoutableDestination<HttpResourceModel> selected = null;
+        for (PatternPathRouter.RoutableDestination<HttpResourceModel> destination : destinations) {
+            HttpResourceModel resourceModel = destination.getDestination();
+            if ((httpMethod != null && !resourceModel.getHttpMethod().contains(httpMethod)) ||
+                !resourceModel.matchConsumeMediaType(contentType) ||
+                !resourceModel.matchProduceMediaType(acceptHeader)) {
+                continue;
+            }
+            if (selected == null || isPreferred(destination, selected)) {
+                selected = destination;
+            }
+        }
+        return selected;
+    }
+
+    private static boolean isPreferred(PatternPathRouter.RoutableDestination<HttpResourceModel> destination,
+                                       PatternPathRouter.RoutableDestination<HttpResourceModel> selected) {
+        int groups = destination.getGroupNameValues().size();
+        int selectedGroups = selected.getGroupNameValues().size();
+        if (groups != selectedGroups) {
+            return groups < selectedGroups;
+        }
+        return isDeclared(destination.getDestination()) && !isDeclared(selected.getDestination());
+    }
+
+    private static boolean isDeclared(HttpResourceModel resourceModel) {
+        return resourceModel.getHttpHandler().getClass() == resourceModel.getMethod().getDeclaringClass();
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wso2.msf4j.internal.router;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.msf4j.util.SystemVariableUtil;
+
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.CompletionCallback;
+import javax.ws.rs.container.TimeoutHandler;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+/**
+ * Response of an asynchronous resource method, which either takes a {@code @Suspended AsyncResponse} parameter or
+ * returns a {@link CompletionStage}. The response is resumed at most once, with an entity, an exception, a
+ * cancellation or a timeout, and the outcome is published through {@link #getResult()}.
+ * <p>
+ * A response which is neither resumed nor cancelled in time is resumed with 503 Service Unavailable, unless a
+ * timeout handler is set. The default timeout is set by MSF4J_ASYNC_TIMEOUT in milliseconds, zero meaning no
+ * timeout, and can be changed per response through {@link #setTimeout(long, TimeUnit)}.
+ * <p>
+ * Completion callbacks are supported. Connection callbacks are not, since the transport does not report
+ * disconnections.
+ */
+final class SuspendedResponse implements AsyncResponse {
+
+    private static final Logger log = LoggerFactory.getLogger(SuspendedResponse.class);
+
+    static final long DEFAULT_TIMEOUT =
+            Long.parseLong(SystemVariableUtil.getValue("MSF4J_ASYNC_TIMEOUT", "0"));
+
+    private static final ScheduledThreadPoolExecutor TIMER = createTimer();
+
+    private final CompletableFuture<Object> result = new CompletableFuture<>();
+    private final List<CompletionCallback> completionCallbacks = new ArrayList<>(1);
+    private volatile boolean cancelled;
+    private volatile TimeoutHandler timeoutHandler;
+    private ScheduledFuture<?> timeout;
+
+    SuspendedResponse() {
+        setTimeout(DEFAULT_TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Create a response which is resumed when a stage completes.
+     *
+     * @param stage stage returned by a resource method.
+     * @return suspended response.
+     */
+    static SuspendedResponse of(CompletionStage<?> stage) {
+        SuspendedResponse response = new SuspendedResponse();
+        stage.whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                response.resume(value);
+            } else {
+                response.resume(unwrap(throwable));
+            }
+        });
+        return response;
+    }
+
+    /**
+     * @return future completed with the entity of the response, or exceptionally with the exception it was resumed
+     * with.
+     */
+    CompletableFuture<Object> getResult() {
+        return result;
+    }
+
+    /**
+     * Notify the completion callbacks once the response has been sent or has failed.
+     *
+     * @param throwable exception the response failed with, or null.
+     */
+    void onComplete(Throwable throwable) {
+        List<CompletionCallback> callbacks;
+        synchronized (this) {
+            callbacks = new ArrayList<>(completionCallbacks);
+        }
+        for (CompletionCallback callback : callbacks) {
+            try {
+                callback.onComplete(throwable == null ? null : unwrap(throwable));
+            } catch (Throwable t) {
+                log.error("Exception while executing a completion callback", t);
+            }
+        }
+    }
+
+    @Override
+    public boolean resume(Object response) {
+        return complete(response, null);
+    }
+
+    @Override
+    public boolean resume(Throwable response) {
+        return complete(null, response);
+    }
+
+    @Override
+    public boolean cancel() {
+        return cancel((String) null);
+    }
+
+    @Override
+    public boolean cancel(int retryAfter) {
+        return cancel(String.valueOf(retryAfter));
+    }
+
+    @Override
+    public boolean cancel(Date retryAfter) {
+        return cancel(DateTimeFormatter.RFC_1123_DATE_TIME.format(retryAfter.toInstant().atOffset(ZoneOffset.UTC)));
+    }
+
+    private boolean cancel(String retryAfter) {
+        if (cancelled) {
+            return true;
+        }
+        Response.ResponseBuilder builder = Response.status(Response.Status.SERVICE_UNAVAILABLE);
+        if (retryAfter != null) {
+            builder.header(HttpHeaders.RETRY_AFTER, retryAfter);
+        }
+        if (complete(builder.build(), null)) {
+            cancelled = true;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isSuspended() {
+        return !result.isDone();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    @Override
+    public synchronized boolean setTimeout(long time, TimeUnit unit) {
+        if (result.isDone()) {
+            return false;
+        }
+        if (timeout != null) {
+            timeout.cancel(false);
+            timeout = null;
+        }
+        if (time > 0) {
+            timeout = TIMER.schedule(this::onTimeout, time, unit);
+        }
+        return true;
+    }
+
+    @Override
+    public void setTimeoutHandler(TimeoutHandler handler) {
+        this.timeoutHandler = handler;
+    }
+
+    @Override
+    public Collection<Class<?>> register(Class<?> callback) {
+        try {
+            return register(callback.newInstance());
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Could not instantiate callback " + callback.getName(), e);
+        }
+    }
+
+    @Override
+    public Map<Class<?>, Collection<Class<?>>> register(Class<?> callback, Class<?>... callbacks) {
+        Map<Class<?>, Collection<Class<?>>> registered = new HashMap<>();
+        registered.put(callback, register(callback));
+        for (Class<?> other : callbacks) {
+            registered.put(other, register(other));
+        }
+        return registered;
+    }
+
+    @Override
+    public synchronized Collection<Class<?>> register(Object callback) {
+        if (callback instanceof CompletionCallback) {
+            completionCallbacks.add((CompletionCallback) callback);
+            return Collections.singletonList(CompletionCallback.class);
+        }
+        return Collections.emptyList();
+    }
+
+    @Override
+    public Map<Class<?>, Collection<Class<?>>> register(Object callback, Object... callbacks) {
+        Map<Class<?>, Collection<Class<?>>> registered = new HashMap<>();
+        registered.put(callback.getClass(), register(callback));
+        for (Object other : callbacks) {
+            registered.put(other.getClass(), register(other));
+        }
+        return registered;
+    }
+
+    private boolean complete(Object entity, Throwable throwable) {
+        boolean completed = throwable == null ? result.complete(entity) : result.completeExceptionally(throwable);
+        if (completed) {
+            synchronized (this) {
+                if (timeout != null) {
+                    timeout.cancel(false);
+                    timeout = null;
+                }
+            }
+        }
+        return completed;
+    }
+
+    private void onTimeout() {
+        synchronized (this) {
+            timeout = null;
+        }
+        TimeoutHandler handler = timeoutHandler;
+        if (handler != null) {
+            try {
+                handler.handleTimeout(this);
+            } catch (Throwable t) {
+                resume(t);
+                return;
+            }
+            synchronized (this) {
+                // The handler either resumed the response or extended its timeout
+                if (result.isDone() || timeout != null) {
+                    return;
+                }
+            }
+        }
+        resume(Response.status(Response.Status.SERVICE_UNAVAILABLE).build());
+    }
+
+    /**
+     * Get the exception a stage failed with, which dependent stages wrap in a CompletionException.
+     */
+    static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ?
+               throwable.getCause() : throwable;
+    }
+
+    private static ScheduledThreadPoolExecutor createTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "msf4j-async-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+}
@@ -16,25 +16,18 @@ package org.wso2.msf4j.internal.router;
  */
 
 import java.lang.reflect.Method;
-import java.util.List;
-import java.util.regex.Pattern;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
 import javax.ws.rs.HEAD;
 import javax.ws.rs.OPTIONS;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
-import javax.ws.rs.core.MediaType;
 
 /**
  * Util class.
  */
 public class Util {
 
-    public static final String GROUP_PATTERN = "\\{(.*?)\\}";
-    public static final String GROUP_PATTERN_REGEX = "([^/]+?)";
-    public static final Pattern WILD_CARD_PATTERN = Pattern.compile("\\*\\*");
-
     /**
      * Check if http verb is available for the method.
      *
@@ -49,34 +42,4 @@ public class Util {
                method.isAnnotationPresent(HEAD.class) ||
                method.isAnnotationPresent(OPTIONS.class);
     }
-
-    /**
-     * Remove the curly braces if the token is wrapped with curly braces.
-     *
-     * @param token
-     * @return
-     */
-    public static String stripBraces(String token) {
-        return token.charAt(0) == '{' && token.charAt(token.length() - 1) == '}' ?
-               token.substring(1, token.length() - 1) : token;
-    }
-
-    /**
-     * Process accept type considering the produce type and the
-     * accept types of the request header.
-     *
-     * @param acceptTypes accept types of the request.
-     * @return processed accept type
-     */
-    public static String getResponseType(List<String> acceptTypes, List<String> producesMediaTypes) {
-        String responseType = MediaType.WILDCARD;
-        if (!producesMediaTypes.contains(MediaType.WILDCARD) && acceptTypes != null) {
-            responseType =
-                    (acceptTypes.contains(MediaType.WILDCARD)) ? producesMediaTypes.get(0) :
-                    producesMediaTypes.stream().filter(acceptTypes::contains).findFirst().get();
-        } else if (acceptTypes == null && !producesMediaTypes.isEmpty()) {
-            responseType = producesMediaTypes.get(0);
-        }
-        return responseType;
-    }
 }
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.internal.session;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded map of sessions by ID. Entries are spread over stripes, each of which is a small LRU map guarded by its
+ * own lock, so concurrent requests rarely contend. Once a stripe is full, adding a session evicts the least recently
+ * accessed session of that stripe and hands it to the eviction listener. The size is kept in a counter rather than
+ * summed over the stripes, so it is cheap to read but only approximate while sessions are being added or removed.
+ *
+ * @param <V> type of the session.
+ */
+public final class BoundedSessionMap<V> {
+
+    private static final int MAX_STRIPES = 16;
+    private static final int MIN_STRIPE_CAPACITY = 64;
+
+    private final Stripe<V>[] stripes;
+    private final int capacity;
+    private final Consumer<V> evictionListener;
+    private final LongAdder size = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Create a map holding at most {@code capacity} sessions.
+     *
+     * @param capacity         maximum number of sessions
+     * @param evictionListener called with each evicted session, outside of any lock
+     */
+    @SuppressWarnings("unchecked")
+    public BoundedSessionMap(int capacity, Consumer<V> evictionListener) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Session capacity must be positive: " + capacity);
+        }
+        // Small maps get fewer stripes so that eviction stays close to the global LRU order
+        int stripeCount = Math.max(1, Math.min(MAX_STRIPES, Integer.highestOneBit(capacity / MIN_STRIPE_CAPACITY)));
+        this.capacity = capacity;
+        this.evictionListener = evictionListener;
+        stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            // Spread the remainder so the stripe capacities add up to the capacity
+            stripes[i] = new Stripe<>(capacity / stripeCount + (i < capacity % stripeCount ? 1 : 0));
+        }
+    }
+
+    /**
+     * Get a session, marking it as the most recently accessed one.
+     *
+     * @param sessionId session ID
+     * @return the session, or null if there is no such session
+     */
+    public V get(String sessionId) {
+        Stripe<V> stripe = stripeOf(sessionId);
+        synchronized (stripe) {
+            return stripe.get(sessionId);
+        }
+    }
+
+    /**
+     * Check whether there is a session with the given ID, without marking it as accessed.
+     *
+     * @param sessionId session ID
+     * @return true if the map holds the session
+     */
+    public boolean contains(String sessionId) {
+        Stripe<V> stripe = stripeOf(sessionId);
+        synchronized (stripe) {
+            return stripe.containsKey(sessionId);
+        }
+    }
+
+    /**
+     * Add a session, evicting the least recently accessed session of its stripe if the stripe is full.
+     *
+     * @param sessionId session ID
+     * @param session   session
+     * @return session previously mapped to the ID, or null
+     */
+    public V put(String sessionId, V session) {
+        Stripe<V> stripe = stripeOf(sessionId);
+        V previous;
+        V evicted;
+        synchronized (stripe) {
+            previous = stripe.put(sessionId, session);
+            evicted = stripe.evicted;
+            stripe.evicted = null;
+        }
+        if (previous == null) {
+            size.increment();
+        }
+        if (evicted != null) {
+            size.decrement();
+            evictions.increment();
+            evictionListener.accept(evicted);
+        }
+        return previous;
+    }
+
+    /**
+     * Remove a session.
+     *
+     * @param sessionId session ID
+     * @return the removed session, or null if there was no such session
+     */
+    public V remove(String sessionId) {
+        Stripe<V> stripe = stripeOf(sessionId);
+        V removed;
+        synchronized (stripe) {
+            removed = stripe.remove(sessionId);
+        }
+        if (removed != null) {
+            size.decrement();
+        }
+        return removed;
+    }
+
+    /**
+     * @return approximate number of sessions in the map.
+     */
+    public long size() {
+        return size.sum();
+    }
+
+    /**
+     * @return maximum number of sessions in the map.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return number of sessions evicted to make room for new ones.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private Stripe<V> stripeOf(String sessionId) {
+        int hash = sessionId.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    /**
+     * An access ordered map which drops its eldest entry when it grows beyond the capacity, keeping the dropped
+     * session until the caller picks it up.
+     */
+    private static final class Stripe<V> extends LinkedHashMap<String, V> {
+        private static final long serialVersionUID = 6913276489712395412L;
+
+        private final int capacity;
+        private transient V evicted;
+
+        Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+            if (size() > capacity) {
+                evicted = eldest.getValue();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,501 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.internal.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, log-structured store of serialized sessions.
+ * <p>
+ * Every change is appended to the active segment file as a checksummed record, and an in-memory index maps each
+ * session ID to its latest record and the expiry time stored with it. Once the active segment reaches the maximum segment size a new one is started.
+ * When more than half of the bytes on disk belong to overwritten or deleted records, a background thread compacts
+ * the log one segment at a time, oldest first, by copying the live records of the segment to the head of the log
+ * and deleting the segment file. Since the oldest segment cannot hold a record older than one of its own deletion
+ * records, those are simply dropped.
+ * <p>
+ * Opening a log replays its segments sequentially to rebuild the index, keeping the latest value of each session so
+ * the sessions can be recovered without reading the segments again. A record which was only partly written, as
+ * happens when the process dies during a write, ends the replay of its segment and is truncated away.
+ */
+public class SessionLog implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(SessionLog.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    /**
+     * Record header: length of the record body followed by its CRC-32. The body holds the record type, the length
+     * and bytes of the session ID, the expiry time of the session for a put, and the serialized session.
+     */
+    private static final int HEADER_SIZE = 8;
+
+    private final Path directory;
+    private final long maxSegmentSize;
+    private final boolean fsync;
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final ExecutorService compactor;
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    // Latest value of each session found by the replay, until it is taken
+    private Map<String, byte[]> recovered = new HashMap<>();
+    private Segment activeSegment;
+    private long totalBytes;
+    private long deadBytes;
+    private boolean closed;
+
+    /**
+     * Open a session log, creating the directory if needed and recovering the records already in it.
+     *
+     * @param directory      directory holding the segment files
+     * @param maxSegmentSize size in bytes after which a new segment is started
+     * @param fsync          whether every write is forced to the storage device
+     * @throws IOException if the log cannot be opened
+     */
+    public SessionLog(Path directory, long maxSegmentSize, boolean fsync) throws IOException {
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+        this.fsync = fsync;
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                                                                    SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long id = Long.parseLong(
+                        name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                segments.put(id, new Segment(id, file));
+            }
+        }
+        for (Segment segment : segments.values()) {
+            replay(segment);
+        }
+        activeSegment = segments.isEmpty() ? newSegment(0) : segments.lastEntry().getValue();
+        compactor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "msf4j-session-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactIfNeeded();
+    }
+
+    /**
+     * Take the sessions found in the log when it was opened, as read by the replay. Only the first call returns
+     * them, so they are not kept in memory afterwards.
+     *
+     * @return serialized sessions by session ID
+     */
+    public synchronized Map<String, byte[]> takeRecoveredSessions() {
+        Map<String, byte[]> sessions = recovered;
+        recovered = Collections.emptyMap();
+        return sessions;
+    }
+
+    /**
+     * @return IDs of all the sessions in the log.
+     */
+    public Set<String> getSessionIds() {
+        return index.keySet();
+    }
+
+    /**
+     * Read the latest record of a session.
+     *
+     * @param sessionId session ID
+     * @return serialized session, or null if the log has no such session
+     * @throws IOException if the record cannot be read
+     */
+    public byte[] read(String sessionId) throws IOException {
+        while (true) {
+            Location location = index.get(sessionId);
+            if (location == null) {
+                return null;
+            }
+            try {
+                return readRecord(location.segment, location.offset, location.length).value;
+            } catch (ClosedChannelException e) {
+                // The segment has been compacted away in the meantime, so the record has moved
+                if (index.get(sessionId) == location) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the sessions whose expiry time has passed, from the index alone.
+     *
+     * @param now current time in milliseconds
+     * @return IDs of the expired sessions
+     */
+    public List<String> getExpiredSessionIds(long now) {
+        List<String> sessionIds = new ArrayList<>();
+        for (Map.Entry<String, Location> entry : index.entrySet()) {
+            if (entry.getValue().expiryTime <= now) {
+                sessionIds.add(entry.getKey());
+            }
+        }
+        return sessionIds;
+    }
+
+    /**
+     * Append a new version of a session which does not expire.
+     *
+     * @param sessionId session ID
+     * @param session   serialized session
+     * @throws IOException if the record cannot be written
+     */
+    public void write(String sessionId, byte[] session) throws IOException {
+        write(sessionId, session, Long.MAX_VALUE);
+    }
+
+    /**
+     * Append a new version of a session.
+     *
+     * @param sessionId  session ID
+     * @param session    serialized session
+     * @param expiryTime time in milliseconds at which the session expires unless it is written again
+     * @throws IOException if the record cannot be written
+     */
+    public void write(String sessionId, byte[] session, long expiryTime) throws IOException {
+        append(PUT, sessionId, session, expiryTime);
+        compactIfNeeded();
+    }
+
+    /**
+     * Append the deletion of a session.
+     *
+     * @param sessionId session ID
+     * @throws IOException if the record cannot be written
+     */
+    public void delete(String sessionId) throws IOException {
+        if (index.containsKey(sessionId)) {
+            append(DELETE, sessionId, new byte[0], 0);
+            compactIfNeeded();
+        }
+    }
+
+    /**
+     * @return total size in bytes of the segment files.
+     */
+    public synchronized long getSize() {
+        return totalBytes;
+    }
+
+    /**
+     * @return number of segment files.
+     */
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Wait for any running compaction and close the segment files.
+     */
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            closed = true;
+            for (Segment segment : segments.values()) {
+                segment.channel.close();
+            }
+        }
+    }
+
+    private synchronized void append(byte type, String sessionId, byte[] value, long expiryTime)
+            throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Session log has been closed");
+        }
+        ByteBuffer record = encode(type, sessionId, value, expiryTime);
+        int length = record.remaining();
+        if (activeSegment.size > 0 && activeSegment.size + length > maxSegmentSize) {
+            if (fsync) {
+                activeSegment.channel.force(false);
+            }
+            activeSegment = newSegment(activeSegment.id + 1);
+        }
+        long offset = activeSegment.size;
+        while (record.hasRemaining()) {
+            activeSegment.channel.write(record, offset + record.position());
+        }
+        if (fsync) {
+            activeSegment.channel.force(false);
+        }
+        activeSegment.size += length;
+        apply(type, sessionId, new Location(activeSegment, offset, length, expiryTime));
+    }
+
+    /**
+     * Update the index and the dead byte count with a record at the head of the log.
+     */
+    private void apply(byte type, String sessionId, Location location) {
+        totalBytes += location.length;
+        Location previous = type == PUT ? index.put(sessionId, location) : index.remove(sessionId);
+        if (previous != null) {
+            deadBytes += previous.length;
+        }
+        if (type == DELETE) {
+            deadBytes += location.length;
+        }
+    }
+
+    private Segment newSegment(long id) throws IOException {
+        Segment segment = new Segment(id, directory.resolve(SEGMENT_PREFIX + id + SEGMENT_SUFFIX));
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private void replay(Segment segment) throws IOException {
+        long offset = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(Files.newByteChannel(segment.path)), 64 * 1024))) {
+            while (offset < segment.size) {
+                Record record;
+                try {
+                    int bodyLength = in.readInt();
+                    int checksum = in.readInt();
+                    if (bodyLength < 3 || bodyLength > segment.size - offset - HEADER_SIZE) {
+                        break;
+                    }
+                    byte[] body = new byte[bodyLength];
+                    in.readFully(body);
+                    if (checksum(body) != checksum) {
+                        break;
+                    }
+                    record = decode(ByteBuffer.wrap(body));
+                } catch (EOFException e) {
+                    break;
+                }
+                int length = HEADER_SIZE + record.bodyLength;
+                apply(record.type, record.sessionId, new Location(segment, offset, length, record.expiryTime));
+                if (record.type == PUT) {
+                    recovered.put(record.sessionId, record.value);
+                } else {
+                    recovered.remove(record.sessionId);
+                }
+                offset += length;
+            }
+        }
+        if (offset < segment.size) {
+            log.warn("Truncating incomplete record at offset " + offset + " of session log segment " +
+                     segment.path);
+            segment.channel.truncate(offset);
+            segment.size = offset;
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (needsCompaction() && compacting.compareAndSet(false, true)) {
+            compactor.execute(this::compact);
+        }
+    }
+
+    private synchronized boolean needsCompaction() {
+        return !closed && segments.size() > 1 && deadBytes * 2 > totalBytes;
+    }
+
+    private void compact() {
+        try {
+            while (needsCompaction()) {
+                Segment oldest;
+                synchronized (this) {
+                    oldest = segments.firstEntry().getValue();
+                }
+                compact(oldest);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Error while compacting the session log", e);
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    /**
+     * Copy the live records of a sealed segment to the head of the log and delete the segment.
+     */
+    private void compact(Segment segment) throws IOException {
+        long offset = 0;
+        while (offset < segment.size) {
+            Record record = readRecord(segment, offset, -1);
+            int length = HEADER_SIZE + record.bodyLength;
+            if (record.type == PUT) {
+                synchronized (this) {
+                    Location location = index.get(record.sessionId);
+                    if (location != null && location.segment == segment && location.offset == offset) {
+                        append(PUT, record.sessionId, record.value, record.expiryTime);
+                    }
+                }
+            }
+            offset += length;
+        }
+        synchronized (this) {
+            // Every record of the segment is dead by now
+            segments.remove(segment.id);
+            totalBytes -= segment.size;
+            deadBytes -= segment.size;
+            segment.channel.close();
+        }
+        Files.deleteIfExists(segment.path);
+    }
+
+    private static Record readRecord(Segment segment, long offset, int length) throws IOException {
+        if (length < 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(segment.channel, header, offset);
+            length = HEADER_SIZE + header.getInt(0);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        readFully(segment.channel, buffer, offset);
+        buffer.position(HEADER_SIZE);
+        return decode(buffer);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of session log segment");
+            }
+        }
+        buffer.flip();
+    }
+
+    private static ByteBuffer encode(byte type, String sessionId, byte[] value, long expiryTime) {
+        byte[] id = sessionId.getBytes(StandardCharsets.UTF_8);
+        int bodyLength = 1 + 2 + id.length + (type == PUT ? 8 : 0) + value.length;
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + bodyLength);
+        record.putInt(bodyLength).putInt(0).put(type).putShort((short) id.length).put(id);
+        if (type == PUT) {
+            record.putLong(expiryTime);
+        }
+        record.put(value);
+        record.putInt(4, checksum(record.array(), HEADER_SIZE, bodyLength));
+        record.flip();
+        return record;
+    }
+
+    private static Record decode(ByteBuffer body) {
+        int bodyLength = body.remaining();
+        byte type = body.get();
+        byte[] id = new byte[body.getShort() & 0xFFFF];
+        body.get(id);
+        long expiryTime = type == PUT ? body.getLong() : 0;
+        byte[] value = new byte[body.remaining()];
+        body.get(value);
+        return new Record(type, new String(id, StandardCharsets.UTF_8), value, expiryTime, bodyLength);
+    }
+
+    private static int checksum(byte[] bytes) {
+        return checksum(bytes, 0, bytes.length);
+    }
+
+    private static int checksum(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * A segment file of the log.
+     */
+    private static final class Segment {
+        private final long id;
+        private final Path path;
+        private final FileChannel channel;
+        private long size;
+
+        Segment(long id, Path path) throws IOException {
+            this.id = id;
+            this.path = path;
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                       StandardOpenOption.WRITE);
+            size = channel.size();
+        }
+    }
+
+    /**
+     * Position of a record in the log.
+     */
+    private static final class Location {
+        private final Segment segment;
+        private final long offset;
+        private final int length;
+        private final long expiryTime;
+
+        Location(Segment segment, long offset, int length, long expiryTime) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.expiryTime = expiryTime;
+        }
+    }
+
+    /**
+     * A decoded record.
+     */
+    private static final class Record {
+        private final byte type;
+        private final String sessionId;
+        private final byte[] value;
+        private final long expiryTime;
+        private final int bodyLength;
+
+        Record(byte type, String sessionId, byte[] value, long expiryTime, int bodyLength) {
+            this.type = type;
+            this.sessionId = sessionId;
+            this.value = value;
+            this.expiryTime = expiryTime;
+            this.bodyLength = bodyLength;
+        }
+    }
+}
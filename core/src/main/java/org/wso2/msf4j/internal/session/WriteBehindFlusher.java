@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.internal.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs a flush task on a background thread once pending changes have settled. A flush happens when there have
+ * been no new changes for the flush delay, or at the latest once the oldest pending change is as old as the maximum
+ * lag, so a steady stream of changes cannot postpone it indefinitely. Changes made while a flush is running are
+ * left for the next one.
+ */
+public class WriteBehindFlusher {
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindFlusher.class);
+
+    private final Runnable flushTask;
+    private final long flushDelay;
+    private final long maxLag;
+    private final Thread thread;
+    private final Object lock = new Object();
+    private long firstChangeTime;
+    private long lastChangeTime;
+    private boolean running = true;
+
+    /**
+     * @param name       name of the flushing thread
+     * @param flushTask  task which writes all the pending changes
+     * @param flushDelay time in milliseconds without new changes after which pending changes are flushed
+     * @param maxLag     maximum time in milliseconds a change stays pending
+     */
+    public WriteBehindFlusher(String name, Runnable flushTask, long flushDelay, long maxLag) {
+        if (flushDelay <= 0 || maxLag < flushDelay) {
+            throw new IllegalArgumentException("Flush delay must be positive and not exceed the maximum lag");
+        }
+        this.flushTask = flushTask;
+        this.flushDelay = flushDelay;
+        this.maxLag = maxLag;
+        thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Record that there are pending changes to be flushed. This never blocks on the flush itself.
+     */
+    public void changed() {
+        synchronized (lock) {
+            long now = System.currentTimeMillis();
+            if (firstChangeTime == 0) {
+                firstChangeTime = now;
+                lock.notifyAll();
+            }
+            lastChangeTime = now;
+        }
+    }
+
+    /**
+     * Stop the flushing thread and flush the pending changes on the calling thread.
+     */
+    public void stop() {
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushTask.run();
+    }
+
+    private void run() {
+        while (awaitFlush()) {
+            try {
+                flushTask.run();
+            } catch (Throwable t) {
+                log.error("Error while flushing pending changes", t);
+            }
+        }
+    }
+
+    private boolean awaitFlush() {
+        synchronized (lock) {
+            try {
+                while (running) {
+                    if (firstChangeTime == 0) {
+                        lock.wait();
+                        continue;
+                    }
+                    long delay = Math.min(lastChangeTime + flushDelay, firstChangeTime + maxLag) -
+                                 System.currentTimeMillis();
+                    if (delay <= 0) {
+                        firstChangeTime = 0;
+                        return true;
+                    }
+                    lock.wait(delay);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.io;
+
+import java.io.File;
+import java.nio.file.Path;
+
+/**
+ * A region of a file to be sent as a response entity. The region is sent without copying it through the heap:
+ * large regions are memory mapped and handed to the transport as they are. Returning a {@link File} or a
+ * {@link Path} from a resource method sends the whole file the same way.
+ */
+public final class FileRegion {
+
+    /**
+     * Count of a region which extends to the end of the file.
+     */
+    public static final long TO_END_OF_FILE = -1;
+
+    private final Path path;
+    private final long position;
+    private final long count;
+
+    /**
+     * Create a region covering the whole file.
+     *
+     * @param path path of the file
+     */
+    public FileRegion(Path path) {
+        this(path, 0, TO_END_OF_FILE);
+    }
+
+    /**
+     * Create a region covering the whole file.
+     *
+     * @param file the file
+     */
+    public FileRegion(File file) {
+        this(file.toPath());
+    }
+
+    /**
+     * Create a region of a file.
+     *
+     * @param path     path of the file
+     * @param position offset of the first byte of the region
+     * @param count    number of bytes in the region or {@link #TO_END_OF_FILE}
+     */
+    public FileRegion(Path path, long position, long count) {
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null");
+        }
+        if (position < 0 || count < TO_END_OF_FILE) {
+            throw new IllegalArgumentException("Invalid file region, position: " + position + ", count: " + count);
+        }
+        this.path = path;
+        this.position = position;
+        this.count = count;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * @return number of bytes in the region or {@link #TO_END_OF_FILE}
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get the number of bytes of the region that are within a file of the given size.
+     *
+     * @param fileSize size of the file
+     * @return number of bytes to be sent
+     */
+    public long getCount(long fileSize) {
+        long available = Math.max(0, fileSize - position);
+        return count == TO_END_OF_FILE ? available : Math.min(count, available);
+    }
+}
@@ -19,32 +19,187 @@ import org.wso2.msf4j.Request;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 
 /**
- * Wrapper {@link InputStream} for {@link Request}.
+ * Wrapper {@link InputStream} for {@link Request}. Reads are served straight from the body chunks of the request;
+ * a bulk read copies at most the chunks which have already arrived and only blocks when none is available.
  */
 public class MSF4JRequestInputStream extends InputStream {
+    private static final ByteBuffer EMPTY_BUFFER = ByteBuffer.allocate(0);
+    private static final int TRANSFER_BUFFER_SIZE = 8192;
+
     private Request request;
     private ByteBuffer buffer;
 
     public MSF4JRequestInputStream(Request request) {
         this.request = request;
-        buffer = request.getMessageBody();
+        buffer = EMPTY_BUFFER;
     }
 
     @Override
     public int read() throws IOException {
-        if (request.isEomAdded() && request.isEmpty() && !buffer.hasRemaining()) {
+        if (!nextBuffer()) {
             return -1;
-        } else if (!buffer.hasRemaining()) {
-            buffer = request.getMessageBody();
         }
         return buffer.get() & 0xFF;
     }
 
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (!nextBuffer()) {
+            return -1;
+        }
+        int read = 0;
+        do {
+            int count = Math.min(len - read, buffer.remaining());
+            buffer.get(b, off + read, count);
+            read += count;
+            // Carry on with the following chunks only while they are available without blocking
+        } while (read < len && (buffer.hasRemaining() || !request.isEmpty()) && nextBuffer());
+        return read;
+    }
+
+    /**
+     * Read exactly {@code len} bytes, blocking as needed, unless the end of the body is reached first.
+     *
+     * @param b   buffer into which the data is read
+     * @param off start offset in {@code b}
+     * @param len maximum number of bytes to read
+     * @return number of bytes read
+     * @throws IOException if an I/O error occurs
+     */
+    public int readNBytes(byte[] b, int off, int len) throws IOException {
+        int read = 0;
+        while (read < len) {
+            int count = read(b, off + read, len - read);
+            if (count < 0) {
+                break;
+            }
+            read += count;
+        }
+        return read;
+    }
+
+    /**
+     * Read the rest of the body.
+     *
+     * @return remaining bytes of the body
+     * @throws IOException if an I/O error occurs
+     */
+    public byte[] readAllBytes() throws IOException {
+        byte[] bytes = new byte[Math.max(available(), 32)];
+        int size = 0;
+        ByteBuffer chunk;
+        while ((chunk = readBuffer()) != null) {
+            if (size + chunk.remaining() > bytes.length) {
+                byte[] grown = new byte[Math.max(bytes.length * 2, size + chunk.remaining())];
+                System.arraycopy(bytes, 0, grown, 0, size);
+                bytes = grown;
+            }
+            int count = chunk.remaining();
+            chunk.get(bytes, size, count);
+            size += count;
+        }
+        if (size == bytes.length) {
+            return bytes;
+        }
+        byte[] result = new byte[size];
+        System.arraycopy(bytes, 0, result, 0, size);
+        return result;
+    }
+
+    /**
+     * Write the rest of the body to an output stream, chunk by chunk.
+     *
+     * @param out stream to write to
+     * @return number of bytes transferred
+     * @throws IOException if an I/O error occurs
+     */
+    public long transferTo(OutputStream out) throws IOException {
+        long transferred = 0;
+        byte[] transferBuffer = null;
+        ByteBuffer chunk;
+        while ((chunk = readBuffer()) != null) {
+            int count = chunk.remaining();
+            if (chunk.hasArray()) {
+                out.write(chunk.array(), chunk.arrayOffset() + chunk.position(), count);
+            } else {
+                if (transferBuffer == null) {
+                    transferBuffer = new byte[TRANSFER_BUFFER_SIZE];
+                }
+                while (chunk.hasRemaining()) {
+                    int length = Math.min(chunk.remaining(), transferBuffer.length);
+                    chunk.get(transferBuffer, 0, length);
+                    out.write(transferBuffer, 0, length);
+                }
+            }
+            transferred += count;
+        }
+        return transferred;
+    }
+
+    /**
+     * Hand over the unread part of the current body chunk, or of the next one if the current chunk has been read.
+     * The stream moves past the returned bytes, so the buffer can be consumed without copying it.
+     *
+     * @return unread bytes of a body chunk, or null at the end of the body
+     * @throws IOException if an I/O error occurs
+     */
+    public ByteBuffer readBuffer() throws IOException {
+        if (!nextBuffer()) {
+            return null;
+        }
+        ByteBuffer chunk = buffer.slice();
+        buffer = EMPTY_BUFFER;
+        return chunk;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n && nextBuffer()) {
+            int count = (int) Math.min(n - skipped, buffer.remaining());
+            buffer.position(buffer.position() + count);
+            skipped += count;
+        }
+        return skipped;
+    }
+
     @Override
     public int available() throws IOException {
+        if (!buffer.hasRemaining() && !request.isEmpty()) {
+            nextBuffer();
+        }
         return buffer.remaining();
     }
+
+    /**
+     * Make sure the current buffer has bytes left to read, moving on to the next body chunk if needed.
+     *
+     * @return false if the end of the body has been reached
+     * @throws InterruptedIOException if the thread is interrupted while waiting for the next body chunk
+     */
+    private boolean nextBuffer() throws InterruptedIOException {
+        while (!buffer.hasRemaining()) {
+            if (request.isEomAdded() && request.isEmpty()) {
+                return false;
+            }
+            ByteBuffer chunk = request.getMessageBody();
+            if (chunk == null) {
+                // Not the end of the body, the wait for the next chunk has been interrupted
+                throw new InterruptedIOException("Interrupted while reading the request body");
+            }
+            buffer = chunk;
+        }
+        return true;
+    }
 }
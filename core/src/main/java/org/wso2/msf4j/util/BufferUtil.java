@@ -16,7 +16,6 @@
 
 package org.wso2.msf4j.util;
 
-import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.util.List;
 
@@ -26,7 +25,8 @@ import java.util.List;
 public class BufferUtil {
 
     /**
-     * Merge a list of buffers into a single buffer.
+     * Merge a list of buffers into a single buffer. Only the remaining content of the buffers is merged and the
+     * positions of the given buffers are not changed.
      *
      * @param byteBuffers list of ByteBuffer objects
      * @return merged ByteBuffer
@@ -37,14 +37,7 @@ public class BufferUtil {
         } else if (byteBuffers.size() == 1) {
             return byteBuffers.get(0);
         } else {
-            ByteBuffer fullContent = ByteBuffer.allocate(
-                    byteBuffers.stream()
-                            .mapToInt(Buffer::capacity)
-                            .sum()
-            );
-            byteBuffers.forEach(fullContent::put);
-            fullContent.flip();
-            return fullContent;
+            return new ByteBufferSequence(byteBuffers).toByteBuffer();
         }
     }
 
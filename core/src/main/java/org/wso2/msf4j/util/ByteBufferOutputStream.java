@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.util;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Output stream that collects the written content in a sequence of buffers instead of one growing array, so the
+ * content is never copied to make room for more. The buffers can be handed as they are to a message body once the
+ * stream is closed. Buffers start small and double in size up to the chunk size, so small contents do not occupy a
+ * whole chunk.
+ */
+public class ByteBufferOutputStream extends OutputStream {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    private final int chunkSize;
+    private final List<ByteBuffer> buffers = new ArrayList<>();
+    private ByteBuffer current;
+    private int nextBufferSize;
+    private long size;
+    private boolean closed;
+
+    public ByteBufferOutputStream() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param chunkSize maximum size of the buffers allocated by the stream
+     */
+    public ByteBufferOutputStream(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size should be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.nextBufferSize = Math.min(INITIAL_BUFFER_SIZE, chunkSize);
+    }
+
+    @Override
+    public void write(int b) {
+        ensureOpen();
+        if (current == null || !current.hasRemaining()) {
+            nextBuffer();
+        }
+        current.put((byte) b);
+        size++;
+    }
+
+    @Override
+    public void write(byte[] bytes, int off, int len) {
+        ensureOpen();
+        if (off < 0 || len < 0 || len > bytes.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        int written = 0;
+        while (written < len) {
+            if (current == null || !current.hasRemaining()) {
+                nextBuffer();
+            }
+            int count = Math.min(len - written, current.remaining());
+            current.put(bytes, off + written, count);
+            written += count;
+        }
+        size += len;
+    }
+
+    /**
+     * Append the remaining content of a buffer. The buffer is added to the sequence as it is, without copying its
+     * content, so it should not be modified afterwards.
+     *
+     * @param buffer buffer to append
+     */
+    public void write(ByteBuffer buffer) {
+        ensureOpen();
+        if (!buffer.hasRemaining()) {
+            return;
+        }
+        completeCurrent();
+        size += buffer.remaining();
+        buffers.add(buffer);
+    }
+
+    /**
+     * @return number of bytes written to the stream.
+     */
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            completeCurrent();
+            closed = true;
+        }
+    }
+
+    /**
+     * Get the written content. The stream is closed by this call.
+     *
+     * @return buffers holding the written content, ready to be read
+     */
+    public List<ByteBuffer> getBuffers() {
+        close();
+        return Collections.unmodifiableList(buffers);
+    }
+
+    private void nextBuffer() {
+        completeCurrent();
+        current = ByteBuffer.allocate(nextBufferSize);
+        nextBufferSize = Math.min(nextBufferSize * 2, chunkSize);
+    }
+
+    private void completeCurrent() {
+        if (current != null) {
+            current.flip();
+            if (current.hasRemaining()) {
+                buffers.add(current);
+            }
+            current = null;
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Stream is closed");
+        }
+    }
+}
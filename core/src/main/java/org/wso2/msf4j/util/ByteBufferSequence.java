@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read only view of a sequence of buffers, such as the chunks of a request body, as one continuous content. The
+ * content can be read as an {@link InputStream} or a {@link Reader} straight from the underlying buffers, so a body
+ * that spans several buffers does not have to be merged into a single buffer first. Reading through a view never
+ * changes the position of the underlying buffers.
+ */
+public final class ByteBufferSequence {
+
+    private final List<ByteBuffer> buffers;
+    private final int remaining;
+
+    /**
+     * Create a view of the remaining content of the given buffers.
+     *
+     * @param buffers buffers in the order of their content, may be null
+     */
+    public ByteBufferSequence(List<ByteBuffer> buffers) {
+        if (buffers == null || buffers.isEmpty()) {
+            this.buffers = Collections.emptyList();
+            this.remaining = 0;
+        } else {
+            List<ByteBuffer> nonEmpty = new ArrayList<>(buffers.size());
+            long total = 0;
+            for (ByteBuffer buffer : buffers) {
+                if (buffer.hasRemaining()) {
+                    nonEmpty.add(buffer);
+                    total += buffer.remaining();
+                }
+            }
+            if (total > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Content is too large: " + total + " bytes");
+            }
+            this.buffers = nonEmpty;
+            this.remaining = (int) total;
+        }
+    }
+
+    /**
+     * @return number of bytes in the sequence.
+     */
+    public int remaining() {
+        return remaining;
+    }
+
+    /**
+     * @return true if the sequence does not have content.
+     */
+    public boolean isEmpty() {
+        return remaining == 0;
+    }
+
+    /**
+     * @return read only views of the non empty buffers of the sequence.
+     */
+    public List<ByteBuffer> getBuffers() {
+        List<ByteBuffer> views = new ArrayList<>(buffers.size());
+        for (ByteBuffer buffer : buffers) {
+            views.add(buffer.asReadOnlyBuffer());
+        }
+        return views;
+    }
+
+    /**
+     * Get the content as a single buffer. The buffer is shared with the sequence when it consists of a single
+     * buffer, otherwise the content is copied into a new buffer.
+     *
+     * @return content of the sequence
+     */
+    public ByteBuffer toByteBuffer() {
+        if (buffers.isEmpty()) {
+            return ByteBuffer.allocate(0);
+        } else if (buffers.size() == 1) {
+            return buffers.get(0).duplicate();
+        }
+        ByteBuffer fullContent = ByteBuffer.allocate(remaining);
+        for (ByteBuffer buffer : buffers) {
+            fullContent.put(buffer.duplicate());
+        }
+        fullContent.flip();
+        return fullContent;
+    }
+
+    /**
+     * @return a new stream that reads the content from the start of the sequence.
+     */
+    public InputStream asInputStream() {
+        return new SequenceInputStream();
+    }
+
+    /**
+     * Get a reader that decodes the content as it is read. Malformed input is replaced the same way
+     * {@link Charset#decode(ByteBuffer)} does.
+     *
+     * @param charset charset of the content
+     * @return a new reader that reads the content from the start of the sequence
+     */
+    public Reader asReader(Charset charset) {
+        return new InputStreamReader(asInputStream(), charset);
+    }
+
+    /**
+     * Decode the whole content into a string.
+     *
+     * @param charset charset of the content
+     * @return decoded content
+     */
+    public String toString(Charset charset) {
+        if (buffers.size() == 1) {
+            return charset.decode(buffers.get(0).duplicate()).toString();
+        }
+        StringBuilder builder = new StringBuilder(remaining);
+        char[] chars = new char[Math.min(Math.max(remaining, 16), 8192)];
+        try (Reader reader = asReader(charset)) {
+            int read;
+            while ((read = reader.read(chars)) != -1) {
+                builder.append(chars, 0, read);
+            }
+        } catch (IOException e) {
+            // Reading from memory does not fail
+            throw new IllegalStateException(e);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Stream over duplicates of the buffers, so that the buffers of the sequence are never consumed.
+     */
+    private final class SequenceInputStream extends InputStream {
+        private int index = -1;
+        private ByteBuffer current;
+        private int available = remaining;
+
+        private boolean nextBuffer() {
+            while (current == null || !current.hasRemaining()) {
+                if (++index >= buffers.size()) {
+                    current = null;
+                    return false;
+                }
+                current = buffers.get(index).duplicate();
+            }
+            return true;
+        }
+
+        @Override
+        public int read() {
+            if (!nextBuffer()) {
+                return -1;
+            }
+            available--;
+            return current.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int off, int len) {
+            if (off < 0 || len < 0 || len > bytes.length - off) {
+                throw new IndexOutOfBoundsException();
+            }
+            if (len == 0) {
+                return 0;
+            }
+            int read = 0;
+            while (read < len && nextBuffer()) {
+                int count = Math.min(len - read, current.remaining());
+                current.get(bytes, off + read, count);
+                read += count;
+            }
+            available -= read;
+            return read == 0 ? -1 : read;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = 0;
+            while (skipped < n && nextBuffer()) {
+                int count = (int) Math.min(n - skipped, current.remaining());
+                current.position(current.position() + count);
+                skipped += count;
+            }
+            available -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return available;
+        }
+    }
+}
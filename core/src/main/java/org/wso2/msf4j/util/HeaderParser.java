@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scanners for the HTTP headers MSF4J needs to look into: {@code Accept}, {@code Content-Type}, {@code Cookie} and
+ * {@code Range}.
+ * The headers are scanned character by character, without regular expressions, and only the parts that are
+ * returned are copied out of the header value.
+ */
+public class HeaderParser {
+
+    private static final String QUALITY_PARAM = "q";
+    private static final String BYTES_UNIT = "bytes=";
+    private static final int MAX_RANGES = 16;
+
+    /**
+     * Parse an {@code Accept} header into its media ranges, in the order they appear in the header. Empty elements
+     * are skipped and media range parameters other than the quality value are dropped.
+     *
+     * @param header value of the Accept header, may be null
+     * @return media ranges of the header or null if the header is null
+     */
+    public static List<AcceptType> parseAccept(String header) {
+        if (header == null) {
+            return null;
+        }
+        List<AcceptType> acceptTypes = new ArrayList<>(4);
+        final int length = header.length();
+        int pos = 0;
+        while (pos < length) {
+            int end = pos;
+            while (end < length && header.charAt(end) != ',' && header.charAt(end) != ';') {
+                end++;
+            }
+            String mediaType = trimmed(header, pos, end);
+            float quality = 1.0f;
+            pos = end;
+            // Parameters of this media range, if any
+            while (pos < length && header.charAt(pos) == ';') {
+                int nameStart = pos + 1;
+                int nameEnd = nameStart;
+                while (nameEnd < length && "=;,".indexOf(header.charAt(nameEnd)) < 0) {
+                    nameEnd++;
+                }
+                pos = nameEnd;
+                String value = null;
+                if (pos < length && header.charAt(pos) == '=') {
+                    int valueEnd = skipValue(header, pos + 1);
+                    value = unquote(trimmed(header, pos + 1, valueEnd));
+                    pos = valueEnd;
+                }
+                if (value != null && regionEqualsIgnoreCase(header, nameStart, nameEnd, QUALITY_PARAM)) {
+                    quality = parseQuality(value);
+                }
+            }
+            if (!mediaType.isEmpty()) {
+                acceptTypes.add(new AcceptType(mediaType, quality));
+            }
+            pos++;
+        }
+        return acceptTypes;
+    }
+
+    /**
+     * Get the media type of a {@code Content-Type} header without its parameters.
+     *
+     * @param header value of the Content-Type header, may be null
+     * @return media type or null if the header is null
+     */
+    public static String parseMediaType(String header) {
+        if (header == null) {
+            return null;
+        }
+        int end = header.indexOf(';');
+        return trimmed(header, 0, end < 0 ? header.length() : end);
+    }
+
+    /**
+     * Parse a {@code Cookie} header into a map of cookie names to values. When a cookie appears more than once the
+     * first value is kept. Values are returned as they appear in the header.
+     *
+     * @param header value of the Cookie header, may be null
+     * @return unmodifiable map of cookies, empty if the header is null
+     */
+    public static Map<String, String> parseCookies(String header) {
+        if (header == null || header.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> cookies = new LinkedHashMap<>();
+        final int length = header.length();
+        int pos = 0;
+        while (pos < length) {
+            int end = header.indexOf(';', pos);
+            if (end < 0) {
+                end = length;
+            }
+            int eq = pos;
+            while (eq < end && header.charAt(eq) != '=') {
+                eq++;
+            }
+            if (eq < end) {
+                String name = trimmed(header, pos, eq);
+                if (!name.isEmpty()) {
+                    cookies.putIfAbsent(name, trimmed(header, eq + 1, end));
+                }
+            }
+            pos = end + 1;
+        }
+        return Collections.unmodifiableMap(cookies);
+    }
+
+    /**
+     * Parse a {@code Range} header against a representation of the given size. Ranges which start beyond the end of
+     * the representation are dropped and the remaining ranges are sorted and coalesced where they overlap or
+     * touch. A header that is not a well formed byte range set, or that has more than 16 ranges, is to be ignored.
+     *
+     * @param header value of the Range header, may be null
+     * @param size   size of the representation in bytes
+     * @return satisfiable ranges, an empty list if no range is satisfiable or null if the header should be ignored
+     */
+    public static List<ByteRange> parseRanges(String header, long size) {
+        if (header == null || !header.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())) {
+            return null;
+        }
+        List<ByteRange> ranges = new ArrayList<>(1);
+        int specs = 0;
+        final int length = header.length();
+        int pos = BYTES_UNIT.length();
+        while (pos < length) {
+            int end = header.indexOf(',', pos);
+            end = end < 0 ? length : end;
+            String spec = trimmed(header, pos, end);
+            pos = end + 1;
+            if (spec.isEmpty()) {
+                continue;
+            }
+            if (++specs > MAX_RANGES) {
+                return null;
+            }
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            if (dash == 0) {
+                long suffix = parseDigits(spec, 1, spec.length());
+                if (suffix < 0) {
+                    return null;
+                }
+                if (suffix > 0 && size > 0) {
+                    ranges.add(new ByteRange(Math.max(0, size - suffix), size - 1));
+                }
+            } else {
+                long first = parseDigits(spec, 0, dash);
+                long last = dash == spec.length() - 1 ? Long.MAX_VALUE : parseDigits(spec, dash + 1, spec.length());
+                if (first < 0 || last < first) {
+                    return null;
+                }
+                if (first < size) {
+                    ranges.add(new ByteRange(first, Math.min(last, size - 1)));
+                }
+            }
+        }
+        if (specs == 0) {
+            return null;
+        }
+        if (ranges.size() > 1) {
+            ranges.sort((r1, r2) -> Long.compare(r1.first, r2.first));
+            List<ByteRange> coalesced = new ArrayList<>(ranges.size());
+            ByteRange current = ranges.get(0);
+            for (int i = 1; i < ranges.size(); i++) {
+                ByteRange next = ranges.get(i);
+                if (next.first <= current.last + 1) {
+                    current = new ByteRange(current.first, Math.max(current.last, next.last));
+                } else {
+                    coalesced.add(current);
+                    current = next;
+                }
+            }
+            coalesced.add(current);
+            ranges = coalesced;
+        }
+        return ranges;
+    }
+
+    /**
+     * Find the end of a parameter value starting at {@code from}, which is either the end of a quoted string or the
+     * next ';' or ','.
+     */
+    private static int skipValue(String header, int from) {
+        final int length = header.length();
+        int pos = from;
+        boolean quoted = false;
+        while (pos < length) {
+            char c = header.charAt(pos);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == '\\' && quoted) {
+                pos++;
+            } else if (!quoted && (c == ';' || c == ',')) {
+                break;
+            }
+            pos++;
+        }
+        return Math.min(pos, length);
+    }
+
+    private static String trimmed(String s, int from, int to) {
+        while (from < to && Character.isWhitespace(s.charAt(from))) {
+            from++;
+        }
+        while (to > from && Character.isWhitespace(s.charAt(to - 1))) {
+            to--;
+        }
+        return from == 0 && to == s.length() ? s : s.substring(from, to);
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"') {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    private static boolean regionEqualsIgnoreCase(String s, int from, int to, String expected) {
+        while (from < to && Character.isWhitespace(s.charAt(from))) {
+            from++;
+        }
+        while (to > from && Character.isWhitespace(s.charAt(to - 1))) {
+            to--;
+        }
+        return to - from == expected.length() && s.regionMatches(true, from, expected, 0, expected.length());
+    }
+
+    /**
+     * Parse a quality value. Malformed values are treated as 1 and values out of range are clamped to [0, 1].
+     */
+    private static float parseQuality(String value) {
+        try {
+            float quality = Float.parseFloat(value);
+            if (Float.isNaN(quality)) {
+                return 1.0f;
+            }
+            return Math.max(0.0f, Math.min(1.0f, quality));
+        } catch (NumberFormatException e) {
+            return 1.0f;
+        }
+    }
+
+    /**
+     * Parse a run of decimal digits.
+     *
+     * @return value of the digits or -1 if the run is empty, has other characters or overflows
+     */
+    private static long parseDigits(String s, int from, int to) {
+        if (from >= to) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9' || value > (Long.MAX_VALUE - (c - '0')) / 10) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * A media range of an {@code Accept} header along with its quality value.
+     */
+    public static final class AcceptType {
+        private final String mediaType;
+        private final float quality;
+
+        public AcceptType(String mediaType, float quality) {
+            this.mediaType = mediaType;
+            this.quality = quality;
+        }
+
+        /**
+         * @return media range without its parameters, for example {@code text/*}.
+         */
+        public String getMediaType() {
+            return mediaType;
+        }
+
+        /**
+         * @return quality value of the media range, 1 when the header does not specify one.
+         */
+        public float getQuality() {
+            return quality;
+        }
+
+        @Override
+        public String toString() {
+            return mediaType + ";q=" + quality;
+        }
+    }
+
+    /**
+     * An inclusive range of byte positions of a representation.
+     */
+    public static final class ByteRange {
+        private final long first;
+        private final long last;
+
+        public ByteRange(long first, long last) {
+            this.first = first;
+            this.last = last;
+        }
+
+        /**
+         * @return position of the first byte of the range.
+         */
+        public long getFirst() {
+            return first;
+        }
+
+        /**
+         * @return position of the last byte of the range, inclusive.
+         */
+        public long getLast() {
+            return last;
+        }
+
+        /**
+         * @return number of bytes in the range.
+         */
+        public long getLength() {
+            return last - first + 1;
+        }
+
+        @Override
+        public String toString() {
+            return first + "-" + last;
+        }
+    }
+}
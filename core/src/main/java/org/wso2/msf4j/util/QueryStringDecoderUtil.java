@@ -224,34 +224,90 @@ public class QueryStringDecoderUtil {
      */
     public Map<String, List<String>> parameters() {
         if (params == null) {
-            if (hasPath) {
-                int pathLength = path().length();
-                if (uri.length() == pathLength) {
-                    return Collections.emptyMap();
+            int queryStart = queryStart();
+            if (queryStart == uri.length()) {
+                return Collections.emptyMap();
+            }
+            decodeParams(uri, queryStart);
+        }
+        return params;
+    }
+
+    /**
+     * Returns the first decoded value of a parameter without decoding the rest of the query string. If the parameters
+     * have already been decoded the value is taken from them, otherwise the raw query string is scanned in place and
+     * only the value of the matching parameter is decoded.
+     *
+     * @param name name of the parameter
+     * @return first value of the parameter or null if the parameter is not present
+     */
+    public String parameter(String name) {
+        if (params != null) {
+            List<String> values = params.get(name);
+            return values == null || values.isEmpty() ? null : values.get(0);
+        }
+        final int length = uri.length();
+        int pos = queryStart();
+        int count = 0;
+        while (pos < length && count < maxParams) {
+            int end = pos;
+            char c;
+            while (end < length && (c = uri.charAt(end)) != '&' && c != ';') {
+                end++;
+            }
+            // Leading '=' are skipped the same way the full decode skips an empty name.
+            int start = pos;
+            while (start < end && uri.charAt(start) == '=') {
+                start++;
+            }
+            if (start != end) {
+                int eq = start;
+                while (eq < end && uri.charAt(eq) != '=') {
+                    eq++;
                 }
-                decodeParams(uri.substring(pathLength + 1));
-            } else {
-                if (uri.isEmpty()) {
-                    return Collections.emptyMap();
+                if (nameEquals(name, start, eq)) {
+                    return eq == end ? "" : decodeComponent(uri, eq + 1, end, charset);
                 }
-                decodeParams(uri);
+                count++;
             }
+            pos = end + 1;
         }
-        return params;
+        return null;
     }
 
-    private void decodeParams(String s) {
+    /**
+     * @return index at which the parameters start in the uri
+     */
+    private int queryStart() {
+        if (!hasPath) {
+            return 0;
+        }
+        int pathLength = path().length();
+        return pathLength == uri.length() ? pathLength : pathLength + 1;
+    }
+
+    private boolean nameEquals(String name, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = uri.charAt(i);
+            if (c == '%' || c == '+') {
+                return name.equals(decodeComponent(uri, from, to, charset));
+            }
+        }
+        return to - from == name.length() && uri.regionMatches(from, name, 0, name.length());
+    }
+
+    private void decodeParams(String s, int from) {
         Map<String, List<String>> params = this.params = new LinkedHashMap<>();
         nParams = 0;
         String name = null;
-        int pos = 0; // Beginning of the unprocessed region
-        int i;       // End of the unprocessed region
-        char c;  // Current character
-        for (i = 0; i < s.length(); i++) {
+        int pos = from; // Beginning of the unprocessed region
+        int i;          // End of the unprocessed region
+        char c;         // Current character
+        for (i = from; i < s.length(); i++) {
             c = s.charAt(i);
             if (c == '=' && name == null) {
                 if (pos != i) {
-                    name = decodeComponent(s.substring(pos, i), charset);
+                    name = decodeComponent(s, pos, i, charset);
                 }
                 pos = i + 1;
                 // http://www.w3.org/TR/html401/appendix/notes.html#h-B.2.2
@@ -260,11 +316,11 @@ public class QueryStringDecoderUtil {
                     // We haven't seen an `=' so far but moved forward.
                     // Must be a param of the form '&a&' so add it with
                     // an empty value.
-                    if (!addParam(params, decodeComponent(s.substring(pos, i), charset), "")) {
+                    if (!addParam(params, decodeComponent(s, pos, i, charset), "")) {
                         return;
                     }
                 } else if (name != null) {
-                    if (!addParam(params, name, decodeComponent(s.substring(pos, i), charset))) {
+                    if (!addParam(params, name, decodeComponent(s, pos, i, charset))) {
                         return;
                     }
                     name = null;
@@ -275,9 +331,9 @@ public class QueryStringDecoderUtil {
 
         if (pos != i) {  // Are there characters we haven't dealt with?
             if (name == null) {     // Yes and we haven't seen any `='.
-                addParam(params, decodeComponent(s.substring(pos, i), charset), "");
+                addParam(params, decodeComponent(s, pos, i, charset), "");
             } else {                // Yes and this must be the last value.
-                addParam(params, name, decodeComponent(s.substring(pos, i), charset));
+                addParam(params, name, decodeComponent(s, pos, i, charset));
             }
         } else if (name != null) {  // Have we seen a name without value?
             addParam(params, name, "");
@@ -341,9 +397,17 @@ public class QueryStringDecoderUtil {
         if (s == null) {
             return "";
         }
-        final int size = s.length();
+        return decodeComponent(s, 0, s.length(), charset);
+    }
+
+    /**
+     * Decodes the region {@code [from, to)} of a string. The region is returned as a substring, or the string
+     * itself if it spans the whole string, when there's nothing to decode; otherwise it is decoded straight from
+     * the string without copying the region first.
+     */
+    private static String decodeComponent(final String s, final int from, final int to, final Charset charset) {
         boolean modified = false;
-        for (int i = 0; i < size; i++) {
+        for (int i = from; i < to; i++) {
             final char c = s.charAt(i);
             if (c == '%' || c == '+') {
                 modified = true;
@@ -351,37 +415,37 @@ public class QueryStringDecoderUtil {
             }
         }
         if (!modified) {
-            return s;
+            return from == 0 && to == s.length() ? s : s.substring(from, to);
         }
-        final byte[] buf = new byte[size];
+        final byte[] buf = new byte[to - from];
         int pos = 0;  // position in `buf'.
-        for (int i = 0; i < size; i++) {
+        for (int i = from; i < to; i++) {
             char c = s.charAt(i);
             switch (c) {
                 case '+':
                     buf[pos++] = ' ';  // "+" -> " "
                     break;
                 case '%':
-                    if (i == size - 1) {
+                    if (i == to - 1) {
                         throw new IllegalArgumentException("unterminated escape"
-                                + " sequence at end of string: " + s);
+                                + " sequence at end of string: " + s.substring(from, to));
                     }
                     c = s.charAt(++i);
                     if (c == '%') {
                         buf[pos++] = '%';  // "%%" -> "%"
                         break;
                     }
-                    if (i == size - 1) {
+                    if (i == to - 1) {
                         throw new IllegalArgumentException("partial escape"
-                                + " sequence at end of string: " + s);
+                                + " sequence at end of string: " + s.substring(from, to));
                     }
                     c = decodeHexNibble(c);
                     final char c2 = decodeHexNibble(s.charAt(++i));
                     if (c == Character.MAX_VALUE || c2 == Character.MAX_VALUE) {
                         throw new IllegalArgumentException(
                                 "invalid escape sequence `%" + s.charAt(i - 1)
-                                        + s.charAt(i) + "' at index " + (i - 2)
-                                        + " of: " + s);
+                                        + s.charAt(i) + "' at index " + (i - 2 - from)
+                                        + " of: " + s.substring(from, to));
                     }
                     c = (char) (c * 16 + c2);
                     // Fall through.
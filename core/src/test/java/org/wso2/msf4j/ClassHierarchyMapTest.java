@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wso2.msf4j;
+
+import org.testng.annotations.Test;
+import org.wso2.msf4j.internal.ClassHierarchyMap;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertSame;
+
+/**
+ * Test the resolution of classes to the values of their closest registered supertypes.
+ */
+public class ClassHierarchyMapTest {
+
+    @Test
+    public void testClosestSupertype() {
+        ClassHierarchyMap<String> map = new ClassHierarchyMap<String>()
+                .with(Exception.class, "exception")
+                .with(FileNotFoundException.class, "not found")
+                .with(IOException.class, "io");
+        assertEquals("not found", map.get(FileNotFoundException.class).get());
+        assertEquals("io", map.get(java.nio.file.NoSuchFileException.class).get());
+        assertEquals("exception", map.get(IllegalStateException.class).get());
+        assertFalse(map.get(Error.class).isPresent());
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    public void testUnrelatedSupertypes() {
+        // ArrayList is both a Collection and RandomAccess, the one registered last wins
+        ClassHierarchyMap<String> map = new ClassHierarchyMap<String>()
+                .with(Collection.class, "collection")
+                .with(RandomAccess.class, "random access");
+        assertEquals("random access", map.get(ArrayList.class).get());
+        map = map.with(List.class, "list");
+        assertEquals("list", map.get(ArrayList.class).get());
+        map = map.with(Collection.class, "collection");
+        assertEquals("list", map.get(ArrayList.class).get());
+    }
+
+    @Test
+    public void testReplaceAndRemove() {
+        ClassHierarchyMap<String> map = new ClassHierarchyMap<String>().with(Closeable.class, "closeable");
+        assertEquals("closeable", map.get(InputStream.class).get());
+
+        ClassHierarchyMap<String> replaced = map.with(Closeable.class, "replaced");
+        assertEquals("replaced", replaced.get(InputStream.class).get());
+        // Existing maps and their cached resolutions are not affected
+        assertEquals("closeable", map.get(InputStream.class).get());
+
+        assertSame(replaced, replaced.without(Closeable.class, "closeable"));
+        assertFalse(replaced.without(Closeable.class, "replaced").get(InputStream.class).isPresent());
+    }
+}
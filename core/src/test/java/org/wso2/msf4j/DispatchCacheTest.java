@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j;
+
+import org.testng.annotations.Test;
+import org.wso2.msf4j.internal.router.DispatchCache;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Test the bounded dispatch cache.
+ */
+public class DispatchCacheTest {
+
+    @Test
+    public void testHitsAndMisses() {
+        DispatchCache<String> cache = new DispatchCache<>(1024);
+        DispatchCache.Key key = new DispatchCache.Key("/foo", "GET", null, "*/*");
+        assertNull(cache.get(key));
+        cache.put(key, "foo");
+
+        assertEquals("foo", cache.get(new DispatchCache.Key("/foo", "GET", null, "*/*")));
+        assertNull(cache.get(new DispatchCache.Key("/foo", "POST", null, "*/*")));
+        assertNull(cache.get(new DispatchCache.Key("/foo", "GET", "text/plain", "*/*")));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+
+        cache.invalidate();
+        assertEquals(0, cache.size());
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void testEviction() {
+        DispatchCache<Integer> cache = new DispatchCache<>(64);
+        for (int i = 0; i < 10000; i++) {
+            cache.put(new DispatchCache.Key("/path/" + i, "GET", null, null), i);
+        }
+        assertTrue(cache.size() <= 64);
+        assertEquals(10000 - cache.size(), cache.getEvictionCount());
+
+        DispatchCache<Integer> disabled = new DispatchCache<>(0);
+        disabled.put(new DispatchCache.Key("/path", "GET", null, null), 1);
+        assertEquals(0, disabled.size());
+    }
+}
@@ -31,6 +31,7 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 import org.wso2.msf4j.beanconversion.BeanConversionException;
 import org.wso2.msf4j.conf.Constants;
+import org.wso2.msf4j.entitywriter.PointEntityWriter;
 import org.wso2.msf4j.exception.TestExceptionMapper;
 import org.wso2.msf4j.exception.TestExceptionMapper2;
 import org.wso2.msf4j.formparam.util.StreamUtil;
@@ -117,6 +118,7 @@ public class HttpServerTest {
         microservicesRunner = new MicroservicesRunner(port);
         microservicesRunner
                 .addExceptionMapper(new TestExceptionMapper(), new TestExceptionMapper2())
+                .addEntityWriter(new PointEntityWriter())
                 .deploy(testMicroservice)
                 .start();
         microservicesRunner.deploy("/DynamicPath", new TestMicroServiceWithDynamicPath());
@@ -209,6 +211,25 @@ public class HttpServerTest {
         fname.delete();
     }
 
+    @Test
+    public void testStreamUploadOnDemand() throws IOException {
+        //create a random file to be uploaded.
+        int size = 69 * 1024;
+        File fname = new File(tmpFolder, "testStreamUploadOnDemand.txt");
+        fname.createNewFile();
+        RandomAccessFile randf = new RandomAccessFile(fname, "rw");
+        randf.setLength(size);
+        randf.close();
+
+        HttpURLConnection urlConn = request("/test/v1/stream/upload/demand", HttpMethod.PUT);
+        urlConn.setChunkedStreamingMode(1024);
+        Files.copy(Paths.get(fname.toURI()), urlConn.getOutputStream());
+        assertEquals(200, urlConn.getResponseCode());
+        assertEquals(size, Integer.parseInt(getContent(urlConn).split(":")[1].trim()));
+        urlConn.disconnect();
+        fname.delete();
+    }
+
     //    @Test
     public void testStreamUploadFailure() throws IOException {
         //create a random file to be uploaded.
@@ -681,6 +702,112 @@ public class HttpServerTest {
     }
 
 
+    @Test
+    public void testCustomEntityWriter() throws Exception {
+        HttpURLConnection urlConn = request("/test/v1/point", HttpMethod.GET);
+        assertEquals(Response.Status.OK.getStatusCode(), urlConn.getResponseCode());
+        assertEquals("text/csv", urlConn.getHeaderField(HttpHeaders.CONTENT_TYPE));
+        assertEquals("3,4", getContent(urlConn));
+        urlConn.disconnect();
+    }
+
+    @Test
+    public void testDownloadTxtFileFromStreams() throws Exception {
+        File file = new File(Thread.currentThread().getContextClassLoader().getResource("testTxtFile.txt").toURI());
+        for (String path : new String[]{"/test/v1/fileserver/ip/txt", "/test/v1/fileserver/so/txt"}) {
+            HttpURLConnection urlConn = request(path, HttpMethod.GET);
+            assertEquals(Response.Status.OK.getStatusCode(), urlConn.getResponseCode());
+            assertTrue(isStreamEqual(urlConn.getInputStream(), new FileInputStream(file)));
+            urlConn.disconnect();
+        }
+    }
+
+    @Test
+    public void testDownloadPngFileFromPath() throws Exception {
+        HttpURLConnection urlConn = request("/test/v1/fileserver/path/png", HttpMethod.GET);
+        assertEquals(Response.Status.OK.getStatusCode(), urlConn.getResponseCode());
+        String contentType = urlConn.getHeaderField(HttpHeaders.CONTENT_TYPE);
+        assertTrue("image/png".equalsIgnoreCase(contentType));
+        File file = new File(Thread.currentThread().getContextClassLoader().getResource("testPngFile.png").toURI());
+        assertEquals(String.valueOf(file.length()), urlConn.getHeaderField(HttpHeaders.CONTENT_LENGTH));
+        InputStream downStream = urlConn.getInputStream();
+        assertTrue(isStreamEqual(downStream, new FileInputStream(file)));
+    }
+
+    @Test
+    public void testDownloadFileRegion() throws Exception {
+        HttpURLConnection urlConn = request("/test/v1/fileserver/region/txt", HttpMethod.GET);
+        assertEquals(Response.Status.OK.getStatusCode(), urlConn.getResponseCode());
+        assertEquals("100", urlConn.getHeaderField(HttpHeaders.CONTENT_LENGTH));
+        byte[] content = Files.readAllBytes(
+                Paths.get(Thread.currentThread().getContextClassLoader().getResource("testTxtFile.txt").toURI()));
+        assertTrue(Arrays.equals(Arrays.copyOfRange(content, 10, 110), IOUtils.toByteArray(urlConn.getInputStream())));
+    }
+
+    @Test
+    public void testConditionalFileDownload() throws Exception {
+        HttpURLConnection urlConn = request("/test/v1/fileserver/txt", HttpMethod.GET);
+        assertEquals(Response.Status.OK.getStatusCode(), urlConn.getResponseCode());
+        String eTag = urlConn.getHeaderField(HttpHeaders.ETAG);
+        String lastModified = urlConn.getHeaderField(HttpHeaders.LAST_MODIFIED);
+        assertTrue(eTag != null && lastModified != null);
+        assertEquals("bytes", urlConn.getHeaderField("Accept-Ranges"));
+        urlConn.disconnect();
+
+        urlConn = request("/test/v1/fileserver/txt", HttpMethod.GET);
+        urlConn.setRequestProperty(HttpHeaders.IF_NONE_MATCH, eTag);
+        assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), urlConn.getResponseCode());
+        assertEquals(eTag, urlConn.getHeaderField(HttpHeaders.ETAG));
+        urlConn.disconnect();
+
+        urlConn = request("/test/v1/fileserver/txt", HttpMethod.GET);
+        urlConn.setRequestProperty(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), urlConn.getResponseCode());
+        urlConn.disconnect();
+
+        urlConn = request("/test/v1/fileserver/txt", HttpMethod.GET);
+        urlConn.setRequestProperty(HttpHeaders.IF_MATCH, "\"stale\"");
+        assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), urlConn.getResponseCode());
+        urlConn.disconnect();
+    }
+
+    @Test
+    public void testRangeFileDownload() throws Exception {
+        byte[] content = Files.readAllBytes(
+                Paths.get(Thread.currentThread().getContextClassLoader().getResource("testTxtFile.txt").toURI()));
+
+        HttpURLConnection urlConn = request("/test/v1/fileserver/txt", HttpMethod.GET);
+        urlConn.setRequestProperty("Range", "bytes=10-19");
+        assertEquals(Response.Status.PARTIAL_CONTENT.getStatusCode(), urlConn.getResponseCode());
+        assertEquals("bytes 10-19/" + content.length, urlConn.getHeaderField("Content-Range"));
+        assertTrue(Arrays.equals(Arrays.copyOfRange(content, 10, 20), IOUtils.toByteArray(urlConn.getInputStream())));
+        urlConn.disconnect();
+
+        urlConn = request("/test/v1/fileserver/txt", HttpMethod.GET);
+        urlConn.setRequestProperty("Range", "bytes=0-4,-5");
+        assertEquals(Response.Status.PARTIAL_CONTENT.getStatusCode(), urlConn.getResponseCode());
+        assertTrue(urlConn.getHeaderField(HttpHeaders.CONTENT_TYPE).startsWith("multipart/byteranges; boundary="));
+        String body = new String(IOUtils.toByteArray(urlConn.getInputStream()), Charsets.US_ASCII);
+        assertTrue(body.contains("Content-Range: bytes 0-4/" + content.length + "\r\n\r\n" +
+                                 new String(content, 0, 5, Charsets.US_ASCII)));
+        assertTrue(body.contains("Content-Range: bytes " + (content.length - 5) + "-" + (content.length - 1) + "/" +
+                                 content.length));
+        urlConn.disconnect();
+
+        urlConn = request("/test/v1/fileserver/txt", HttpMethod.GET);
+        urlConn.setRequestProperty("Range", "bytes=" + content.length + "-");
+        assertEquals(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE.getStatusCode(), urlConn.getResponseCode());
+        assertEquals("bytes */" + content.length, urlConn.getHeaderField("Content-Range"));
+        urlConn.disconnect();
+
+        urlConn = request("/test/v1/fileserver/txt", HttpMethod.GET);
+        urlConn.setRequestProperty("Range", "bytes=10-19");
+        urlConn.setRequestProperty("If-Range", "\"stale\"");
+        assertEquals(Response.Status.OK.getStatusCode(), urlConn.getResponseCode());
+        assertTrue(Arrays.equals(content, IOUtils.toByteArray(urlConn.getInputStream())));
+        urlConn.disconnect();
+    }
+
     @Test
     public void testDownloadJpgFile() throws Exception {
         HttpURLConnection urlConn = request("/test/v1/fileserver/jpg", HttpMethod.GET);
@@ -780,6 +907,39 @@ public class HttpServerTest {
         urlConn.disconnect();
     }
 
+    @Test
+    public void testAsyncCompletionStage() throws Exception {
+        HttpURLConnection urlConn = request("/test/v1/async/stage/wso2", HttpMethod.GET);
+        assertEquals(Response.Status.OK.getStatusCode(), urlConn.getResponseCode());
+        assertEquals("Hello wso2", getContent(urlConn));
+        urlConn.disconnect();
+
+        // Exceptions the stage completes with are mapped like the ones thrown by the resource method
+        urlConn = request("/test/v1/async/stage/fail", HttpMethod.GET);
+        assertEquals(Response.Status.NOT_FOUND.getStatusCode(), urlConn.getResponseCode());
+        urlConn.disconnect();
+    }
+
+    @Test
+    public void testAsyncResponse() throws Exception {
+        HttpURLConnection urlConn = request("/test/v1/async/suspended/wso2", HttpMethod.GET);
+        assertEquals(Response.Status.OK.getStatusCode(), urlConn.getResponseCode());
+        assertEquals("Hello wso2", getContent(urlConn));
+        urlConn.disconnect();
+
+        urlConn = request("/test/v1/async/timeout", HttpMethod.GET);
+        assertEquals(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(), urlConn.getResponseCode());
+        urlConn.disconnect();
+    }
+
+    @Test
+    public void testPooledDispatch() throws Exception {
+        HttpURLConnection urlConn = request("/test/v1/dispatch/pooled", HttpMethod.GET);
+        assertEquals(Response.Status.OK.getStatusCode(), urlConn.getResponseCode());
+        assertTrue(getContent(urlConn).startsWith("msf4j-dispatch-"));
+        urlConn.disconnect();
+    }
+
     @Test
     public void testExceptionMapper2() throws Exception {
         HttpURLConnection urlConn = request("/test/v1/mappedException2", HttpMethod.GET);
@@ -83,4 +83,10 @@ public class InterceptorTest extends InterceptorTestBase {
         assertEquals(0, interceptor2.getNumPreCalls());
         assertEquals(0, interceptor2.getNumPostCalls());
     }
+
+    @Test
+    public void testThreadLocalOfPooledDispatch() throws Exception {
+        int status = doGet("/test/v1/dispatch/pooled/interceptor", "X-Request-Id", "pooled-1");
+        assertEquals(Response.Status.OK.getStatusCode(), status);
+    }
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+
+/**
+ * Tests for LogSessionManager.
+ */
+public class LogSessionManagerTest {
+
+    private File sessionLogDir;
+
+    @BeforeMethod
+    public void setup() throws IOException {
+        sessionLogDir = Files.createTempDirectory("msf4j-session-log").toFile();
+    }
+
+    @AfterMethod
+    public void teardown() throws IOException {
+        FileUtils.deleteDirectory(sessionLogDir);
+    }
+
+    @Test
+    public void testPersistence() {
+        SessionManager sessionManager = new LogSessionManager(sessionLogDir.getPath(), 4096, false);
+        sessionManager.init();
+        Session session = sessionManager.createSession();
+        session.setAttribute("name", "wso2");
+        Session removedSession = sessionManager.createSession();
+        removedSession.invalidate();
+        sessionManager.stop();
+
+        sessionManager = new LogSessionManager(sessionLogDir.getPath(), 4096, false);
+        sessionManager.init();
+        assertEquals("wso2", sessionManager.getSession(session.getId()).getAttribute("name"));
+        assertNull(sessionManager.getSession(removedSession.getId()));
+        sessionManager.stop();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j;
+
+import org.testng.annotations.Test;
+import org.wso2.msf4j.internal.router.MediaTypeMatcher;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Test content negotiation of the media type matcher.
+ */
+public class MediaTypeMatcherTest {
+
+    @Test
+    public void testNegotiation() {
+        MediaTypeMatcher matcher = new MediaTypeMatcher(new String[]{"application/json", "text/xml"});
+        assertEquals("application/json", matcher.negotiate(null));
+        assertEquals("application/json", matcher.negotiate(""));
+        assertEquals("application/json", matcher.negotiate("*/*"));
+        assertEquals("text/xml", matcher.negotiate("text/xml"));
+        assertEquals("text/xml", matcher.negotiate("application/json;q=0.5, text/xml"));
+        assertEquals("text/xml", matcher.negotiate("*/*, text/*"));
+        assertEquals("application/json", matcher.negotiate("text/html, image/gif, image/jpeg, *; q=.2, */*; q=.2"));
+        assertEquals("application/json", matcher.negotiate("APPLICATION/JSON"));
+        assertNull(matcher.negotiate("text/plain"));
+        assertNull(matcher.negotiate("application/json;q=0, text/*;q=0"));
+        assertFalse(matcher.isAcceptable("image/png"));
+        // The most specific range gives the quality of a media type
+        assertEquals("text/xml", matcher.negotiate("application/json;q=0, */*"));
+        assertNull(new MediaTypeMatcher(new String[]{"application/json"}).negotiate("application/json;q=0, */*"));
+        assertEquals("application/json", matcher.negotiate("text/*;q=0.5, */*;q=0.9"));
+        assertEquals("text/plain", new MediaTypeMatcher(new String[]{"application/json", "text/plain"})
+                .negotiate("text/*;q=0.95, */*;q=0.9"));
+        // Served from the negotiation cache
+        assertEquals("text/xml", matcher.negotiate("application/json;q=0.5, text/xml"));
+    }
+
+    @Test
+    public void testWildcardMediaTypes() {
+        MediaTypeMatcher any = new MediaTypeMatcher(new String[]{"*/*"});
+        assertEquals("*/*", any.negotiate(null));
+        assertEquals("*/*", any.negotiate("application/json"));
+        assertNull(any.negotiate("*/*;q=0"));
+        assertTrue(any.matchesContentType("image/png"));
+
+        MediaTypeMatcher text = new MediaTypeMatcher(new String[]{"text/*"});
+        assertEquals("text/plain", text.negotiate("application/json, text/plain"));
+        assertEquals("text/*", text.negotiate("*/*"));
+        assertTrue(text.matchesContentType("text/html"));
+        assertFalse(text.matchesContentType("application/json"));
+    }
+
+    @Test
+    public void testContentType() {
+        MediaTypeMatcher matcher = new MediaTypeMatcher(new String[]{"application/x-www-form-urlencoded",
+                "multipart/form-data"});
+        assertTrue(matcher.matchesContentType(null));
+        assertTrue(matcher.matchesContentType("*/*"));
+        assertTrue(matcher.matchesContentType("multipart/form-data"));
+        assertTrue(matcher.matchesContentType("Multipart/Form-Data"));
+        assertFalse(matcher.matchesContentType("application/json"));
+    }
+}
@@ -20,6 +20,7 @@ import org.testng.annotations.BeforeClass;
 import org.wso2.carbon.transport.http.netty.config.YAMLTransportConfigurationBuilder;
 import org.wso2.msf4j.conf.Constants;
 import org.wso2.msf4j.conf.SSLClientContext;
+import org.wso2.msf4j.entitywriter.PointEntityWriter;
 import org.wso2.msf4j.exception.TestExceptionMapper;
 import org.wso2.msf4j.exception.TestExceptionMapper2;
 import org.wso2.msf4j.service.SecondService;
@@ -60,6 +61,7 @@ public class MutualAuthServerTest extends HttpsServerTest {
                                  .getPath());
         microservicesRunner = new MicroservicesRunner();
         microservicesRunner.addExceptionMapper(new TestExceptionMapper(), new TestExceptionMapper2())
+                           .addEntityWriter(new PointEntityWriter())
                            .deploy(testMicroservice).start();
         secondMicroservicesRunner = new MicroservicesRunner(port + 1);
         secondMicroservicesRunner.deploy(secondService).start();
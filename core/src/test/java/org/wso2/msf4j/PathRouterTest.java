@@ -232,4 +232,38 @@ public class PathRouterTest {
         set11.add(Collections.singletonMap("id", "id1"));
         assertEquals(Collections.singletonMap("id", "id1"), routes.get(0).getGroupNameValues());
     }
+
+    @Test
+    public void testRegexPathRoutings() {
+
+        PatternPathRouter<String> pathRouter = PatternPathRouter.create();
+        pathRouter.add("/assets/{type : [a-zA-Z][a-zA-Z_0-9]*}/{id}/states", "asset-states");
+        pathRouter.add("/assets/{id}/states", "id-states");
+        pathRouter.add("/files/{path : .+}/meta", "file-meta");
+
+        List<PatternPathRouter.RoutableDestination<String>> routes;
+
+        routes = pathRouter.getDestinations("/assets/car/12/states");
+        assertEquals(1, routes.size());
+        assertEquals("asset-states", routes.get(0).getDestination());
+        assertEquals("car", routes.get(0).getGroupNameValues().get("type"));
+        assertEquals("12", routes.get(0).getGroupNameValues().get("id"));
+
+        routes = pathRouter.getDestinations("/assets/1car/12/states");
+        assertTrue(routes.isEmpty());
+
+        routes = pathRouter.getDestinations("/assets/12/states/");
+        assertEquals(1, routes.size());
+        assertEquals("id-states", routes.get(0).getDestination());
+        assertEquals(Collections.singletonMap("id", "12"), routes.get(0).getGroupNameValues());
+
+        // Regex templates may span multiple path segments
+        routes = pathRouter.getDestinations("/files/a/b/c/meta");
+        assertEquals(1, routes.size());
+        assertEquals("file-meta", routes.get(0).getDestination());
+        assertEquals(Collections.singletonMap("path", "a/b/c"), routes.get(0).getGroupNameValues());
+
+        routes = pathRouter.getDestinations("/files/meta");
+        assertTrue(routes.isEmpty());
+    }
 }
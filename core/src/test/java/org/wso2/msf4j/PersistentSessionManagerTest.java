@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+/**
+ * Tests for PersistentSessionManager.
+ */
+public class PersistentSessionManagerTest {
+
+    private File sessionDir;
+
+    @BeforeMethod
+    public void setup() throws IOException {
+        sessionDir = Files.createTempDirectory("msf4j-sessions").toFile();
+    }
+
+    @AfterMethod
+    public void teardown() throws IOException {
+        FileUtils.deleteDirectory(sessionDir);
+    }
+
+    @Test
+    public void testWriteThrough() {
+        SessionManager sessionManager = new PersistentSessionManager(sessionDir.getPath(), 0, 0, true);
+        sessionManager.init();
+        Session session = sessionManager.createSession();
+        session.setAttribute("name", "wso2");
+        assertTrue(new File(sessionDir, session.getId()).exists());
+        sessionManager.stop();
+
+        sessionManager = new PersistentSessionManager(sessionDir.getPath(), 0, 0, false);
+        sessionManager.init();
+        assertEquals("wso2", sessionManager.getSession(session.getId()).getAttribute("name"));
+        sessionManager.getSession(session.getId()).invalidate();
+        assertFalse(new File(sessionDir, session.getId()).exists());
+        sessionManager.stop();
+    }
+
+    @Test
+    public void testWriteBehind() throws Exception {
+        SessionManager sessionManager = new PersistentSessionManager(sessionDir.getPath(), 50, 200, false);
+        sessionManager.init();
+        Session session = sessionManager.createSession();
+        for (int i = 0; i < 10; i++) {
+            session.setAttribute("count", i);
+        }
+        File sessionFile = new File(sessionDir, session.getId());
+        for (int i = 0; i < 100 && !sessionFile.exists(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(sessionFile.exists());
+
+        // Pending changes are written when the manager stops
+        session.setAttribute("name", "wso2");
+        Session removedSession = sessionManager.createSession();
+        removedSession.invalidate();
+        sessionManager.stop();
+        assertFalse(new File(sessionDir, removedSession.getId()).exists());
+
+        sessionManager = new PersistentSessionManager(sessionDir.getPath(), 50, 200, false);
+        sessionManager.init();
+        Session loadedSession = sessionManager.getSession(session.getId());
+        assertNotNull(loadedSession);
+        assertEquals(9, loadedSession.getAttribute("count"));
+        assertEquals("wso2", loadedSession.getAttribute("name"));
+        assertNull(sessionManager.getSession(removedSession.getId()));
+        sessionManager.stop();
+    }
+
+    @Test
+    public void testUpgrade() throws IOException {
+        // A session persisted with Java serialization before the serializer could be chosen
+        long now = System.currentTimeMillis();
+        Session javaSession = new Session("javaSession", now, now, 15, Collections.singletonMap("name", "wso2"));
+        Files.write(new File(sessionDir, javaSession.getId()).toPath(),
+                    new JavaSessionSerializer().serialize(javaSession));
+        File unreadableFile = new File(sessionDir, "unreadable");
+        Files.write(unreadableFile.toPath(), new byte[]{1, 2, 3});
+
+        PersistentSessionManager sessionManager = new PersistentSessionManager(sessionDir.getPath(), 0, 0, false);
+        sessionManager.setReadLegacySessions(true);
+        sessionManager.init();
+        Session loadedSession = sessionManager.getSession(javaSession.getId());
+        assertNotNull(loadedSession);
+        assertEquals("wso2", loadedSession.getAttribute("name"));
+        assertTrue(unreadableFile.exists());
+
+        // Saved in the configured format from then on
+        loadedSession.setAttribute("name", "msf4j");
+        assertEquals("msf4j", new BinarySessionSerializer().deserialize(
+                Files.readAllBytes(new File(sessionDir, javaSession.getId()).toPath())).getAttribute("name"));
+        sessionManager.stop();
+    }
+
+    @Test
+    public void testLegacyRejected() throws IOException {
+        long now = System.currentTimeMillis();
+        Session javaSession = new Session("javaSession", now, now, 15, Collections.singletonMap("name", "wso2"));
+        File sessionFile = new File(sessionDir, javaSession.getId());
+        Files.write(sessionFile.toPath(), new JavaSessionSerializer().serialize(javaSession));
+
+        // Not deserialized unless reading legacy sessions is enabled
+        PersistentSessionManager sessionManager = new PersistentSessionManager(sessionDir.getPath(), 0, 0, false);
+        sessionManager.setSessionSerializer(new JsonSessionSerializer());
+        sessionManager.init();
+        try {
+            sessionManager.getSession(javaSession.getId());
+            fail("Session persisted with Java serialization has been read");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        assertTrue(sessionFile.exists());
+        sessionManager.stop();
+    }
+
+    @Test
+    public void testExpiredSessionIds() {
+        PersistentSessionManager sessionManager = new PersistentSessionManager(sessionDir.getPath(), 0, 0, false);
+        sessionManager.init();
+        long now = System.currentTimeMillis();
+        long lastAccessedTime = now - TimeUnit.MINUTES.toMillis(20);
+        sessionManager.saveSession(new Session("expired", lastAccessedTime, lastAccessedTime, 15,
+                                               Collections.emptyMap()));
+        sessionManager.saveSession(new Session("active", now, now, 15, Collections.emptyMap()));
+
+        // Found from the file modification times, which hold the expiry times
+        assertEquals(Collections.singletonList("expired"), sessionManager.getExpiredSessionIds(now));
+        sessionManager.stop();
+    }
+}
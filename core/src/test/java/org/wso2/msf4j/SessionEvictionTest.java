@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNotSame;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertSame;
+
+/**
+ * Tests eviction of sessions once a SessionManager is full.
+ */
+public class SessionEvictionTest {
+
+    @Test
+    public void testEviction() {
+        DefaultSessionManager sessionManager = new DefaultSessionManager();
+        sessionManager.setMaxActiveSessions(2);
+        sessionManager.init();
+        Session first = sessionManager.createSession();
+        Session second = sessionManager.createSession();
+        assertSame(first, sessionManager.getSession(first.getId()));
+
+        // Creating a session beyond the limit evicts the least recently accessed one instead of failing
+        Session third = sessionManager.createSession();
+        assertSame(first, sessionManager.getSession(first.getId()));
+        assertSame(third, sessionManager.getSession(third.getId()));
+        assertNull(sessionManager.getSession(second.getId()));
+        assertEquals(2, sessionManager.getActiveSessionCount());
+        assertEquals(1, sessionManager.getEvictedSessionCount());
+        sessionManager.stop();
+    }
+
+    @Test
+    public void testSpill() throws Exception {
+        File sessionLogDir = Files.createTempDirectory("msf4j-session-log").toFile();
+        try {
+            LogSessionManager sessionManager = new LogSessionManager(sessionLogDir.getPath(), 4096, false);
+            sessionManager.setMaxActiveSessions(1);
+            sessionManager.init();
+            Session first = sessionManager.createSession();
+            first.setAttribute("name", "wso2");
+            sessionManager.createSession();
+            assertEquals(1, sessionManager.getEvictedSessionCount());
+
+            // The evicted session is read back from the session log
+            Session restored = sessionManager.getSession(first.getId());
+            assertNotSame(first, restored);
+            assertEquals("wso2", restored.getAttribute("name"));
+            sessionManager.stop();
+        } finally {
+            FileUtils.deleteDirectory(sessionLogDir);
+        }
+    }
+
+    @Test
+    public void testExpiredSpill() throws Exception {
+        File sessionDir = Files.createTempDirectory("msf4j-sessions").toFile();
+        try {
+            PersistentSessionManager sessionManager = new PersistentSessionManager(sessionDir.getPath(), 0, 0, false);
+            sessionManager.init();
+
+            // A spilled session which has not been accessed for longer than its max inactive interval
+            long lastAccessedTime = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(20);
+            Session spilled = new Session("spilled", lastAccessedTime, lastAccessedTime, 15,
+                                          Collections.singletonMap("name", "wso2"));
+            File sessionFile = new File(sessionDir, spilled.getId());
+            Files.write(sessionFile.toPath(), new BinarySessionSerializer().serialize(spilled));
+
+            // It is not read back, and is deleted from the storage
+            assertNull(sessionManager.getSession(spilled.getId()));
+            assertFalse(sessionFile.exists());
+            sessionManager.stop();
+        } finally {
+            FileUtils.deleteDirectory(sessionDir);
+        }
+    }
+}
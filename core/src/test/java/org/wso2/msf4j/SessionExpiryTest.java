@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests session expiry of AbstractSessionManager.
+ */
+public class SessionExpiryTest {
+
+    private final SessionManager sessionManager = new DefaultSessionManager();
+
+    @BeforeClass
+    public void setup() {
+        sessionManager.init();
+    }
+
+    @AfterClass
+    public void teardown() {
+        sessionManager.stop();
+    }
+
+    @Test
+    public void testExpiry() throws Exception {
+        Session session = sessionManager.createSession();
+        Session activeSession = sessionManager.createSession();
+        assertSame(session, sessionManager.getSession(session.getId()));
+
+        // Shortening the interval reschedules the expiry
+        session.setMaxInactiveInterval(0);
+        for (int i = 0; i < 100 && session.isValid(); i++) {
+            Thread.sleep(10);
+        }
+        assertFalse(session.isValid());
+        assertNull(sessionManager.getSession(session.getId()));
+
+        assertTrue(activeSession.isValid());
+        assertSame(activeSession, sessionManager.getSession(activeSession.getId()));
+    }
+}
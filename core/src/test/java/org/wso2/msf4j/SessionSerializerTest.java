@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests for the SessionSerializer implementations.
+ */
+public class SessionSerializerTest {
+
+    @DataProvider(name = "serializers")
+    public Object[][] serializers() {
+        return new Object[][]{
+                {new BinarySessionSerializer()}, {new JsonSessionSerializer()}, {new JavaSessionSerializer()}
+        };
+    }
+
+    @Test(dataProvider = "serializers")
+    public void testRoundTrip(SessionSerializer serializer) throws IOException {
+        SessionManager sessionManager = new DefaultSessionManager();
+        Session session = new Session("abc123", 15);
+        session.setManager(sessionManager);
+        session.setAttribute("name", "wso2");
+        session.setAttribute("count", 42);
+        session.setAttribute("total", 42L);
+        session.setAttribute("enabled", true);
+        session.setAttribute("ratio", 0.5d);
+        session.setAttribute("names", new ArrayList<>(Arrays.asList("a", "b")));
+        if (!(serializer instanceof JsonSessionSerializer)) {
+            session.setAttribute("bytes", "data".getBytes(StandardCharsets.UTF_8));
+        }
+
+        Session copy = serializer.deserialize(serializer.serialize(session));
+        assertEquals(session.getId(), copy.getId());
+        assertEquals(session.getCreationTime(), copy.getCreationTime());
+        assertEquals(session.getLastAccessedTime(), copy.getLastAccessedTime());
+        assertEquals(session.getMaxInactiveInterval(), copy.getMaxInactiveInterval());
+        assertEquals(session.getAttributeNames(), copy.getAttributeNames());
+        for (String name : session.getAttributeNames()) {
+            if (name.equals("bytes")) {
+                assertTrue(Arrays.equals((byte[]) session.getAttribute(name), (byte[]) copy.getAttribute(name)));
+            } else {
+                assertEquals(session.getAttribute(name), copy.getAttribute(name));
+            }
+        }
+    }
+
+    @Test(dataProvider = "serializers")
+    public void testForeignData(SessionSerializer serializer) {
+        try {
+            serializer.deserialize("not a session".getBytes(StandardCharsets.UTF_8));
+            assertFalse("Foreign data should be rejected", true);
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testJsonAttributeTypes() throws IOException {
+        SessionSerializer serializer = new JsonSessionSerializer();
+        String json = "{\"id\":\"abc123\",\"creationTime\":0,\"lastAccessedTime\":0,\"maxInactiveInterval\":15," +
+                      "\"attributes\":{\"file\":{\"type\":\"java.io.File\",\"value\":{\"path\":\"/tmp\"}}}}";
+        try {
+            serializer.deserialize(json.getBytes(StandardCharsets.UTF_8));
+            assertFalse("Types which are not JSON values should be rejected", true);
+        } catch (IOException e) {
+            // Expected
+        }
+
+        Session session = new Session("abc123", 15);
+        session.setManager(new DefaultSessionManager());
+        session.setAttribute("file", new File("/tmp"));
+        try {
+            serializer.serialize(session);
+            assertFalse("Types which are not JSON values should be rejected", true);
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+}
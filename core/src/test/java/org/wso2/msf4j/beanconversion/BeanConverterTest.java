@@ -18,13 +18,24 @@ package org.wso2.msf4j.beanconversion;
 
 import org.testng.annotations.Test;
 import org.wso2.msf4j.internal.beanconversion.BeanConverter;
+import org.wso2.msf4j.internal.beanconversion.TextPlainConverter;
+import org.wso2.msf4j.internal.beanconversion.XmlConverter;
 import org.wso2.msf4j.pojo.Category;
 import org.wso2.msf4j.pojo.Pet;
 import org.wso2.msf4j.pojo.XmlBean;
+import org.wso2.msf4j.util.ByteBufferOutputStream;
+import org.wso2.msf4j.util.ByteBufferSequence;
 
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Type;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
 
 /**
  * Tests the functionality of BeanConverter.
@@ -85,6 +96,116 @@ public class BeanConverterTest {
         assertEquals(original.getValue(), result.getValue());
     }
 
+    @Test
+    public void testConversionFromBufferSequence() throws BeanConversionException {
+        Pet pet = makePet();
+        ByteBuffer json = BeanConverter.getConverter("application/json").toMedia(pet);
+        Pet pet1 = (Pet) BeanConverter.getConverter("application/json").convertToObject(split(json), Pet.class);
+        assertEquals(pet.getDetails(), pet1.getDetails());
+        assertEquals(pet.getCategory().getName(), pet1.getCategory().getName());
+
+        XmlBean xmlBean = makeXmlBan();
+        ByteBuffer xml = BeanConverter.getConverter("text/xml").toMedia(xmlBean);
+        XmlBean xmlBean1 =
+                (XmlBean) BeanConverter.getConverter("text/xml").convertToObject(split(xml), XmlBean.class);
+        assertEquals(xmlBean.getName(), xmlBean1.getName());
+
+        ByteBuffer text = BeanConverter.getConverter("text/plain").toMedia("Test_String");
+        assertEquals("Test_String",
+                     BeanConverter.getConverter("text/plain").convertToObject(split(text), String.class));
+    }
+
+    @Test
+    public void testStreamingJsonConversion() throws BeanConversionException {
+        MediaTypeConverter converter = BeanConverter.getConverter("application/json");
+        Pet pet = makePet();
+        StringBuilder details = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            details.append("détails-").append(i);
+        }
+        pet.setDetails(details.toString());
+
+        ByteBufferOutputStream outputStream = new ByteBufferOutputStream(1024);
+        converter.convertToMedia(pet, outputStream);
+        List<ByteBuffer> buffers = outputStream.getBuffers();
+        assertTrue(buffers.size() > 1);
+        ByteBuffer json = converter.convertToMedia(pet);
+        assertEquals(json.remaining(), outputStream.size());
+        assertEquals(StandardCharsets.UTF_8.decode(json.duplicate()).toString(),
+                     new ByteBufferSequence(buffers).toString(StandardCharsets.UTF_8));
+
+        Pet result = (Pet) converter.convertToObject(new ByteBufferSequence(buffers), Pet.class);
+        assertEquals(pet.getDetails(), result.getDetails());
+        byte[] bytes = new byte[json.remaining()];
+        json.get(bytes);
+        result = (Pet) converter.convertToObject(new ByteArrayInputStream(bytes), Pet.class);
+        assertEquals(pet.getDetails(), result.getDetails());
+    }
+
+    @Test
+    public void testXmlFormatting() throws BeanConversionException {
+        XmlBean xmlBean = makeXmlBan();
+        String compact = StandardCharsets.UTF_8.decode(new XmlConverter().toMedia(xmlBean)).toString();
+        assertFalse(compact.contains("\n"));
+        String formatted = StandardCharsets.UTF_8.decode(new XmlConverter(true).toMedia(xmlBean)).toString();
+        assertTrue(formatted.contains("\n    <name>xml-bean-name</name>"));
+
+        MediaTypeConverter converter = BeanConverter.getConverter("text/xml");
+        for (int i = 0; i < 3; i++) {
+            ByteBufferOutputStream outputStream = new ByteBufferOutputStream();
+            converter.convertToMedia(xmlBean, outputStream);
+            XmlBean result = (XmlBean) converter.convertToObject(
+                    new ByteBufferSequence(outputStream.getBuffers()).asInputStream(), XmlBean.class);
+            assertEquals(xmlBean.getName(), result.getName());
+            assertEquals(xmlBean.getValue(), result.getValue());
+        }
+    }
+
+    @Test
+    public void testConverterRegistration() {
+        MediaTypeConverter jsonConverter = BeanConverter.getConverter("application/json");
+        assertTrue(BeanConverter.getConverter("Application/JSON; charset=UTF-8") == jsonConverter);
+        assertTrue(BeanConverter.getConverter("application/x-unknown") instanceof TextPlainConverter);
+
+        MediaTypeConverter lowPriority = new PriorityConverter(MediaTypeConverter.DEFAULT_PRIORITY - 1);
+        MediaTypeConverter highPriority = new PriorityConverter(MediaTypeConverter.DEFAULT_PRIORITY + 1);
+        BeanConverter.addMediaTypeConverter(lowPriority);
+        try {
+            assertTrue(BeanConverter.getConverter("application/json") == jsonConverter);
+            assertTrue(BeanConverter.getConverter("application/x-priority") == lowPriority);
+            BeanConverter.addMediaTypeConverter(highPriority);
+            assertTrue(BeanConverter.getConverter("application/json") == highPriority);
+            assertTrue(BeanConverter.getConverter("application/JSON") == highPriority);
+            BeanConverter.removeMediaTypeConverter(highPriority);
+            assertTrue(BeanConverter.getConverter("application/json") == jsonConverter);
+            assertTrue(BeanConverter.getConverter("application/JSON") == jsonConverter);
+        } finally {
+            BeanConverter.removeMediaTypeConverter(lowPriority);
+            BeanConverter.removeMediaTypeConverter(highPriority);
+        }
+        assertTrue(BeanConverter.getConverter("application/x-priority") instanceof TextPlainConverter);
+    }
+
+    @Test(expectedExceptions = BeanConversionException.class)
+    public void testJsonWithTrailingContent() throws BeanConversionException {
+        BeanConverter.getConverter("application/json")
+                     .toObject(ByteBuffer.wrap("{\"id\":1} {}".getBytes(StandardCharsets.UTF_8)), Pet.class);
+    }
+
+    /**
+     * Split a buffer into buffers of 7 bytes.
+     */
+    private ByteBufferSequence split(ByteBuffer buffer) {
+        List<ByteBuffer> buffers = new ArrayList<>();
+        while (buffer.hasRemaining()) {
+            ByteBuffer chunk = buffer.slice();
+            chunk.limit(Math.min(7, chunk.remaining()));
+            buffer.position(buffer.position() + chunk.remaining());
+            buffers.add(chunk);
+        }
+        return new ByteBufferSequence(buffers);
+    }
+
     private XmlBean makeXmlBan() {
         XmlBean xmlBean = new XmlBean();
         xmlBean.setId(12);
@@ -102,4 +223,35 @@ public class BeanConverterTest {
         pet.setImage("cat.png");
         return pet;
     }
+
+    /**
+     * Converter which claims the JSON media type with a given priority.
+     */
+    private static class PriorityConverter extends MediaTypeConverter {
+        private final int priority;
+
+        PriorityConverter(int priority) {
+            this.priority = priority;
+        }
+
+        @Override
+        public String[] getSupportedMediaTypes() {
+            return new String[]{"application/json", "application/x-priority"};
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+
+        @Override
+        protected ByteBuffer toMedia(Object object) {
+            return ByteBuffer.allocate(0);
+        }
+
+        @Override
+        protected Object toObject(ByteBuffer content, Type targetType) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wso2.msf4j.entitywriter;
+
+import org.wso2.carbon.messaging.CarbonCallback;
+import org.wso2.carbon.messaging.CarbonMessage;
+import org.wso2.carbon.transport.http.netty.common.Constants;
+import org.wso2.msf4j.EntityWriter;
+import org.wso2.msf4j.pojo.Point;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Test entity writer used for testing custom entity writers, which writes points as comma separated values.
+ */
+public class PointEntityWriter implements EntityWriter<Point> {
+
+    @Override
+    public Class<Point> getType() {
+        return Point.class;
+    }
+
+    @Override
+    public void writeData(CarbonMessage carbonMessage, Point point, String mediaType, int chunkSize,
+                          CarbonCallback cb) {
+        byte[] content = (point.getX() + "," + point.getY()).getBytes(StandardCharsets.US_ASCII);
+        carbonMessage.setHeader(Constants.HTTP_CONTENT_TYPE, "text/csv");
+        carbonMessage.setHeader(Constants.HTTP_CONTENT_LENGTH, String.valueOf(content.length));
+        carbonMessage.addMessageBody(ByteBuffer.wrap(content));
+        carbonMessage.setEndOfMsgAdded(true);
+        cb.done(carbonMessage);
+    }
+}
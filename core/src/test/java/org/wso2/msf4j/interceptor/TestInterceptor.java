@@ -26,6 +26,8 @@ import java.util.concurrent.atomic.AtomicInteger;
  * Interceptor used in test.
  */
 public class TestInterceptor implements Interceptor {
+    private static final ThreadLocal<String> requestId = new ThreadLocal<>();
+
     private volatile AtomicInteger numPreCalls = new AtomicInteger(0);
     private volatile AtomicInteger numPostCalls = new AtomicInteger(0);
 
@@ -37,6 +39,13 @@ public class TestInterceptor implements Interceptor {
         return numPostCalls.get();
     }
 
+    /**
+     * @return value of the X-Request-Id header of the request being handled on the current thread.
+     */
+    public static String getRequestId() {
+        return requestId.get();
+    }
+
     public void reset() {
         numPreCalls.set(0);
         numPostCalls.set(0);
@@ -46,6 +55,7 @@ public class TestInterceptor implements Interceptor {
     public boolean preCall(Request request, Response responder, ServiceMethodInfo serviceMethodInfo)
             throws Exception {
         numPreCalls.incrementAndGet();
+        requestId.set(request.getHeader("X-Request-Id"));
 
         String header = request.getHeader("X-Request-Type");
         if (header != null && header.equals("Reject")) {
@@ -64,6 +74,7 @@ public class TestInterceptor implements Interceptor {
     @Override
     public void postCall(Request request, int status, ServiceMethodInfo serviceMethodInfo) {
         numPostCalls.incrementAndGet();
+        requestId.remove();
         String header = request.getHeader("X-Request-Type");
         if (header != null && header.equals("PostException")) {
             throw new IllegalArgumentException("PostException");
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.io;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.messaging.DefaultCarbonMessage;
+import org.wso2.msf4j.Request;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.fail;
+
+/**
+ * Tests for MSF4JRequestInputStream.
+ */
+public class MSF4JRequestInputStreamTest {
+
+    private static MSF4JRequestInputStream stream(String... chunks) {
+        DefaultCarbonMessage carbonMessage = new DefaultCarbonMessage();
+        for (String chunk : chunks) {
+            carbonMessage.addMessageBody(ByteBuffer.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+        }
+        carbonMessage.setEndOfMsgAdded(true);
+        return new MSF4JRequestInputStream(new Request(carbonMessage));
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        MSF4JRequestInputStream inputStream = stream("ab", "", "c");
+        assertEquals('a', inputStream.read());
+        assertEquals('b', inputStream.read());
+        assertEquals('c', inputStream.read());
+        assertEquals(-1, inputStream.read());
+        assertEquals(-1, stream().read());
+    }
+
+    @Test
+    public void testBulkRead() throws IOException {
+        MSF4JRequestInputStream inputStream = stream("abc", "defg", "hi");
+        byte[] bytes = new byte[16];
+        assertEquals(0, inputStream.read(bytes, 0, 0));
+        assertEquals(2, inputStream.read(bytes, 0, 2));
+        // Chunks which are already available are read in one call
+        assertEquals(7, inputStream.read(bytes, 2, 14));
+        assertEquals("abcdefghi", new String(bytes, 0, 9, StandardCharsets.UTF_8));
+        assertEquals(-1, inputStream.read(bytes, 0, 16));
+    }
+
+    @Test
+    public void testReadNBytesAndSkip() throws IOException {
+        MSF4JRequestInputStream inputStream = stream("abc", "defg", "hi");
+        assertEquals(4, inputStream.skip(4));
+        byte[] bytes = new byte[3];
+        assertEquals(3, inputStream.readNBytes(bytes, 0, 3));
+        assertEquals("efg", new String(bytes, StandardCharsets.UTF_8));
+        assertEquals(2, inputStream.skip(10));
+        assertEquals(0, inputStream.skip(10));
+        assertEquals(0, inputStream.readNBytes(bytes, 0, 3));
+    }
+
+    @Test
+    public void testTransferAndReadAll() throws IOException {
+        MSF4JRequestInputStream inputStream = stream("abc", "defg", "hi");
+        assertEquals('a', inputStream.read());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(8, inputStream.transferTo(out));
+        assertEquals("bcdefghi", new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+        inputStream = stream("abc", "defg", "hi");
+        assertEquals(2, inputStream.skip(2));
+        assertEquals("cdefghi", new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testReadBuffer() throws IOException {
+        MSF4JRequestInputStream inputStream = stream("abc", "de");
+        assertEquals('a', inputStream.read());
+        assertEquals("bc", StandardCharsets.UTF_8.decode(inputStream.readBuffer()).toString());
+        assertEquals(2, inputStream.available());
+        assertEquals("de", StandardCharsets.UTF_8.decode(inputStream.readBuffer()).toString());
+        assertNull(inputStream.readBuffer());
+        assertEquals(-1, inputStream.read());
+    }
+
+    @Test
+    public void testInterruptedRead() throws IOException {
+        DefaultCarbonMessage carbonMessage = new DefaultCarbonMessage();
+        carbonMessage.addMessageBody(ByteBuffer.wrap("ab".getBytes(StandardCharsets.UTF_8)));
+        MSF4JRequestInputStream inputStream = new MSF4JRequestInputStream(new Request(carbonMessage));
+        assertEquals(2, inputStream.read(new byte[2], 0, 2));
+
+        // The body is not truncated when the wait for the next chunk is interrupted
+        Thread.currentThread().interrupt();
+        try {
+            inputStream.read();
+            fail("Interrupted read has not failed");
+        } catch (InterruptedIOException e) {
+            // Expected
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
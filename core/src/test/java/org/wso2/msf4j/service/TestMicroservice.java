@@ -23,7 +23,10 @@ import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
 import com.google.gson.reflect.TypeToken;
 import org.apache.commons.io.IOUtils;
+import org.wso2.msf4j.Dispatch;
+import org.wso2.msf4j.DispatchMode;
 import org.wso2.msf4j.HttpStreamHandler;
+import org.wso2.msf4j.HttpStreamSubscription;
 import org.wso2.msf4j.HttpStreamer;
 import org.wso2.msf4j.Microservice;
 import org.wso2.msf4j.Request;
@@ -34,9 +37,12 @@ import org.wso2.msf4j.formparam.FormDataParam;
 import org.wso2.msf4j.formparam.FormItem;
 import org.wso2.msf4j.formparam.FormParamIterator;
 import org.wso2.msf4j.formparam.exception.FormUploadException;
+import org.wso2.msf4j.interceptor.TestInterceptor;
+import org.wso2.msf4j.io.FileRegion;
 import org.wso2.msf4j.pojo.Company;
 import org.wso2.msf4j.pojo.Person;
 import org.wso2.msf4j.pojo.Pet;
+import org.wso2.msf4j.pojo.Point;
 import org.wso2.msf4j.pojo.TextBean;
 import org.wso2.msf4j.pojo.XmlBean;
 import org.wso2.msf4j.service.sub.Team;
@@ -51,10 +57,14 @@ import java.io.InputStreamReader;
 import java.net.URISyntaxException;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.CookieParam;
@@ -69,11 +79,14 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.NewCookie;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import static org.testng.AssertJUnit.fail;
 
@@ -345,6 +358,21 @@ public class TestMicroservice implements Microservice {
         return Response.noContent().build();
     }
 
+    @Path("/fileserver/path/png")
+    @GET
+    public Response servePath() throws Exception {
+        return Response.ok(Paths.get(Thread.currentThread().getContextClassLoader().getResource("testPngFile.png")
+                                             .toURI())).build();
+    }
+
+    @Path("/fileserver/region/txt")
+    @GET
+    public Response serveFileRegion() throws Exception {
+        java.nio.file.Path path =
+                Paths.get(Thread.currentThread().getContextClassLoader().getResource("testTxtFile.txt").toURI());
+        return Response.ok(new FileRegion(path, 10, 100)).build();
+    }
+
     @Path("/fileserver/ip/{fileType}")
     @GET
     public Response serveInputStream(@PathParam("fileType") String fileType) throws Exception {
@@ -364,6 +392,71 @@ public class TestMicroservice implements Microservice {
         return Response.noContent().build();
     }
 
+    @Path("/point")
+    @GET
+    public Point getPoint() {
+        return new Point(3, 4);
+    }
+
+    @Path("/async/stage/{name}")
+    @GET
+    @Produces("text/plain")
+    public CompletionStage<String> asyncStage(@PathParam("name") String name) {
+        return CompletableFuture.supplyAsync(() -> {
+            if ("fail".equals(name)) {
+                throw new CompletionException(new MappedException("Mapped exception thrown"));
+            }
+            return "Hello " + name;
+        });
+    }
+
+    @Path("/async/suspended/{name}")
+    @GET
+    @Produces("text/plain")
+    public void asyncSuspended(@PathParam("name") String name, @Suspended AsyncResponse asyncResponse) {
+        CompletableFuture.runAsync(() -> asyncResponse.resume(Response.ok("Hello " + name).build()));
+    }
+
+    @Path("/async/timeout")
+    @GET
+    public void asyncTimeout(@Suspended AsyncResponse asyncResponse) {
+        asyncResponse.setTimeout(100, TimeUnit.MILLISECONDS);
+    }
+
+    @Path("/dispatch/pooled")
+    @GET
+    @Dispatch(DispatchMode.POOLED)
+    public String pooledDispatch() {
+        return Thread.currentThread().getName();
+    }
+
+    @Path("/dispatch/pooled/interceptor")
+    @GET
+    @Dispatch(DispatchMode.POOLED)
+    public Response pooledInterceptorState(@HeaderParam("X-Request-Id") String requestId) {
+        // The interceptors run on the dispatch thread, so their thread local state is visible here
+        return Response.status(requestId.equals(TestInterceptor.getRequestId()) ?
+                               Response.Status.OK : Response.Status.CONFLICT).build();
+    }
+
+    @Path("/fileserver/so/txt")
+    @GET
+    public Response serveStreamingOutput() throws Exception {
+        File file = new File(Thread.currentThread().getContextClassLoader().getResource("testTxtFile.txt").toURI());
+        StreamingOutput output = outputStream -> {
+            try (InputStream inputStream = new FileInputStream(file)) {
+                // Write in small pieces with a flush in between, so the content spans several chunks
+                byte[] data = new byte[100];
+                int len;
+                while ((len = inputStream.read(data)) != -1) {
+                    outputStream.write(data, 0, len);
+                    outputStream.flush();
+                }
+            }
+        };
+        return Response.ok(output).type("text/plain").build();
+    }
+
     @Path("/stream/upload")
     @PUT
     public void streamUpload(@Context HttpStreamer httpStreamer) throws Exception {
@@ -397,6 +490,48 @@ public class TestMicroservice implements Microservice {
         });
     }
 
+    @Path("/stream/upload/demand")
+    @PUT
+    public void streamUploadOnDemand(@Context HttpStreamer httpStreamer) throws Exception {
+        httpStreamer.callback(new HttpStreamHandler() {
+
+            private org.wso2.msf4j.Response response;
+            private HttpStreamSubscription subscription;
+            private long size;
+
+            @Override
+            public void init(org.wso2.msf4j.Response response) {
+                this.response = response;
+            }
+
+            @Override
+            public void init(org.wso2.msf4j.Response response, HttpStreamSubscription subscription) {
+                this.response = response;
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void chunk(ByteBuffer content) throws Exception {
+                size += content.remaining();
+                // Ask for the next chunk once this one has been handled elsewhere
+                new Thread(() -> subscription.request(1)).start();
+            }
+
+            @Override
+            public void end() throws Exception {
+                response.setStatus(Response.Status.OK.getStatusCode());
+                response.setEntity("Uploaded:" + size);
+                response.send();
+            }
+
+            @Override
+            public void error(Throwable cause) {
+                size = 0;
+            }
+        });
+    }
+
     @Path("/stream/upload/fail")
     @PUT
     public HttpStreamHandler streamUploadFailure() {
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.session;
+
+import org.testng.annotations.Test;
+import org.wso2.msf4j.internal.session.BoundedSessionMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests BoundedSessionMap.
+ */
+public class BoundedSessionMapTest {
+
+    @Test
+    public void testLruEviction() {
+        List<String> evicted = new ArrayList<>();
+        BoundedSessionMap<String> sessions = new BoundedSessionMap<>(3, evicted::add);
+        sessions.put("a", "A");
+        sessions.put("b", "B");
+        sessions.put("c", "C");
+        assertEquals("A", sessions.get("a"));
+        sessions.put("d", "D");
+        assertEquals(1, evicted.size());
+        assertEquals("B", evicted.get(0));
+        assertNull(sessions.get("b"));
+        assertEquals(3, sessions.size());
+        assertEquals(1, sessions.getEvictionCount());
+
+        assertEquals("C", sessions.remove("c"));
+        assertNull(sessions.remove("c"));
+        sessions.put("a", "A2");
+        assertEquals(2, sessions.size());
+        assertEquals(1, sessions.getEvictionCount());
+    }
+
+    @Test
+    public void testCapacity() {
+        List<String> evicted = new ArrayList<>();
+        BoundedSessionMap<String> sessions = new BoundedSessionMap<>(1000, evicted::add);
+        for (int i = 0; i < 5000; i++) {
+            sessions.put("session" + i, "value" + i);
+        }
+        assertTrue(sessions.size() <= 1000);
+        assertEquals(5000, sessions.size() + sessions.getEvictionCount());
+        assertEquals(sessions.getEvictionCount(), evicted.size());
+        // The latest session is always kept
+        assertEquals("value4999", sessions.get("session4999"));
+    }
+}
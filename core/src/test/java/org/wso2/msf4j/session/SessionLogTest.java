@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.session;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.msf4j.internal.session.SessionLog;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests SessionLog.
+ */
+public class SessionLogTest {
+
+    private Path directory;
+
+    @BeforeMethod
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("msf4j-session-log");
+    }
+
+    @AfterMethod
+    public void teardown() throws IOException {
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String read(SessionLog sessionLog, String sessionId) throws IOException {
+        byte[] value = sessionLog.read(sessionId);
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testRecovery() throws IOException {
+        SessionLog sessionLog = new SessionLog(directory, 1024, false);
+        sessionLog.write("a", bytes("a1"));
+        sessionLog.write("b", bytes("b1"));
+        sessionLog.write("a", bytes("a2"));
+        sessionLog.delete("b");
+        assertEquals("a2", read(sessionLog, "a"));
+        assertNull(read(sessionLog, "b"));
+        sessionLog.close();
+
+        // A record cut short by a crash is dropped on recovery
+        Path segment = directory.resolve("segment-0.log");
+        long size = Files.size(segment);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(size);
+            file.write(new byte[]{0, 0, 0, 100, 1, 2});
+        }
+
+        sessionLog = new SessionLog(directory, 1024, false);
+        assertEquals(1, sessionLog.getSessionIds().size());
+        // The replay hands over the latest value of each session, once
+        Map<String, byte[]> recovered = sessionLog.takeRecoveredSessions();
+        assertEquals(1, recovered.size());
+        assertEquals("a2", new String(recovered.get("a"), StandardCharsets.UTF_8));
+        assertTrue(sessionLog.takeRecoveredSessions().isEmpty());
+        assertEquals("a2", read(sessionLog, "a"));
+        assertNull(read(sessionLog, "b"));
+        assertEquals(size, Files.size(segment));
+        sessionLog.write("c", bytes("c1"));
+        sessionLog.close();
+
+        sessionLog = new SessionLog(directory, 1024, false);
+        assertEquals("c1", read(sessionLog, "c"));
+        sessionLog.close();
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        SessionLog sessionLog = new SessionLog(directory, 256, false);
+        for (int i = 0; i < 1000; i++) {
+            sessionLog.write("session" + (i % 5), bytes("value" + i));
+            if (i % 7 == 0) {
+                sessionLog.delete("session" + (i % 5));
+            }
+        }
+        for (int i = 0; i < 100 && sessionLog.getSegmentCount() > 10; i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(sessionLog.getSegmentCount() <= 10);
+        assertTrue(sessionLog.getSize() < 256 * 10);
+        sessionLog.close();
+
+        sessionLog = new SessionLog(directory, 256, false);
+        // Writes 995 to 999 are the latest ones and none of them was deleted
+        for (int i = 995; i < 1000; i++) {
+            assertEquals("value" + i, read(sessionLog, "session" + (i % 5)));
+        }
+        sessionLog.close();
+    }
+
+    @Test
+    public void testExpiredSessionIds() throws IOException {
+        SessionLog sessionLog = new SessionLog(directory, 1024, false);
+        sessionLog.write("a", bytes("a1"), 1000);
+        sessionLog.write("b", bytes("b1"), 3000);
+        sessionLog.write("c", bytes("c1"), 1000);
+        sessionLog.delete("c");
+        assertEquals(Collections.singletonList("a"), sessionLog.getExpiredSessionIds(2000));
+        sessionLog.close();
+
+        // Expiry times are recovered with the records
+        sessionLog = new SessionLog(directory, 1024, false);
+        assertEquals(Collections.singletonList("a"), sessionLog.getExpiredSessionIds(2000));
+        assertEquals(2, sessionLog.getExpiredSessionIds(3000).size());
+        sessionLog.close();
+    }
+}
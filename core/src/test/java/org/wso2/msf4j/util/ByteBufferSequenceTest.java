@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.util;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests for ByteBufferSequence.
+ */
+public class ByteBufferSequenceTest {
+
+    @Test
+    public void testReadAcrossBuffers() throws IOException {
+        byte[] bytes = "café crème".getBytes(StandardCharsets.UTF_8);
+        // Split the two byte encoding of the first non ASCII character across buffers
+        List<ByteBuffer> buffers = Arrays.asList(ByteBuffer.wrap(bytes, 0, 4), ByteBuffer.allocate(0),
+                                                 ByteBuffer.wrap(bytes, 4, bytes.length - 4));
+        ByteBufferSequence sequence = new ByteBufferSequence(buffers);
+        assertEquals(bytes.length, sequence.remaining());
+        assertEquals("café crème", sequence.toString(StandardCharsets.UTF_8));
+
+        InputStream inputStream = sequence.asInputStream();
+        assertEquals(bytes.length, inputStream.available());
+        assertEquals('c', inputStream.read());
+        assertEquals(2, inputStream.skip(2));
+        byte[] read = new byte[bytes.length];
+        assertEquals(bytes.length - 3, inputStream.read(read));
+        assertEquals(-1, inputStream.read());
+        assertEquals(-1, inputStream.read(read, 0, 1));
+
+        // Reading never consumes the underlying buffers
+        assertEquals(4, buffers.get(0).remaining());
+        assertEquals(bytes.length - 4, buffers.get(2).remaining());
+        assertEquals(ByteBuffer.wrap(bytes), sequence.toByteBuffer());
+        assertTrue(new ByteBufferSequence(null).isEmpty());
+    }
+
+    @Test
+    public void testMergeUsesRemainingContent() {
+        ByteBuffer first = ByteBuffer.allocate(64);
+        first.put("abc".getBytes(StandardCharsets.UTF_8)).flip();
+        ByteBuffer second = ByteBuffer.allocate(64);
+        second.put("defg".getBytes(StandardCharsets.UTF_8)).flip();
+        second.get();
+
+        ByteBuffer merged = BufferUtil.merge(Arrays.asList(first, second));
+        assertEquals(6, merged.remaining());
+        assertEquals(6, merged.capacity());
+        assertEquals("abcefg", StandardCharsets.UTF_8.decode(merged).toString());
+        assertEquals(3, first.remaining());
+    }
+}
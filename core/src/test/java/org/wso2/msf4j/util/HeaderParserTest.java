@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.util;
+
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests for HeaderParser.
+ */
+public class HeaderParserTest {
+
+    @Test
+    public void testAccept() {
+        assertNull(HeaderParser.parseAccept(null));
+        assertTrue(HeaderParser.parseAccept("").isEmpty());
+
+        List<HeaderParser.AcceptType> acceptTypes =
+                HeaderParser.parseAccept("text/html;level=1 , application/json; q=0.5,, */*;q=\"0.1\"");
+        assertEquals(3, acceptTypes.size());
+        assertEquals("text/html", acceptTypes.get(0).getMediaType());
+        assertEquals(1.0f, acceptTypes.get(0).getQuality());
+        assertEquals("application/json", acceptTypes.get(1).getMediaType());
+        assertEquals(0.5f, acceptTypes.get(1).getQuality());
+        assertEquals("*/*", acceptTypes.get(2).getMediaType());
+        assertEquals(0.1f, acceptTypes.get(2).getQuality());
+
+        acceptTypes = HeaderParser.parseAccept("text/plain;foo=\"a,b;c\";Q=0, text/xml;q=abc");
+        assertEquals(2, acceptTypes.size());
+        assertEquals(0.0f, acceptTypes.get(0).getQuality());
+        assertEquals("text/xml", acceptTypes.get(1).getMediaType());
+        assertEquals(1.0f, acceptTypes.get(1).getQuality());
+    }
+
+    @Test
+    public void testContentType() {
+        assertNull(HeaderParser.parseMediaType(null));
+        assertEquals("application/json", HeaderParser.parseMediaType("application/json"));
+        assertEquals("text/plain", HeaderParser.parseMediaType("text/plain ; charset=UTF-8"));
+    }
+
+    @Test
+    public void testCookies() {
+        assertTrue(HeaderParser.parseCookies(null).isEmpty());
+
+        Map<String, String> cookies = HeaderParser.parseCookies("a=1; JSESSIONID=abc;b=x=y ; a=2; invalid; =c");
+        assertEquals(3, cookies.size());
+        assertEquals("1", cookies.get("a"));
+        assertEquals("abc", cookies.get("JSESSIONID"));
+        assertEquals("x=y", cookies.get("b"));
+    }
+
+    @Test
+    public void testRanges() {
+        assertNull(HeaderParser.parseRanges(null, 100));
+        assertNull(HeaderParser.parseRanges("items=0-1", 100));
+        assertNull(HeaderParser.parseRanges("bytes=", 100));
+        assertNull(HeaderParser.parseRanges("bytes=5-2", 100));
+        assertNull(HeaderParser.parseRanges("bytes=a-", 100));
+        assertNull(HeaderParser.parseRanges("bytes=1-+2", 100));
+        assertNull(HeaderParser.parseRanges("bytes=99999999999999999999-", 100));
+
+        List<HeaderParser.ByteRange> ranges = HeaderParser.parseRanges("bytes=10-19", 100);
+        assertEquals(1, ranges.size());
+        assertEquals(10, ranges.get(0).getFirst());
+        assertEquals(19, ranges.get(0).getLast());
+        assertEquals(10, ranges.get(0).getLength());
+
+        assertEquals("[90-99]", HeaderParser.parseRanges("Bytes=90-", 100).toString());
+        assertEquals("[90-99]", HeaderParser.parseRanges("bytes=90-200", 100).toString());
+        assertEquals("[80-99]", HeaderParser.parseRanges("bytes=-20", 100).toString());
+        assertEquals("[0-99]", HeaderParser.parseRanges("bytes=-200", 100).toString());
+        assertTrue(HeaderParser.parseRanges("bytes=100-", 100).isEmpty());
+        assertTrue(HeaderParser.parseRanges("bytes=-0", 100).isEmpty());
+        assertTrue(HeaderParser.parseRanges("bytes=-5", 0).isEmpty());
+
+        // Ranges are sorted and overlapping or adjacent ranges are coalesced
+        assertEquals("[0-9, 20-34, 50-99]",
+                     HeaderParser.parseRanges("bytes=50-, 20-29, 0-9,, 25-34, 200-300", 100).toString());
+        assertEquals("[0-19]", HeaderParser.parseRanges("bytes=10-19,0-9", 100).toString());
+
+        StringBuilder tooMany = new StringBuilder("bytes=0-0");
+        for (int i = 1; i <= 16; i++) {
+            tooMany.append(',').append(i * 2).append('-').append(i * 2);
+        }
+        assertNull(HeaderParser.parseRanges(tooMany.toString(), 100));
+    }
+}
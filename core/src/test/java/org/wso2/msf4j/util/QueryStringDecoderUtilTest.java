@@ -290,4 +290,23 @@ public class QueryStringDecoderUtilTest {
 
         assertFalse(entries.hasNext());
     }
+
+    @Test
+    public void testSingleParameter() {
+        String[] uris = {"/foo?a=b=c", "/foo?a=1&a=2", "/foo?a=&a=2", "/foo?=x&b=1", "/foo?a==2;b", "/foo",
+                "/foo?", "/foo?a%20b=c+d&e=%C3%A9", "/foo?x&y=&z=3"};
+        String[] names = {"a", "b", "x", "y", "z", "e", "a b", "missing"};
+        for (String uri : uris) {
+            for (String name : names) {
+                List<String> values = new QueryStringDecoderUtil(uri).parameters().get(name);
+                String expected = values == null ? null : values.get(0);
+                assertEquals(uri + " " + name, expected, new QueryStringDecoderUtil(uri).parameter(name));
+            }
+        }
+
+        QueryStringDecoderUtil decoder = new QueryStringDecoderUtil("/foo?a=1&b=2");
+        decoder.parameters();
+        assertEquals("2", decoder.parameter("b"));
+        assertEquals("1", new QueryStringDecoderUtil("a=1", false).parameter("a"));
+    }
 }
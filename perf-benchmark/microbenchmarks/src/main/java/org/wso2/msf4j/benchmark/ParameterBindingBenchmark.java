@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.messaging.Constants;
+import org.wso2.carbon.messaging.DefaultCarbonMessage;
+import org.wso2.msf4j.Request;
+import org.wso2.msf4j.Response;
+import org.wso2.msf4j.internal.router.HandlerException;
+import org.wso2.msf4j.internal.router.HttpMethodInfo;
+import org.wso2.msf4j.internal.router.HttpResourceModel;
+import org.wso2.msf4j.internal.router.HttpResourceModelProcessor;
+import org.wso2.msf4j.internal.router.ParamConvertUtils;
+import org.wso2.msf4j.util.QueryStringDecoderUtil;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+
+/**
+ * Compares binding the arguments of a resource method with six parameters through the precomputed binding plan of
+ * {@link HttpResourceModel} against resolving each parameter by its annotation on every request, as the processor did
+ * before the binding plan was introduced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParameterBindingBenchmark {
+
+    private HttpResourceModel resourceModel;
+    private Request request;
+    private Response response;
+    private Map<String, String> groupValues;
+    private List<LegacyParameter> legacyParameters;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        OrderService service = new OrderService();
+        Method method = OrderService.class.getMethod("getOrder", String.class, long.class, String.class, int.class,
+                                                     String.class, Request.class);
+        resourceModel = new HttpResourceModel("/orders/{customer}/{order}", method, service, false);
+        legacyParameters = new ArrayList<>();
+        Annotation[][] annotations = method.getParameterAnnotations();
+        Type[] types = method.getGenericParameterTypes();
+        for (int i = 0; i < types.length; i++) {
+            legacyParameters.add(new LegacyParameter(annotations[i][0], types[i]));
+        }
+        DefaultCarbonMessage carbonMessage = new DefaultCarbonMessage();
+        carbonMessage.setProperty(Constants.TO, "/orders/alice/42?fields=items&limit=10");
+        carbonMessage.setProperty(org.wso2.carbon.transport.http.netty.common.Constants.HTTP_METHOD, "GET");
+        carbonMessage.setHeader("X-Request-Id", "abc-123");
+        request = new Request(carbonMessage);
+        response = new Response(message -> { }, request);
+        groupValues = new HashMap<>();
+        groupValues.put("customer", "alice");
+        groupValues.put("order", "42");
+    }
+
+    @Benchmark
+    public Object bindingPlan() throws HandlerException {
+        return new HttpResourceModelProcessor(resourceModel).buildHttpMethodInfo(request, response, groupValues);
+    }
+
+    @Benchmark
+    public Object perRequestAnnotationDispatch() throws HandlerException {
+        Object[] args = new Object[legacyParameters.size()];
+        int idx = 0;
+        for (LegacyParameter parameter : legacyParameters) {
+            args[idx++] = legacyBind(parameter);
+        }
+        return new HttpMethodInfo(resourceModel.getInvoker(), resourceModel.getHttpHandler(), args, null, response);
+    }
+
+    private Object legacyBind(LegacyParameter parameter) {
+        Class<? extends Annotation> annotationType = parameter.annotation.annotationType();
+        if (PathParam.class.isAssignableFrom(annotationType)) {
+            PathParam pathParam = (PathParam) parameter.annotation;
+            String value = groupValues.get(pathParam.value());
+            Objects.requireNonNull(value, String.format("Could not resolve value for parameter %s",
+                                                        pathParam.value()));
+            return parameter.pathConverter.apply(value);
+        } else if (QueryParam.class.isAssignableFrom(annotationType)) {
+            QueryParam queryParam = (QueryParam) parameter.annotation;
+            List<String> values = new QueryStringDecoderUtil(request.getUri()).parameters().get(queryParam.value());
+            return parameter.listConverter.apply(values);
+        } else if (HeaderParam.class.isAssignableFrom(annotationType)) {
+            HeaderParam headerParam = (HeaderParam) parameter.annotation;
+            return parameter.listConverter.apply(Collections.singletonList(request.getHeader(headerParam.value())));
+        } else if (Context.class.isAssignableFrom(annotationType)) {
+            Class<?> paramType = (Class<?>) parameter.type;
+            if (paramType.isAssignableFrom(Request.class)) {
+                return request;
+            } else if (paramType.isAssignableFrom(Response.class)) {
+                return response;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Annotation and converter of a parameter, which the processor kept before the binding plan was introduced.
+     */
+    private static final class LegacyParameter {
+        private final Annotation annotation;
+        private final Type type;
+        private final Function<String, Object> pathConverter;
+        private final Function<List<String>, Object> listConverter;
+
+        LegacyParameter(Annotation annotation, Type type) {
+            this.annotation = annotation;
+            this.type = type;
+            this.pathConverter = annotation instanceof PathParam ? ParamConvertUtils.createPathParamConverter(type)
+                                                                 : null;
+            this.listConverter = annotation instanceof QueryParam ? ParamConvertUtils.createQueryParamConverter(type)
+                               : annotation instanceof HeaderParam ? ParamConvertUtils.createHeaderParamConverter(type)
+                               : null;
+        }
+    }
+
+    /**
+     * Resource with a mix of path, query, header and context parameters.
+     */
+    @Path("/orders")
+    public static class OrderService {
+
+        @GET
+        @Path("/{customer}/{order}")
+        public String getOrder(@PathParam("customer") String customer, @PathParam("order") long order,
+                               @QueryParam("fields") String fields, @QueryParam("limit") int limit,
+                               @HeaderParam("X-Request-Id") String requestId, @Context Request request) {
+            return customer;
+        }
+    }
+}
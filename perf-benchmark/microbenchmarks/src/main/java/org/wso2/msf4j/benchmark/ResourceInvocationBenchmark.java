@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.msf4j.internal.router.MethodInvoker;
+import org.wso2.msf4j.internal.router.ParamConvertUtils;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
+
+/**
+ * Compares invoking an echo style resource method and converting its parameters through reflection against the
+ * method handle based invokers and converters used by the dispatcher.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ResourceInvocationBenchmark {
+
+    private final EchoService service = new EchoService();
+    private final Object[] args = {"hello", 42};
+    private final List<String> queryValue = Collections.singletonList("42");
+
+    private Method method;
+    private MethodInvoker invoker;
+    private Method valueOf;
+    private Function<List<String>, Object> converter;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        method = EchoService.class.getMethod("echo", String.class, int.class);
+        invoker = new MethodInvoker(method);
+        valueOf = Integer.class.getMethod("valueOf", String.class);
+        converter = ParamConvertUtils.createQueryParamConverter(int.class);
+    }
+
+    @Benchmark
+    public Object reflectiveInvoke() throws Exception {
+        return method.invoke(service, args);
+    }
+
+    @Benchmark
+    public Object handleInvoke() throws Exception {
+        return invoker.invoke(service, args);
+    }
+
+    @Benchmark
+    public Object reflectiveConvert() throws Exception {
+        return valueOf.invoke(null, queryValue.get(0));
+    }
+
+    @Benchmark
+    public Object converterConvert() {
+        return converter.apply(queryValue);
+    }
+
+    /**
+     * Echo style resource used by the benchmarks.
+     */
+    @Path("/echo")
+    public static class EchoService {
+
+        @GET
+        @Path("/{message}")
+        public String echo(@PathParam("message") String message, @QueryParam("count") int count) {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://wso2.com) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.msf4j.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.msf4j.BinarySessionSerializer;
+import org.wso2.msf4j.DefaultSessionManager;
+import org.wso2.msf4j.JavaSessionSerializer;
+import org.wso2.msf4j.JsonSessionSerializer;
+import org.wso2.msf4j.Session;
+import org.wso2.msf4j.SessionSerializer;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the time taken to serialize and deserialize a session for Java serialization, the format sessions used to
+ * be persisted in, and the binary and JSON session serializers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SessionSerializerBenchmark {
+
+    @Param({"java", "binary", "json"})
+    private String format;
+
+    private SessionSerializer serializer;
+    private Session session;
+    private byte[] serialized;
+
+    @Setup
+    public void setup() throws IOException {
+        switch (format) {
+            case "binary":
+                serializer = new BinarySessionSerializer();
+                break;
+            case "json":
+                serializer = new JsonSessionSerializer();
+                break;
+            default:
+                serializer = new JavaSessionSerializer();
+        }
+        session = new Session("4B2A0E8C1F6D3A95", 15);
+        session.setManager(new DefaultSessionManager());
+        session.setAttribute("user", "john.doe@example.com");
+        session.setAttribute("role", "admin");
+        session.setAttribute("loginCount", 42);
+        session.setAttribute("lastLogin", System.currentTimeMillis());
+        session.setAttribute("rememberMe", true);
+        serialized = serializer.serialize(session);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return serializer.serialize(session);
+    }
+
+    @Benchmark
+    public Session deserialize() throws IOException {
+        return serializer.deserialize(serialized);
+    }
+}
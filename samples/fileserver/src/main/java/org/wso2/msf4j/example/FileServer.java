@@ -31,6 +31,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
@@ -66,8 +67,9 @@ public class FileServer {
     }
 
     /**
-     * Download file with streaming using a {@link File} object in the response. Streaming is automatically handled
-     * by MSF4J.
+     * Download file with streaming using a {@link java.nio.file.Path} object in the response. Streaming is
+     * automatically handled by MSF4J, large files are sent as memory mapped regions. A {@link File} object can be
+     * returned the same way.
      *
      * @param fileName Name of the file to be downloaded.
      * @return Response
@@ -75,8 +77,8 @@ public class FileServer {
     @GET
     @Path("/{fileName}")
     public Response getFile(@PathParam("fileName") String fileName) {
-        File file = Paths.get(MOUNT_PATH.toString(), fileName).toFile();
-        if (file.exists()) {
+        java.nio.file.Path file = Paths.get(MOUNT_PATH.toString(), fileName);
+        if (Files.isRegularFile(file)) {
             return Response.ok(file).build();
         }
         return Response.status(Response.Status.NOT_FOUND).build();